@@ -0,0 +1,33 @@
+#!/bin/bash
+
+# ElektroniCare Appium - Run JMH Benchmarks and compare with a baseline
+
+# Usage: ./run-benchmarks.sh [BASELINE_JSON] [JMH_ARGS...]
+# Results are written to results/<commit>.json
+
+cd "$(dirname "$0")"
+
+BASELINE=""
+if [ $# -gt 0 ] && [ -f "$1" ]; then
+    BASELINE=$1
+    shift
+fi
+
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || date +%Y%m%d_%H%M%S)
+RESULT="results/${COMMIT}.json"
+mkdir -p results
+
+echo "Installing framework..."
+(cd .. && mvn -q install -DskipTests) || exit 1
+
+echo "Building benchmarks..."
+mvn -q package || exit 1
+
+echo "Running benchmarks, results in $RESULT"
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "$@" || exit 1
+
+if [ -n "$BASELINE" ]; then
+    echo ""
+    echo "Comparing with $BASELINE"
+    java -cp target/benchmarks.jar com.elektronicare.benchmarks.BenchmarkComparator "$BASELINE" "$RESULT"
+fi
@@ -0,0 +1,103 @@
+package com.elektronicare.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 when a
+ * benchmark got slower, or allocates more per operation, by more than the
+ * threshold.
+ *
+ * Usage: java -cp benchmarks.jar com.elektronicare.benchmarks.BenchmarkComparator
+ * baseline.json current.json [thresholdPercent]
+ */
+public class BenchmarkComparator {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    private static final double MIN_ALLOC_DELTA_BYTES = 64;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("NEW   " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = percentChange(oldScore, newScore);
+            boolean slower = higherIsBetter ? change < -threshold : change > threshold;
+
+            double oldAlloc = allocation(before);
+            double newAlloc = allocation(after);
+            boolean allocates = oldAlloc >= 0 && newAlloc >= 0 && newAlloc - oldAlloc > MIN_ALLOC_DELTA_BYTES
+                    && percentChange(oldAlloc, newAlloc) > threshold;
+
+            String status = slower || allocates ? "WORSE" : "OK";
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.println(String.format("%-5s %s: %.3f -> %.3f %s (%+.1f%%)%s", status, entry.getKey(),
+                    oldScore, newScore, after.path("primaryMetric").path("scoreUnit").asText(), change,
+                    newAlloc >= 0 ? String.format(", alloc %.0f -> %.0f B/op", oldAlloc, newAlloc) : ""));
+        }
+
+        System.out.println(regressions + " regression(s) above " + threshold + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Results keyed by benchmark name plus parameters
+     */
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    /**
+     * Bytes allocated per operation from -prof gc, or -1 when it was not recorded
+     */
+    private static double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            // Older JMH versions prefix profiler metrics with a middle dot
+            if (metric.getKey().replace("·", "").equals(ALLOC_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return -1;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100.0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.pages.BasePage;
+import com.elektronicare.pages.ServicesPage;
+import com.elektronicare.support.FakeWebDriverServer;
+import com.elektronicare.utils.DriverManager;
+import com.elektronicare.utils.ElementRecord;
+import com.elektronicare.utils.PageSnapshotCache;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the names of 50 service cards, in bulk through
+ * BasePage.readElements() versus one getText() per element as the
+ * PageFactory lists did, against FakeWebDriverServer serving a 50-card
+ * services screen. After each iteration the number of HTTP requests per
+ * operation is printed, which is the round-trip count on a real device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkReadBenchmark {
+
+    private static final int CARDS = 50;
+
+    /**
+     * Exposes BasePage's protected bulk read
+     */
+    static class ServiceListPage extends BasePage {
+        List<ElementRecord> read(String xpath) {
+            return readElements(xpath, "text");
+        }
+
+        @Override
+        public boolean isPageLoaded() {
+            return true;
+        }
+
+        @Override
+        public String getPageTitle() {
+            return "Services";
+        }
+    }
+
+    private FakeWebDriverServer server;
+    private AndroidDriver driver;
+    private ServiceListPage page;
+    private String serviceNamesXPath;
+    private long requestsAtStart;
+    private long operations;
+
+    @Setup
+    public void setUp() throws Exception {
+        Field field = ServicesPage.class.getDeclaredField("SERVICE_NAMES_XPATH");
+        field.setAccessible(true);
+        serviceNamesXPath = (String) field.get(null);
+
+        server = new FakeWebDriverServer(Fixtures.pageSource("services_50"));
+        server.setElementCount(CARDS);
+        driver = new AndroidDriver(server.start(), new UiAutomator2Options());
+        DriverManager.setDriver(driver);
+        page = new ServiceListPage();
+
+        int names = page.read(serviceNamesXPath).size();
+        if (names != CARDS) {
+            throw new IllegalStateException("Expected " + CARDS + " service names in the fixture, found " + names);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            driver.quit();
+        } finally {
+            DriverManager.removeDriver();
+            server.stop();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        requestsAtStart = server.getRequestCount();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportRequests(BenchmarkParams params) {
+        if (operations > 0) {
+            System.out.printf("%n%s: %.2f requests/op%n", params.getBenchmark(),
+                    (double) (server.getRequestCount() - requestsAtStart) / operations);
+        }
+    }
+
+    /**
+     * One page source fetch, parsed and evaluated in the JVM. The snapshot
+     * is dropped first so every operation pays its round trip.
+     */
+    @Benchmark
+    public List<String> bulkRead() {
+        operations++;
+        PageSnapshotCache.invalidate();
+        List<String> names = new ArrayList<>(CARDS);
+        for (ElementRecord record : page.read(serviceNamesXPath)) {
+            names.add(record.getText());
+        }
+        return names;
+    }
+
+    /**
+     * One findElements plus one getText() request per element
+     */
+    @Benchmark
+    public List<String> perElementRead() {
+        operations++;
+        List<String> names = new ArrayList<>(CARDS);
+        for (WebElement element : driver.findElements(By.xpath(serviceNamesXPath))) {
+            names.add(element.getText());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,98 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.pages.ServicesPage;
+import com.elektronicare.support.FakeWebDriverServer;
+import com.elektronicare.utils.DriverManager;
+import com.elektronicare.utils.PageFieldDecorator;
+import com.elektronicare.utils.TestUtils;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework calls that talk to a driver, run against FakeWebDriverServer.
+ * State is per thread because DriverManager binds the driver to the
+ * benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverBenchmark {
+
+    private FakeWebDriverServer server;
+    private AndroidDriver driver;
+    private WebElement element;
+    private ServicesPage page;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new FakeWebDriverServer(Fixtures.pageSource("services"));
+        driver = new AndroidDriver(server.start(), new UiAutomator2Options());
+        DriverManager.setDriver(driver);
+        element = driver.findElement(By.id("com.example.elektronicarebeta1:id/service_name"));
+        page = new ServicesPage();
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            driver.quit();
+        } finally {
+            DriverManager.removeDriver();
+            server.stop();
+        }
+    }
+
+    /**
+     * TestUtils.waitForElementToBeVisible on an element that is already displayed
+     */
+    @Benchmark
+    public WebElement waitForElementToBeVisible() {
+        return TestUtils.waitForElementToBeVisible(element);
+    }
+
+    /**
+     * Full page construction as done by PageRegistry on a miss
+     */
+    @Benchmark
+    public ServicesPage constructPage() {
+        return new ServicesPage();
+    }
+
+    /**
+     * Element proxies through PageFieldDecorator's cached field bindings
+     */
+    @Benchmark
+    public ServicesPage initElements() {
+        PageFieldDecorator.initElements(driver, page);
+        return page;
+    }
+
+    /**
+     * Element proxies through plain PageFactory and AppiumFieldDecorator, for comparison
+     */
+    @Benchmark
+    public ServicesPage initElementsWithPageFactory() {
+        PageFactory.initElements(new AppiumFieldDecorator(driver), page);
+        return page;
+    }
+}
@@ -0,0 +1,81 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.utils.ExtentReportManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report writes as a test makes them: one test with a handful of log
+ * entries, and the flush that renders the HTML report. The report file is
+ * written under test-reports/ of the working directory.
+ *
+ * logTest() only enqueues events for the report writer thread, so every
+ * iteration starts from an empty report and an empty queue; otherwise tests
+ * pile up in the model and later iterations measure a growing backlog.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtentReportBenchmark {
+
+    private static final int LOG_ENTRIES = 10;
+
+    private long testNumber;
+
+    @Setup
+    public void setUp() {
+        ExtentReportManager.initReports();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetReport() {
+        ExtentReportManager.resetReports();
+        // Returns once the writer has handled everything queued so far
+        ExtentReportManager.flushReports();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ExtentReportManager.removeTest();
+    }
+
+    @Benchmark
+    public void logTest() {
+        ExtentReportManager.createTest("Benchmark test " + testNumber++, "Report write benchmark");
+        for (int i = 0; i < LOG_ENTRIES; i++) {
+            ExtentReportManager.logInfo("Step " + i + " completed");
+        }
+        ExtentReportManager.logPass("Test passed");
+    }
+
+    /**
+     * Flush cost grows with the number of tests in the report, so it is
+     * measured once per iteration after the same batch of tests
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void flush() {
+        for (int i = 0; i < 20; i++) {
+            logTest();
+        }
+        ExtentReportManager.flushReports();
+    }
+}
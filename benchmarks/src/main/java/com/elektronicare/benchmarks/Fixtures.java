@@ -0,0 +1,30 @@
+package com.elektronicare.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorded page sources bundled under /fixtures
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Page source of the named fixture, e.g. "services" for fixtures/services.xml
+     */
+    public static String pageSource(String name) {
+        String resource = "/fixtures/" + name + ".xml";
+        try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fixture " + resource, e);
+        }
+    }
+}
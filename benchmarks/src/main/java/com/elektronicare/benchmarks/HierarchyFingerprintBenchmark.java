@@ -0,0 +1,61 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.utils.HierarchyFingerprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One login-completion poll: the old lowercase-and-contains checks against
+ * a single streaming fingerprint pass. Run with -prof gc to compare the
+ * allocation per poll (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchyFingerprintBenchmark {
+
+    private static final String[] NEEDLES = { ":id/edit_email", ":id/btn_sign_in", "android.widget.Toast",
+            "dashboard", "home", "welcome" };
+
+    @Param({ "login", "login_toast", "dashboard", "services" })
+    public String fixture;
+
+    private String pageSource;
+
+    @Setup
+    public void setUp() {
+        pageSource = Fixtures.pageSource(fixture);
+    }
+
+    @Benchmark
+    public void lowercaseContains(Blackhole blackhole) {
+        String lower = pageSource.toLowerCase();
+        blackhole.consume(lower.contains("edit_email") || lower.contains("btn_sign_in"));
+        blackhole.consume(lower.contains("android.widget.toast"));
+        blackhole.consume(lower.contains("dashboard") || lower.contains("home") || lower.contains("welcome"));
+    }
+
+    @Benchmark
+    public void fingerprint(Blackhole blackhole) {
+        HierarchyFingerprint fingerprint = HierarchyFingerprint.of(pageSource, NEEDLES);
+        blackhole.consume(fingerprint.containsAny(":id/edit_email", ":id/btn_sign_in"));
+        blackhole.consume(fingerprint.contains("android.widget.Toast"));
+        blackhole.consume(fingerprint.containsAny("dashboard", "home", "welcome"));
+        blackhole.consume(fingerprint.getStateHash());
+    }
+}
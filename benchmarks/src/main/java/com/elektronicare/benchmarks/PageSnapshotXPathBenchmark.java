@@ -0,0 +1,76 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.pages.ServicesPage;
+import com.elektronicare.utils.PageSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the recorded services screen and evaluating every ServicesPage
+ * XPath constant against the snapshot. The expressions are read from the
+ * page class so the benchmark follows locator changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSnapshotXPathBenchmark {
+
+    private String pageSource;
+    private PageSnapshot snapshot;
+    private List<String> expressions;
+    private String serviceNamesXPath;
+
+    @Setup
+    public void setUp() throws IllegalAccessException {
+        pageSource = Fixtures.pageSource("services");
+        snapshot = PageSnapshot.parse(pageSource);
+        expressions = new ArrayList<>();
+        for (Field field : ServicesPage.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getName().endsWith("_XPATH")) {
+                field.setAccessible(true);
+                expressions.add((String) field.get(null));
+                if (field.getName().equals("SERVICE_NAMES_XPATH")) {
+                    serviceNamesXPath = (String) field.get(null);
+                }
+            }
+        }
+        if (expressions.isEmpty() || serviceNamesXPath == null) {
+            throw new IllegalStateException("No XPath constants found on ServicesPage");
+        }
+    }
+
+    @Benchmark
+    public PageSnapshot parse() {
+        return PageSnapshot.parse(pageSource);
+    }
+
+    @Benchmark
+    public void evaluateLocators(Blackhole blackhole) {
+        for (String expression : expressions) {
+            blackhole.consume(snapshot.findByXPath(expression));
+        }
+    }
+
+    @Benchmark
+    public void parseAndReadServiceNames(Blackhole blackhole) {
+        blackhole.consume(PageSnapshot.parse(pageSource).texts(serviceNamesXPath));
+    }
+}
@@ -0,0 +1,75 @@
+package com.elektronicare.benchmarks;
+
+import com.elektronicare.utils.ScreenshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScreenshotWriter's encoding step on a phone-sized PNG. The frame is drawn
+ * in setup (cards, text, bottom bar) so no binary fixture is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotEncodeBenchmark {
+
+    @Param({ "png", "jpeg" })
+    public String format;
+
+    @Param({ "1.0", "0.5" })
+    public double scale;
+
+    private byte[] png;
+
+    @Setup
+    public void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(1080, 2400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 1080, 2400);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 42));
+        for (int card = 0; card < 6; card++) {
+            int top = 420 + card * 300;
+            graphics.setColor(new Color(230, 240, 255));
+            graphics.fillRoundRect(48, top, 984, 280, 32, 32);
+            graphics.setColor(new Color(40, 90, 200));
+            graphics.fillOval(72, top + 24, 144, 144);
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawString("Service " + card, 240, top + 80);
+            graphics.drawString("Rp " + (card + 1) * 150 + ".000", 240, top + 230);
+        }
+        graphics.setColor(new Color(245, 245, 245));
+        graphics.fillRect(0, 2200, 1080, 200);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        png = out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return ScreenshotWriter.encode(png, "jpeg".equals(format), scale, 0.8f);
+    }
+}
@@ -1,85 +1,116 @@
 package com.elektronicare.config;
 
+import com.elektronicare.utils.DriverManager;
+import com.elektronicare.utils.GestureEngine;
+import com.elektronicare.utils.LogcatCollector;
+import com.elektronicare.utils.ObservedHttpClientFactory;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
-import io.appium.java_client.service.local.AppiumDriverLocalService;
-import io.appium.java_client.service.local.AppiumServiceBuilder;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
- * Configuration class for Appium setup and driver initialization
+ * Configuration class for Appium setup and driver initialization.
+ * Drivers are kept per thread in DriverManager so tests can run in parallel
+ * across the devices listed in DevicePool.
  */
 public class AppiumConfig {
 
-    private static AndroidDriver driver;
-    private static AppiumDriverLocalService service;
+    private static final Map<DeviceConfig, SessionPool> sessionPools = new ConcurrentHashMap<>();
 
-    // Configuration constants
+    private static final FrameworkConfig CONFIG = FrameworkConfig.get();
+
+    // Configuration constants, overridable per environment (see FrameworkConfig)
     public static final String PLATFORM_NAME = "Android";
     public static final String AUTOMATION_NAME = "UiAutomator2";
-    public static final String DEVICE_NAME = "Android Emulator";
-    public static final String APP_PACKAGE = "com.example.elektronicarebeta1";
-    public static final String APP_ACTIVITY = "com.example.elektronicarebeta1.SplashActivity";
-    public static final String APK_PATH = System.getProperty("user.dir") + "/app-debug.apk";
-    public static final String APPIUM_SERVER_URL = "http://127.0.0.1:4723";
-
-    // Timeout constants
-    public static final Duration IMPLICIT_WAIT = Duration.ofSeconds(3);
-    public static final Duration EXPLICIT_WAIT = Duration.ofSeconds(5);
+    public static final String DEVICE_NAME = CONFIG.getDeviceName();
+    public static final String APP_PACKAGE = CONFIG.getAppPackage();
+    public static final String APP_ACTIVITY = CONFIG.getAppActivity();
+    public static final String APK_PATH = CONFIG.getApkPath();
+    public static final String APPIUM_SERVER_URL = CONFIG.getAppiumServerUrl();
+
+    // Timeout constants; implicitWait() and explicitWait() apply per-device overrides
+    public static final Duration IMPLICIT_WAIT = CONFIG.getImplicitWait();
+    public static final Duration EXPLICIT_WAIT = CONFIG.getExplicitWait();
+
+    // Session pool: -Dsession.pool=true keeps sessions warm and leases them per test
+    public static final boolean SESSION_POOL_ENABLED = CONFIG.getBoolean("session.pool", false);
+    public static final int SESSION_POOL_SIZE = CONFIG.getInt("session.pool.size", 1);
+
+    // Appium servers: spare ports for standby servers and how many to keep warm
+    public static final int APPIUM_PORT_RANGE_START = CONFIG.getInt("appium.port.range.start",
+            CONFIG.getInt("appium.port.base", DeviceConfig.DEFAULT_APPIUM_PORT));
+    public static final int APPIUM_PORT_RANGE_END = CONFIG.getInt("appium.port.range.end",
+            APPIUM_PORT_RANGE_START + 20);
+    public static final int APPIUM_STANDBY_SERVERS = CONFIG.getInt("appium.standby", 1);
+    public static final Duration APPIUM_READY_TIMEOUT = CONFIG.getSeconds("appium.ready.timeout", 60);
+
+    // Live, recorded or replayed driver traffic: -Ddriver.mode=live|record|replay
+    public static final DriverMode DRIVER_MODE = DriverMode.current();
+
+    private static final AppiumServerManager serverManager = new AppiumServerManager(
+            new AppiumServerManager.LocalServiceLauncher(), APPIUM_PORT_RANGE_START, APPIUM_PORT_RANGE_END,
+            APPIUM_STANDBY_SERVERS, APPIUM_READY_TIMEOUT);
 
     /**
-     * Start Appium server programmatically
+     * Start one Appium server per configured device
      */
     public static void startAppiumServer() {
-        try {
-            if (service == null || !service.isRunning()) {
-                AppiumServiceBuilder builder = new AppiumServiceBuilder();
-                builder.withIPAddress("127.0.0.1");
-                builder.usingPort(4723);
-                builder.withArgument(() -> "--allow-insecure", "chromedriver_autodownload");
-                builder.withArgument(() -> "--session-override");
-
-                service = AppiumDriverLocalService.buildService(builder);
-                service.start();
-
-                System.out.println("Appium Server started successfully");
-
-                // Wait a bit for server to be fully ready
-                Thread.sleep(2000);
-            } else {
-                System.out.println("Appium Server already running");
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to start Appium server: " + e.getMessage());
-            throw new RuntimeException("Cannot start Appium server", e);
+        if (!DRIVER_MODE.needsServer()) {
+            System.out.println("Driver mode " + DRIVER_MODE + ": no Appium server needed");
+            return;
         }
+        serverManager.start(DevicePool.getDevices().stream()
+                .map(DeviceConfig::getAppiumPort)
+                .distinct()
+                .collect(Collectors.toList()));
     }
 
     /**
-     * Stop Appium server
+     * Stop all Appium servers
      */
     public static void stopAppiumServer() {
-        try {
-            if (service != null && service.isRunning()) {
-                service.stop();
-                System.out.println("Appium Server stopped successfully");
-            }
-        } catch (Exception e) {
-            System.err.println("Error stopping Appium server: " + e.getMessage());
-        } finally {
-            service = null;
-        }
+        shutdownSessionPool();
+        serverManager.stopAll();
+        DriverMode.finish();
+    }
+
+    public static AppiumServerManager getServerManager() {
+        return serverManager;
     }
 
     /**
-     * Initialize Android driver with capabilities
+     * Initialize Android driver with capabilities for the current thread's device
      */
     public static AndroidDriver initializeDriver() {
+        AndroidDriver driver = DriverManager.peekDriver();
+        DeviceConfig device = DevicePool.acquire();
+
+        // A session recovered after an infrastructure failure is reused by the retried test
+        if (DriverRecovery.takeKeptForRetry() && isDriverResponsive(driver)) {
+            System.out.println("Reusing recovered session for retry: " + driver.getSessionId());
+            return driver;
+        }
+
+        if (SESSION_POOL_ENABLED) {
+            if (driver != null) {
+                getSessionPool(device).release(driver);
+            }
+            driver = getSessionPool(device).lease();
+            DriverManager.setDriver(driver);
+            System.out.println("Android Driver leased from session pool: " + driver.getSessionId());
+            return driver;
+        }
+
         try {
             // Quit existing driver if any
             if (driver != null) {
@@ -88,126 +119,264 @@ public class AppiumConfig {
                 } catch (Exception e) {
                     System.err.println("Warning: Error quitting existing driver: " + e.getMessage());
                 }
-                driver = null;
+                DriverManager.removeDriver();
             }
 
-            UiAutomator2Options options = new UiAutomator2Options();
-
-            // Basic capabilities
-            options.setPlatformName(PLATFORM_NAME);
-            options.setAutomationName(AUTOMATION_NAME);
-            options.setDeviceName(DEVICE_NAME);
-
-            // App capabilities
-            options.setAppPackage(APP_PACKAGE);
-            options.setAppActivity(APP_ACTIVITY);
-
-            // Check if APK file exists
-            File apkFile = new File(APK_PATH);
-            if (apkFile.exists()) {
-                options.setApp(APK_PATH);
-                System.out.println("APK found and set: " + APK_PATH);
-            } else {
-                System.out.println("APK not found at: " + APK_PATH);
-                System.out.println("Will try to launch app if already installed");
-            }
+            driver = createDriver(device);
+            DriverManager.setDriver(driver);
+            return driver;
 
-            // Additional capabilities for stability
-            options.setNoReset(false); // Reset app state
-            options.setFullReset(false); // Don't uninstall app
-            options.setNewCommandTimeout(Duration.ofSeconds(300));
-            options.setUiautomator2ServerInstallTimeout(Duration.ofSeconds(60));
-            options.setUiautomator2ServerLaunchTimeout(Duration.ofSeconds(60));
-            options.setSkipServerInstallation(false);
-            options.setSkipDeviceInitialization(false);
+        } catch (Exception e) {
+            DriverManager.removeDriver();
+            throw new RuntimeException("Failed to initialize Android driver", e);
+        }
+    }
 
-            // Prevent session conflicts
-            options.setAutoGrantPermissions(true);
-            options.setCapability("appium:sessionOverride", true);
+    /**
+     * Build UiAutomator2 options for a new session on the given device
+     */
+    static UiAutomator2Options buildOptions(DeviceConfig device) {
+        FrameworkConfig config = FrameworkConfig.forDevice(device);
+        UiAutomator2Options options = new UiAutomator2Options();
+
+        // Basic capabilities
+        options.setPlatformName(PLATFORM_NAME);
+        options.setAutomationName(AUTOMATION_NAME);
+        options.setDeviceName(config.getDeviceName());
+
+        // Device farm: pin the session to one device and give it its own UiAutomator2 port
+        if (device.isFarmDevice()) {
+            options.setUdid(device.getUdid());
+            options.setSystemPort(device.getSystemPort());
+        }
 
-            // Initialize driver with retry mechanism
-            int maxRetries = 3;
-            Exception lastException = null;
+        // App capabilities
+        options.setAppPackage(config.getAppPackage());
+        options.setAppActivity(config.getAppActivity());
+
+        // Check if APK file exists
+        File apkFile = new File(config.getApkPath());
+        if (apkFile.exists()) {
+            options.setApp(config.getApkPath());
+            System.out.println("APK found and set: " + config.getApkPath());
+        } else {
+            System.out.println("APK not found at: " + config.getApkPath());
+            System.out.println("Will try to launch app if already installed");
+        }
 
-            for (int i = 0; i < maxRetries; i++) {
-                try {
-                    System.out.println("Attempting to initialize driver (attempt " + (i + 1) + "/" + maxRetries + ")");
-                    driver = new AndroidDriver(new URL(APPIUM_SERVER_URL), options);
-
-                    // Verify driver is working
-                    if (isDriverResponsive()) {
-                        // Set timeouts
-                        driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
-                        System.out.println("Android Driver initialized successfully");
-                        return driver;
-                    } else {
-                        throw new RuntimeException("Driver initialized but not responsive");
-                    }
+        // Additional capabilities for stability
+        options.setNoReset(config.isNoReset()); // Reset app state unless no.reset=true
+        options.setFullReset(config.isFullReset()); // Don't uninstall app unless full.reset=true
+        options.setNewCommandTimeout(config.getNewCommandTimeout());
+        options.setUiautomator2ServerInstallTimeout(Duration.ofSeconds(60));
+        options.setUiautomator2ServerLaunchTimeout(Duration.ofSeconds(60));
+        options.setSkipServerInstallation(false);
+        options.setSkipDeviceInitialization(false);
 
-                } catch (Exception e) {
-                    lastException = e;
-                    System.err.println("Driver initialization attempt " + (i + 1) + " failed: " + e.getMessage());
-
-                    if (driver != null) {
-                        try {
-                            driver.quit();
-                        } catch (Exception quitEx) {
-                            // Ignore quit errors during retry
-                        }
-                        driver = null;
-                    }
+        // Prevent session conflicts
+        options.setAutoGrantPermissions(config.isAutoGrantPermissions());
+        options.setCapability("appium:sessionOverride", true);
+
+        return options;
+    }
 
-                    if (i < maxRetries - 1) {
-                        try {
-                            Thread.sleep(2000); // Wait before retry
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                        }
+    /**
+     * Create a new responsive driver session on the given device with retry mechanism
+     */
+    static AndroidDriver createDriver(DeviceConfig device) {
+        UiAutomator2Options options = buildOptions(device);
+
+        int maxRetries = 3;
+        int attempts = 0;
+        Exception lastException = null;
+
+        for (int i = 0; i < maxRetries; i++) {
+            attempts++;
+            try {
+                System.out.println("Attempting to initialize driver on " + device
+                        + " (attempt " + (i + 1) + "/" + maxRetries + ")");
+                AndroidDriver newDriver = openSession(device, options);
+                System.out.println("Android Driver initialized successfully");
+                return newDriver;
+
+            } catch (Exception e) {
+                lastException = e;
+                DriverRecovery.Failure failure = DriverRecovery.classify(e);
+                System.err.println("Driver initialization attempt " + (i + 1) + " failed (" + failure + "): "
+                        + e.getMessage());
+
+                // A rejected capability or missing app fails the same way every time
+                if (e instanceof SessionNotCreatedException && !failure.isInfrastructure()) {
+                    break;
+                }
+
+                if (i < maxRetries - 1) {
+                    try {
+                        Thread.sleep(2000); // Wait before retry
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
                     }
                 }
             }
+        }
 
-            throw new RuntimeException("Failed to initialize Android driver after " + maxRetries + " attempts",
-                    lastException);
+        throw new RuntimeException("Failed to initialize Android driver after " + attempts + " attempt(s)",
+                lastException);
+    }
 
-        } catch (Exception e) {
-            driver = null;
-            throw new RuntimeException("Failed to initialize Android driver", e);
+    /**
+     * Open one session and check that it answers, quitting it if it does not
+     */
+    private static AndroidDriver openSession(DeviceConfig device, UiAutomator2Options options) throws Exception {
+        String serverUrl = DriverMode.REPLAY_SERVER_URL;
+        if (DRIVER_MODE.needsServer()) {
+            // Swap in a standby server if the device's server has died
+            serverManager.ensureRunning(device.getAppiumPort());
+            serverUrl = serverUrlFor(device);
         }
+        AndroidDriver newDriver = new AndroidDriver(new URL(serverUrl),
+                new ObservedHttpClientFactory(DRIVER_MODE.createHttpClientFactory()), options);
+
+        // Verify driver is working
+        Throwable problem = DriverRecovery.probe(newDriver);
+        if (problem != null) {
+            try {
+                newDriver.quit();
+            } catch (Exception quitEx) {
+                // Ignore quit errors during retry
+            }
+            throw new WebDriverException("Driver initialized but not responsive", problem);
+        }
+
+        // Set timeouts
+        newDriver.manage().timeouts().implicitlyWait(FrameworkConfig.forDevice(device).getImplicitWait());
+        DriverHealthMonitor.register(newDriver);
+        return newDriver;
     }
 
     /**
-     * Check if driver is responsive
+     * Replace the current thread's session with one that only restarts the
+     * UiAutomator2 server: nothing is reinstalled and app data is kept
      */
-    private static boolean isDriverResponsive() {
-        try {
-            if (driver == null)
-                return false;
+    public static AndroidDriver restartUiAutomator2() throws Exception {
+        DeviceConfig device = DevicePool.acquire();
+        AndroidDriver oldDriver = DriverManager.peekDriver();
+
+        UiAutomator2Options options = buildOptions(device);
+        options.setNoReset(true);
+        options.setSkipServerInstallation(true);
+        options.setSkipDeviceInitialization(true);
+        options.setCapability("appium:dontStopAppOnReset", true);
+        options.setCapability("appium:enforceAppInstall", false);
+
+        AndroidDriver newDriver = openSession(device, options);
+        if (oldDriver != null) {
+            DriverHealthMonitor.unregister(oldDriver);
+            GestureEngine.forget(oldDriver);
+            LogcatCollector.stop(oldDriver);
+            try {
+                oldDriver.quit();
+            } catch (Exception e) {
+                // The old session is already broken
+            }
+            if (SESSION_POOL_ENABLED) {
+                getSessionPool(device).replace(oldDriver, newDriver);
+            }
+        }
+        DriverManager.setDriver(newDriver);
+        System.out.println("UiAutomator2 restarted with session " + newDriver.getSessionId());
+        return newDriver;
+    }
 
-            // Try to get current activity - this will fail if driver is not working
-            String activity = driver.currentActivity();
-            return activity != null;
-        } catch (Exception e) {
-            return false;
+    /**
+     * URL of the Appium server serving the device, falling back to the configured URL
+     */
+    private static String serverUrlFor(DeviceConfig device) {
+        if (serverManager.hasSlot(device.getAppiumPort())) {
+            return serverManager.getServerUrl(device.getAppiumPort());
+        }
+        return device.isFarmDevice() ? device.getServerUrl() : APPIUM_SERVER_URL;
+    }
+
+    /**
+     * Implicit wait for the current thread's device
+     */
+    public static Duration implicitWait() {
+        return FrameworkConfig.forDevice(DriverManager.getDevice()).getImplicitWait();
+    }
+
+    /**
+     * Explicit wait for the current thread's device
+     */
+    public static Duration explicitWait() {
+        return FrameworkConfig.forDevice(DriverManager.getDevice()).getExplicitWait();
+    }
+
+    /**
+     * Get the session pool for the current thread's device
+     */
+    public static SessionPool getSessionPool() {
+        return getSessionPool(DevicePool.acquire());
+    }
+
+    /**
+     * Get the session pool for a device, creating it on first use
+     */
+    public static SessionPool getSessionPool(DeviceConfig device) {
+        return sessionPools.computeIfAbsent(device, d -> new SessionPool(() -> createDriver(d), APP_PACKAGE,
+                SESSION_POOL_SIZE,
+                SessionPool.ResetStrategy.fromString(CONFIG.getString("session.pool.reset", "clear"))));
+    }
+
+    /**
+     * Create pooled sessions on every device up front
+     */
+    public static void warmUpSessionPools() {
+        DevicePool.getDevices().parallelStream()
+                .forEach(device -> getSessionPool(device).warmUp(SESSION_POOL_SIZE));
+    }
+
+    /**
+     * Quit all pooled sessions and print pool statistics
+     */
+    public static void shutdownSessionPool() {
+        for (Map.Entry<DeviceConfig, SessionPool> entry : sessionPools.entrySet()) {
+            System.out.println("Shutting down session pool for " + entry.getKey());
+            entry.getValue().shutdown();
         }
+        sessionPools.clear();
     }
 
     /**
-     * Get current driver instance with validation
+     * Check if driver is responsive
+     */
+    private static boolean isDriverResponsive(AndroidDriver candidate) {
+        return DriverHealthMonitor.isHealthy(candidate);
+    }
+
+    /**
+     * Get current thread's driver instance with validation
      */
     public static AndroidDriver getDriver() {
+        AndroidDriver driver = DriverManager.peekDriver();
         if (driver == null) {
             throw new RuntimeException("Driver not initialized. Call initializeDriver() first.");
         }
 
-        // Additional check to ensure driver is still responsive
-        if (!isDriverResponsive()) {
-            System.err.println("Driver exists but not responsive, reinitializing...");
-            driver = null;
-            throw new RuntimeException("Driver not responsive. Please reinitialize.");
+        // Cached health, refreshed by the heartbeat and by the session's own commands
+        Throwable problem = DriverHealthMonitor.check(driver);
+        if (problem == null) {
+            return driver;
         }
 
-        return driver;
+        // Recover with the cheapest step that works before giving up on the session
+        System.err.println("Driver exists but not responsive, recovering: " + problem.getMessage());
+        DriverRecovery.Outcome outcome = DriverRecovery.recover(problem);
+        if (outcome.isRecovered()) {
+            return DriverManager.peekDriver();
+        }
+        DriverManager.removeDriver();
+        throw new RuntimeException("Driver not responsive. Please reinitialize.", problem);
     }
 
     /**
@@ -222,18 +391,26 @@ public class AppiumConfig {
     }
 
     /**
-     * Quit driver and cleanup
+     * Quit driver, cleanup and free the current thread's device
      */
     public static void quitDriver() {
+        AndroidDriver driver = DriverManager.peekDriver();
         try {
-            if (driver != null) {
+            if (driver != null && SESSION_POOL_ENABLED) {
+                getSessionPool().release(driver);
+                System.out.println("Android Driver returned to session pool");
+            } else if (driver != null) {
+                DriverHealthMonitor.unregister(driver);
+                GestureEngine.forget(driver);
+                LogcatCollector.stop(driver);
                 driver.quit();
                 System.out.println("Android Driver quit successfully");
             }
         } catch (Exception e) {
             System.err.println("Error quitting driver: " + e.getMessage());
         } finally {
-            driver = null;
+            DriverManager.removeDriver();
+            DevicePool.release();
         }
     }
 
@@ -241,7 +418,7 @@ public class AppiumConfig {
      * Check if driver is initialized and responsive
      */
     public static boolean isDriverInitialized() {
-        return driver != null && isDriverResponsive();
+        return isDriverResponsive(DriverManager.peekDriver());
     }
 
     /**
@@ -249,6 +426,11 @@ public class AppiumConfig {
      */
     public static AndroidDriver reinitializeDriver() {
         System.out.println("Force reinitializing driver...");
+        AndroidDriver driver = DriverManager.peekDriver();
+        if (SESSION_POOL_ENABLED && driver != null) {
+            getSessionPool().discard(driver);
+            DriverManager.removeDriver();
+        }
         quitDriver();
         return initializeDriver();
     }
@@ -264,4 +446,4 @@ public class AppiumConfig {
             return initializeDriver();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,362 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.ReadinessWaiter;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumServiceBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the Appium servers for the suite. Each configured port is a slot
+ * served by one server; readiness is checked by probing /status instead of
+ * sleeping. Warm standby servers are kept on spare ports from the port
+ * range so a crashed server can be swapped out without waiting for a cold
+ * start. A server that already answers on a port (e.g. started by hand) is
+ * adopted and left running at the end. Ports of stopped, dead or failed
+ * servers go back to the range, so repeated crashes do not use it up.
+ *
+ * The launcher is pluggable, so a stub HTTP server answering /status is
+ * enough to exercise the manager without Appium installed.
+ */
+public class AppiumServerManager {
+
+    /**
+     * A running server
+     */
+    public interface ServerHandle {
+        int getPort();
+
+        boolean isRunning();
+
+        void stop();
+    }
+
+    /**
+     * Starts a server on the given port
+     */
+    @FunctionalInterface
+    public interface ServerLauncher {
+        ServerHandle launch(int port) throws Exception;
+    }
+
+    private static final String HOST = "127.0.0.1";
+
+    private final ServerLauncher launcher;
+    private final int portRangeStart;
+    private final int portRangeEnd;
+    private final int standbyCount;
+    private final Duration readyTimeout;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Map<Integer, ServerHandle> slots = new ConcurrentHashMap<>();
+    private final BlockingDeque<ServerHandle> standby = new LinkedBlockingDeque<>();
+    private final Set<Integer> reservedPorts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appium-standby");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TimingStats startupStats = new TimingStats("appium.startup");
+    private final AtomicLong restarts = new AtomicLong();
+    private final AtomicLong adopted = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * @param portRangeStart first port usable for standby servers
+     * @param portRangeEnd   last port usable for standby servers (inclusive)
+     */
+    public AppiumServerManager(ServerLauncher launcher, int portRangeStart, int portRangeEnd, int standbyCount,
+            Duration readyTimeout) {
+        this.launcher = launcher;
+        this.portRangeStart = portRangeStart;
+        this.portRangeEnd = portRangeEnd;
+        this.standbyCount = standbyCount;
+        this.readyTimeout = readyTimeout;
+    }
+
+    /**
+     * Start (or adopt) one server per port in parallel, then fill the standby pool in the background
+     */
+    public void start(Collection<Integer> ports) {
+        stopped = false;
+        reservedPorts.addAll(ports);
+        List<RuntimeException> failures = new ArrayList<>();
+        ports.parallelStream().forEach(port -> {
+            if (slots.containsKey(port) && slots.get(port).isRunning()) {
+                System.out.println("Appium Server already running on port " + port);
+                return;
+            }
+            try {
+                slots.put(port, startOn(port));
+            } catch (RuntimeException e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+        replenishStandby();
+    }
+
+    /**
+     * URL of the server currently serving the slot for the given port
+     */
+    public String getServerUrl(int port) {
+        ServerHandle handle = slots.get(port);
+        return "http://" + HOST + ":" + (handle != null ? handle.getPort() : port);
+    }
+
+    /**
+     * Whether a server was started or adopted for the port
+     */
+    public boolean hasSlot(int port) {
+        return slots.containsKey(port);
+    }
+
+    /**
+     * Replace the slot's server with a standby if it is no longer running
+     */
+    public void ensureRunning(int port) {
+        ServerHandle handle = slots.get(port);
+        if (handle != null && !handle.isRunning()) {
+            replace(port, handle);
+        }
+    }
+
+    /**
+     * Stop every server this manager started and print the report
+     */
+    public void stopAll() {
+        stopped = true;
+        List<ServerHandle> handles = new ArrayList<>(slots.values());
+        handles.addAll(standby);
+        for (ServerHandle handle : handles) {
+            if (handle instanceof ExternalServer) {
+                continue;
+            }
+            try {
+                handle.stop();
+                System.out.println("Appium Server stopped successfully on port " + handle.getPort());
+            } catch (Exception e) {
+                System.err.println("Error stopping Appium server: " + e.getMessage());
+            }
+        }
+        System.out.println(getReport());
+        slots.clear();
+        standby.clear();
+        reservedPorts.clear();
+    }
+
+    public String getReport() {
+        return "Appium servers: slots=" + slots.size() + " standby=" + standby.size() + " restarts=" + restarts.get()
+                + " adopted=" + adopted.get() + "\n  " + startupStats;
+    }
+
+    public long getRestartCount() {
+        return restarts.get();
+    }
+
+    public int getStandbyCount() {
+        return standby.size();
+    }
+
+    /**
+     * Whether the server on the port answers /status
+     */
+    public boolean isReady(int port) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + HOST + ":" + port + "/status"))
+                    .timeout(Duration.ofSeconds(2))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 && !response.body().replace(" ", "").contains("\"ready\":false");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private synchronized void replace(int port, ServerHandle failed) {
+        if (slots.get(port) != failed) {
+            return; // Already replaced by another thread
+        }
+        restarts.incrementAndGet();
+        discard(failed);
+
+        ServerHandle next = standby.poll();
+        while (next != null && !next.isRunning()) {
+            discard(next);
+            next = standby.poll();
+        }
+        String source = "standby";
+        if (next == null) {
+            source = "cold start";
+            next = startOnFreePort();
+        }
+        slots.put(port, next);
+        System.err.println("Appium server on port " + failed.getPort() + " was down, replaced by " + source
+                + " on port " + next.getPort());
+        replenishStandby();
+    }
+
+    private ServerHandle startOn(int port) {
+        if (isReady(port)) {
+            adopted.incrementAndGet();
+            System.out.println("Appium Server already answering on port " + port + ", using it");
+            return new ExternalServer(port);
+        }
+
+        long start = System.nanoTime();
+        ServerHandle handle;
+        try {
+            handle = launcher.launch(port);
+        } catch (Exception e) {
+            System.err.println("Failed to start Appium server: " + e.getMessage());
+            throw new RuntimeException("Cannot start Appium server on port " + port, e);
+        }
+
+        if (!ReadinessWaiter.waitUntil("appium.status", readyTimeout, () -> isReady(port))) {
+            handle.stop();
+            throw new RuntimeException("Appium server on port " + port + " did not become ready within "
+                    + readyTimeout.getSeconds() + "s");
+        }
+        long elapsed = startupStats.recordSince(start);
+        System.out.println("Appium Server started successfully on port " + port + " in " + elapsed / 1_000_000 + "ms");
+        return handle;
+    }
+
+    private void replenishStandby() {
+        if (standbyCount <= 0) {
+            return;
+        }
+        background.submit(() -> {
+            while (!stopped && standby.size() < standbyCount) {
+                try {
+                    ServerHandle handle = startOnFreePort();
+                    if (stopped) {
+                        discard(handle);
+                        return;
+                    }
+                    standby.add(handle);
+                } catch (Exception e) {
+                    System.err.println("Could not start standby Appium server: " + e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Start a server on a free port from the range, releasing the port if it fails
+     */
+    private ServerHandle startOnFreePort() {
+        int port = nextFreePort();
+        try {
+            return startOn(port);
+        } catch (RuntimeException e) {
+            reservedPorts.remove(port);
+            throw e;
+        }
+    }
+
+    /**
+     * Stop a server that is no longer used and give its port back to the range
+     */
+    private void discard(ServerHandle handle) {
+        try {
+            handle.stop();
+        } catch (Exception e) {
+            // The process is usually already gone
+        }
+        reservedPorts.remove(handle.getPort());
+    }
+
+    private synchronized int nextFreePort() {
+        for (int port = portRangeStart; port <= portRangeEnd; port++) {
+            if (!reservedPorts.contains(port) && !isReady(port)) {
+                reservedPorts.add(port);
+                return port;
+            }
+        }
+        throw new RuntimeException("No free Appium port in range " + portRangeStart + "-" + portRangeEnd);
+    }
+
+    /**
+     * Launches AppiumDriverLocalService with the suite's server arguments
+     */
+    public static class LocalServiceLauncher implements ServerLauncher {
+
+        @Override
+        public ServerHandle launch(int port) {
+            AppiumServiceBuilder builder = new AppiumServiceBuilder();
+            builder.withIPAddress(HOST);
+            builder.usingPort(port);
+            builder.withArgument(() -> "--allow-insecure", "chromedriver_autodownload,adb_shell");
+            builder.withArgument(() -> "--session-override");
+
+            AppiumDriverLocalService service = AppiumDriverLocalService.buildService(builder);
+            service.start();
+            return new ServerHandle() {
+                @Override
+                public int getPort() {
+                    return port;
+                }
+
+                @Override
+                public boolean isRunning() {
+                    return service.isRunning();
+                }
+
+                @Override
+                public void stop() {
+                    service.stop();
+                }
+            };
+        }
+    }
+
+    /**
+     * A server this manager did not start; it is probed but never stopped
+     */
+    private class ExternalServer implements ServerHandle {
+        private final int port;
+
+        ExternalServer(int port) {
+            this.port = port;
+        }
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return isReady(port);
+        }
+
+        @Override
+        public void stop() {
+            // Not ours to stop
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.elektronicare.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One device (emulator or physical) in the device farm, with the ports
+ * reserved for its UiAutomator2 server and its own Appium server
+ */
+public final class DeviceConfig {
+
+    public static final int DEFAULT_APPIUM_PORT = 4723;
+    public static final int DEFAULT_SYSTEM_PORT = 8200;
+
+    private final String udid;
+    private final int systemPort;
+    private final int appiumPort;
+
+    public DeviceConfig(String udid, int systemPort, int appiumPort) {
+        this.udid = udid;
+        this.systemPort = systemPort;
+        this.appiumPort = appiumPort;
+    }
+
+    /**
+     * Device used when no farm is configured: whatever single device adb sees
+     */
+    public static DeviceConfig defaultDevice() {
+        return new DeviceConfig(null, DEFAULT_SYSTEM_PORT, DEFAULT_APPIUM_PORT);
+    }
+
+    /**
+     * Parse a device list such as "emulator-5554,emulator-5556" or
+     * "emulator-5554/8200/4723,192.168.1.20:5555/8201/4724". Ports that are
+     * not given are assigned sequentially from the base ports.
+     */
+    public static List<DeviceConfig> parse(String deviceList, int systemPortBase, int appiumPortBase) {
+        if (deviceList == null || deviceList.trim().isEmpty()) {
+            return Collections.singletonList(defaultDevice());
+        }
+
+        List<DeviceConfig> devices = new ArrayList<>();
+        int index = 0;
+        for (String entry : deviceList.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split("/");
+            int systemPort = parts.length > 1 ? Integer.parseInt(parts[1]) : systemPortBase + index;
+            int appiumPort = parts.length > 2 ? Integer.parseInt(parts[2]) : appiumPortBase + index;
+            devices.add(new DeviceConfig(parts[0], systemPort, appiumPort));
+            index++;
+        }
+        return Collections.unmodifiableList(devices);
+    }
+
+    public String getUdid() {
+        return udid;
+    }
+
+    public int getSystemPort() {
+        return systemPort;
+    }
+
+    public int getAppiumPort() {
+        return appiumPort;
+    }
+
+    public String getServerUrl() {
+        return "http://127.0.0.1:" + appiumPort;
+    }
+
+    /**
+     * Whether this device was explicitly listed rather than the single default device
+     */
+    public boolean isFarmDevice() {
+        return udid != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DeviceConfig)) {
+            return false;
+        }
+        DeviceConfig that = (DeviceConfig) o;
+        return systemPort == that.systemPort && appiumPort == that.appiumPort && Objects.equals(udid, that.udid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(udid, systemPort, appiumPort);
+    }
+
+    @Override
+    public String toString() {
+        return (udid != null ? udid : "default-device") + " (systemPort=" + systemPort + ", appiumPort=" + appiumPort + ")";
+    }
+}
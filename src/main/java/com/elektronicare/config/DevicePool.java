@@ -0,0 +1,80 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.DriverManager;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out devices from the farm to TestNG worker threads. A thread keeps
+ * its device until its driver is quit, so at most one session runs per device.
+ *
+ * Devices are listed with -Ddevices=emulator-5554,emulator-5556; the
+ * DeviceFarmListener registered in testng.xml then switches the suite to
+ * parallel methods with one thread per device.
+ */
+public class DevicePool {
+
+    private static final long ACQUIRE_TIMEOUT_MINUTES = 10;
+
+    private static final List<DeviceConfig> devices = DeviceConfig.parse(
+            FrameworkConfig.get().getString("devices", null),
+            FrameworkConfig.get().getInt("system.port.base", DeviceConfig.DEFAULT_SYSTEM_PORT),
+            FrameworkConfig.get().getInt("appium.port.base", DeviceConfig.DEFAULT_APPIUM_PORT));
+
+    private static final BlockingQueue<DeviceConfig> available = new LinkedBlockingQueue<>(devices);
+
+    private DevicePool() {
+    }
+
+    /**
+     * All configured devices
+     */
+    public static List<DeviceConfig> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Whether more than the single default device is configured
+     */
+    public static boolean isFarmMode() {
+        return devices.size() > 1 || devices.get(0).isFarmDevice();
+    }
+
+    /**
+     * Device bound to the current thread, acquiring a free one if needed
+     */
+    public static DeviceConfig acquire() {
+        DeviceConfig device = DriverManager.getDevice();
+        if (device != null) {
+            return device;
+        }
+
+        try {
+            device = available.poll(ACQUIRE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a free device", e);
+        }
+        if (device == null) {
+            throw new RuntimeException("No device became free within " + ACQUIRE_TIMEOUT_MINUTES + " minutes");
+        }
+
+        DriverManager.setDevice(device);
+        System.out.println("[" + Thread.currentThread().getName() + "] Acquired device " + device);
+        return device;
+    }
+
+    /**
+     * Give the current thread's device back to the pool
+     */
+    public static void release() {
+        DeviceConfig device = DriverManager.getDevice();
+        if (device != null) {
+            DriverManager.removeDevice();
+            available.offer(device);
+        }
+    }
+}
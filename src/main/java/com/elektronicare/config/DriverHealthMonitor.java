@@ -0,0 +1,213 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.ObservedHttpClientFactory;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached health of each driver session, so AppiumConfig.getDriver() reads a
+ * volatile flag instead of sending currentActivity() on every call.
+ *
+ * The cache is kept fresh three ways:
+ * - every successful WebDriver command of the session counts as proof of
+ *   life (seen through ObservedHttpClientFactory, no extra traffic)
+ * - a background heartbeat probes sessions that have been idle for a full
+ *   interval
+ * - a caller that finds the state older than the staleness window probes
+ *   synchronously, as before
+ *
+ * Options: -Ddriver.heartbeat=false, -Ddriver.heartbeat.interval.ms=5000,
+ * -Ddriver.health.staleness.ms=15000. Staleness 0 probes on every call.
+ */
+public class DriverHealthMonitor {
+
+    public static final boolean HEARTBEAT_ENABLED = FrameworkConfig.get().getBoolean("driver.heartbeat", true)
+            && DriverMode.current() != DriverMode.REPLAY;
+    public static final long INTERVAL_MS = FrameworkConfig.get().getLong("driver.heartbeat.interval.ms", 5000);
+    public static final long STALENESS_MS = FrameworkConfig.get().getLong("driver.health.staleness.ms", 15000);
+
+    /**
+     * Last known health of one session
+     */
+    private static class Health {
+        final AndroidDriver driver;
+        volatile boolean healthy;
+        volatile Throwable error;
+        volatile long checkedAtNanos;
+        volatile ScheduledFuture<?> heartbeat;
+
+        Health(AndroidDriver driver) {
+            this.driver = driver;
+        }
+
+        void update(Throwable problem) {
+            error = problem;
+            healthy = problem == null;
+            checkedAtNanos = System.nanoTime();
+        }
+
+        long ageMillis() {
+            return (System.nanoTime() - checkedAtNanos) / 1_000_000;
+        }
+    }
+
+    private static final Map<String, Health> sessions = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "driver-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final TimingStats probeStats = new TimingStats("health.probe");
+    private static final AtomicLong heartbeatProbes = new AtomicLong();
+    private static final AtomicLong syncProbes = new AtomicLong();
+    private static final AtomicLong heartbeatsSkipped = new AtomicLong();
+    private static final AtomicLong avoidedProbes = new AtomicLong();
+    private static final AtomicLong passiveRefreshes = new AtomicLong();
+    private static final long startNanos = System.nanoTime();
+
+    static {
+        // Any successful command proves the session is alive
+        ObservedHttpClientFactory.addListener((request, response, elapsedNanos) -> {
+            if (response.getStatus() < 200 || response.getStatus() >= 300) {
+                return;
+            }
+            String sessionId = ObservedHttpClientFactory.sessionIdOf(request);
+            Health health = sessionId == null ? null : sessions.get(sessionId);
+            if (health != null) {
+                health.update(null);
+                passiveRefreshes.incrementAndGet();
+            }
+        });
+    }
+
+    private DriverHealthMonitor() {
+    }
+
+    /**
+     * Start tracking a session that has just been verified
+     */
+    public static void register(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        if (sessionId == null) {
+            return;
+        }
+        Health health = new Health(driver);
+        health.update(null);
+        Health previous = sessions.put(sessionId, health);
+        cancel(previous);
+        if (HEARTBEAT_ENABLED && INTERVAL_MS > 0) {
+            health.heartbeat = heartbeatExecutor.scheduleWithFixedDelay(() -> beat(sessionId, health), INTERVAL_MS,
+                    INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop tracking a session, e.g. because it is being quit
+     */
+    public static void unregister(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        if (sessionId != null) {
+            cancel(sessions.remove(sessionId));
+        }
+    }
+
+    /**
+     * Health of the session: null if it is healthy, otherwise the last error.
+     * Answered from the cache while it is fresher than the staleness window.
+     */
+    public static Throwable check(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        Health health = sessionId == null ? null : sessions.get(sessionId);
+        if (health != null && health.ageMillis() <= STALENESS_MS) {
+            avoidedProbes.incrementAndGet();
+            return health.error;
+        }
+        syncProbes.incrementAndGet();
+        return probe(driver, health);
+    }
+
+    public static boolean isHealthy(AndroidDriver driver) {
+        return driver != null && check(driver) == null;
+    }
+
+    /**
+     * Probe the session now, bypassing the cache, and update the cache
+     */
+    public static Throwable probe(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        syncProbes.incrementAndGet();
+        return probe(driver, sessionId == null ? null : sessions.get(sessionId));
+    }
+
+    public static long getProbeCount() {
+        return heartbeatProbes.get() + syncProbes.get();
+    }
+
+    public static long getAvoidedProbeCount() {
+        return avoidedProbes.get();
+    }
+
+    public static String getStatsSummary() {
+        double minutes = Math.max(1e-9, (System.nanoTime() - startNanos) / 60e9);
+        return String.format("Driver health: heartbeat %s every %dms, staleness %dms, sessions=%d%n"
+                + "  probes=%d (heartbeat=%d, on demand=%d, %.1f/min), heartbeats skipped=%d, avoided probes=%d,"
+                + " passive refreshes=%d%n  %s",
+                HEARTBEAT_ENABLED ? "on" : "off", INTERVAL_MS, STALENESS_MS, sessions.size(), getProbeCount(),
+                heartbeatProbes.get(), syncProbes.get(), getProbeCount() / minutes, heartbeatsSkipped.get(),
+                avoidedProbes.get(), passiveRefreshes.get(), probeStats);
+    }
+
+    private static void beat(String sessionId, Health health) {
+        if (health.driver.getSessionId() == null) {
+            // Quit without being unregistered
+            sessions.remove(sessionId, health);
+            cancel(health);
+            return;
+        }
+        if (health.healthy && health.ageMillis() < INTERVAL_MS) {
+            // A command succeeded since the last beat
+            heartbeatsSkipped.incrementAndGet();
+            return;
+        }
+        heartbeatProbes.incrementAndGet();
+        Throwable problem = probe(health.driver, health);
+        if (problem != null) {
+            System.err.println("Heartbeat: session " + sessionId + " not responsive: " + problem.getMessage());
+        }
+    }
+
+    private static Throwable probe(AndroidDriver driver, Health health) {
+        long start = System.nanoTime();
+        Throwable problem = DriverRecovery.probe(driver);
+        probeStats.recordSince(start);
+        if (health != null) {
+            health.update(problem);
+        }
+        return problem;
+    }
+
+    private static void cancel(Health health) {
+        if (health != null && health.heartbeat != null) {
+            health.heartbeat.cancel(false);
+        }
+    }
+
+    private static String idOf(AndroidDriver driver) {
+        if (driver == null) {
+            return null;
+        }
+        SessionId sessionId = driver.getSessionId();
+        return sessionId == null ? null : sessionId.toString();
+    }
+}
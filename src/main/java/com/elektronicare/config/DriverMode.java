@@ -0,0 +1,90 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.RecordingHttpClientFactory;
+import com.elektronicare.utils.ReplayHttpClientFactory;
+import com.elektronicare.utils.SessionRecording;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Where driver commands go: a live Appium server, a live server with the
+ * traffic recorded to disk, or a recording replayed without any server or
+ * device.
+ *
+ * Options: -Ddriver.mode=live|record|replay,
+ * -Ddriver.recording=recordings/session.jsonl.gz,
+ * -Ddriver.replay.latency=none|recorded|&lt;ms&gt;
+ */
+public enum DriverMode {
+    LIVE, RECORD, REPLAY;
+
+    public static final String RECORDING_PATH = FrameworkConfig.get().getString("driver.recording",
+            System.getProperty("user.dir") + "/recordings/session.jsonl.gz");
+    public static final String REPLAY_LATENCY = FrameworkConfig.get().getString("driver.replay.latency", "none");
+
+    /**
+     * Placeholder server address used in replay mode; nothing listens on it
+     */
+    public static final String REPLAY_SERVER_URL = "http://127.0.0.1:4723";
+
+    private static SessionRecording recording;
+    private static ReplayHttpClientFactory replayFactory;
+
+    public static DriverMode current() {
+        String mode = FrameworkConfig.get().getString("driver.mode", "live");
+        try {
+            return valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown driver.mode '" + mode + "', using live");
+            return LIVE;
+        }
+    }
+
+    /**
+     * Transport for a new driver session in this mode
+     */
+    public synchronized HttpClient.Factory createHttpClientFactory() {
+        switch (this) {
+            case RECORD:
+                if (recording == null) {
+                    recording = SessionRecording.create(Paths.get(RECORDING_PATH));
+                    Runtime.getRuntime().addShutdownHook(new Thread(DriverMode::finish, "recording-close"));
+                }
+                return new RecordingHttpClientFactory(recording);
+            case REPLAY:
+                if (replayFactory == null) {
+                    Path path = Paths.get(RECORDING_PATH);
+                    if (!Files.exists(path)) {
+                        throw new IllegalStateException("No recording to replay at " + path
+                                + "; run once with -Ddriver.mode=record");
+                    }
+                    replayFactory = new ReplayHttpClientFactory(path, REPLAY_LATENCY);
+                }
+                return replayFactory;
+            default:
+                return HttpClient.Factory.createDefault();
+        }
+    }
+
+    /**
+     * Whether an Appium server is needed
+     */
+    public boolean needsServer() {
+        return this != REPLAY;
+    }
+
+    /**
+     * Close the recording and print replay statistics
+     */
+    public static synchronized void finish() {
+        if (recording != null) {
+            recording.close();
+        }
+        if (replayFactory != null) {
+            System.out.println(replayFactory.getStatsSummary());
+        }
+    }
+}
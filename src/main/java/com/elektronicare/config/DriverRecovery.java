@@ -0,0 +1,365 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.DriverManager;
+import com.elektronicare.utils.ExtentReportManager;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.appmanagement.ApplicationState;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classifies driver failures and recovers from infrastructure ones with the
+ * cheapest step that works, escalating only when a step does not bring the
+ * session back:
+ *
+ * 1. REATTACH - make sure the Appium server is up and the session answers
+ * 2. RESTART_UIAUTOMATOR2 - light session that restarts the UiAutomator2
+ *    server without reinstalling anything or clearing app data
+ * 3. RESTART_APP - terminate and relaunch the app in the same session
+ * 4. NEW_SESSION - full re-initialization, as before
+ *
+ * Assertion failures and ordinary element errors are never recovered.
+ * Each recovery is logged to the current report test with its cost and
+ * counted for the suite summary. -Ddriver.recovery=false turns it off.
+ */
+public class DriverRecovery {
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("driver.recovery", true);
+
+    /**
+     * What went wrong, as far as the exception and the device tell
+     */
+    public enum Failure {
+        /** The test's own assertion failed */
+        ASSERTION(null),
+        /** The Appium session no longer exists */
+        SESSION_GONE(Recovery.NEW_SESSION),
+        /** The connection to the Appium server broke or timed out */
+        CONNECTION(Recovery.REATTACH),
+        /** The UiAutomator2 server on the device crashed or stopped answering */
+        UIAUTOMATOR2_CRASH(Recovery.RESTART_UIAUTOMATOR2),
+        /** The session works but the app under test is no longer in the foreground */
+        APP_NOT_RUNNING(Recovery.RESTART_APP),
+        /** Anything else, e.g. an element that was not found */
+        OTHER(null);
+
+        private final Recovery firstStep;
+
+        Failure(Recovery firstStep) {
+            this.firstStep = firstStep;
+        }
+
+        public boolean isInfrastructure() {
+            return firstStep != null;
+        }
+    }
+
+    /**
+     * Recovery steps, cheapest first
+     */
+    public enum Recovery {
+        REATTACH, RESTART_UIAUTOMATOR2, RESTART_APP, NEW_SESSION
+    }
+
+    /**
+     * Result of one recovery
+     */
+    public static class Outcome {
+        private final Failure failure;
+        private final Recovery recovery;
+        private final long millis;
+
+        Outcome(Failure failure, Recovery recovery, long millis) {
+            this.failure = failure;
+            this.recovery = recovery;
+            this.millis = millis;
+        }
+
+        public Failure getFailure() {
+            return failure;
+        }
+
+        /**
+         * Step that brought the session back, or null if none did
+         */
+        public Recovery getRecovery() {
+            return recovery;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public boolean isRecovered() {
+            return recovery != null;
+        }
+
+        @Override
+        public String toString() {
+            return failure + (recovery != null ? " recovered by " + recovery : " not recovered") + " in "
+                    + millis + "ms";
+        }
+    }
+
+    private static final String[] SESSION_GONE_HINTS = { "invalid session id",
+            "session is either terminated or not started", "a session is either terminated" };
+    private static final String[] CONNECTION_HINTS = { "connection reset", "connection refused", "econnreset",
+            "econnrefused", "broken pipe", "could not connect", "timed out waiting for a node", "read timed out" };
+    private static final String[] UIAUTOMATOR2_HINTS = { "instrumentation process is not running",
+            "uiautomator2 server", "cannot be proxied to uiautomator2", "socket hang up", "uiautomation not connected",
+            "uiautomator not connected" };
+
+    private static final Map<Failure, AtomicLong> failures = new EnumMap<>(Failure.class);
+    private static final Map<Recovery, TimingStats> stepStats = new EnumMap<>(Recovery.class);
+    private static final Map<Recovery, AtomicLong> recovered = new EnumMap<>(Recovery.class);
+    private static final AtomicLong unrecovered = new AtomicLong();
+    private static final ThreadLocal<Boolean> recovering = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> keptForRetry = ThreadLocal.withInitial(() -> false);
+
+    static {
+        for (Failure failure : Failure.values()) {
+            failures.put(failure, new AtomicLong());
+        }
+        for (Recovery recovery : Recovery.values()) {
+            stepStats.put(recovery, new TimingStats("recovery." + recovery.name().toLowerCase(Locale.ROOT)));
+            recovered.put(recovery, new AtomicLong());
+        }
+    }
+
+    private DriverRecovery() {
+    }
+
+    /**
+     * Classify a failure from the exception and its causes alone
+     */
+    public static Failure classify(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AssertionError) {
+                return Failure.ASSERTION;
+            }
+            String message = cause.getMessage() == null ? "" : cause.getMessage().toLowerCase(Locale.ROOT);
+            if (cause instanceof NoSuchSessionException || containsAny(message, SESSION_GONE_HINTS)) {
+                return Failure.SESSION_GONE;
+            }
+            if (containsAny(message, UIAUTOMATOR2_HINTS)) {
+                return Failure.UIAUTOMATOR2_CRASH;
+            }
+            if (cause instanceof ConnectException || cause instanceof SocketException
+                    || cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException
+                    || cause instanceof UnreachableBrowserException || cause instanceof UncheckedIOException
+                    || containsAny(message, CONNECTION_HINTS)) {
+                return Failure.CONNECTION;
+            }
+        }
+        return Failure.OTHER;
+    }
+
+    /**
+     * Classify a failure, asking the device whether the app is still in the
+     * foreground when the exception itself is inconclusive
+     */
+    public static Failure diagnose(Throwable throwable) {
+        Failure failure = classify(throwable);
+        if (failure != Failure.OTHER) {
+            return failure;
+        }
+        AndroidDriver driver = DriverManager.peekDriver();
+        if (driver == null) {
+            return failure;
+        }
+        Throwable probeError = DriverHealthMonitor.probe(driver);
+        if (probeError != null) {
+            // The session stopped answering; start from the cheapest step if the cause is unclear
+            Failure probed = classify(probeError);
+            return probed == Failure.OTHER ? Failure.CONNECTION : probed;
+        }
+        try {
+            if (driver.queryAppState(AppiumConfig.APP_PACKAGE) != ApplicationState.RUNNING_IN_FOREGROUND) {
+                return Failure.APP_NOT_RUNNING;
+            }
+        } catch (Exception e) {
+            return classify(e);
+        }
+        return failure;
+    }
+
+    /**
+     * Round trip to the device; null if the session answered, otherwise the
+     * error. Package-private: outside config go through
+     * DriverHealthMonitor.probe(), which keeps its health cache up to date.
+     */
+    static Throwable probe(AndroidDriver driver) {
+        if (driver == null) {
+            return new NoSuchSessionException("No driver bound to this thread");
+        }
+        try {
+            if (driver.getSessionId() == null) {
+                return new NoSuchSessionException("Session has been quit");
+            }
+            // Fails if either the Appium server or UiAutomator2 is not working
+            if (driver.currentActivity() == null) {
+                return new IllegalStateException("Driver returned no current activity");
+            }
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * Recover the current thread's session after the given error
+     */
+    public static Outcome recover(Throwable throwable) {
+        return recover(diagnose(throwable));
+    }
+
+    /**
+     * Bring the current thread's session back, starting with the cheapest
+     * step that can fix the failure and escalating until one works
+     */
+    public static Outcome recover(Failure failure) {
+        failures.get(failure).incrementAndGet();
+        long start = System.nanoTime();
+        if (!ENABLED || !failure.isInfrastructure() || recovering.get()) {
+            return new Outcome(failure, null, 0);
+        }
+
+        recovering.set(true);
+        try {
+            for (Recovery step : Recovery.values()) {
+                if (step.ordinal() < failure.firstStep.ordinal()) {
+                    continue;
+                }
+                long stepStart = System.nanoTime();
+                boolean ok = attempt(step);
+                long stepNanos = stepStats.get(step).recordSince(stepStart);
+                System.out.println("Recovery step " + step + " for " + failure + (ok ? " succeeded" : " failed")
+                        + " in " + stepNanos / 1_000_000 + "ms");
+                if (ok) {
+                    recovered.get(step).incrementAndGet();
+                    return report(new Outcome(failure, step, (System.nanoTime() - start) / 1_000_000));
+                }
+            }
+            unrecovered.incrementAndGet();
+            return report(new Outcome(failure, null, (System.nanoTime() - start) / 1_000_000));
+        } finally {
+            recovering.set(false);
+        }
+    }
+
+    /**
+     * Reset app data and relaunch so a retried test starts from the same
+     * state a fresh session would give it
+     */
+    public static boolean resetAppForRetry() {
+        AndroidDriver driver = DriverManager.peekDriver();
+        try {
+            driver.executeScript("mobile: clearApp", Map.of("appId", AppiumConfig.APP_PACKAGE));
+            driver.activateApp(AppiumConfig.APP_PACKAGE);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Could not reset app for retry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Keep the recovered session bound to this thread for the retried test
+     */
+    public static void keepForRetry() {
+        keptForRetry.set(true);
+    }
+
+    /**
+     * Whether the current session was kept for a retry; clears the mark
+     */
+    public static boolean takeKeptForRetry() {
+        boolean kept = keptForRetry.get();
+        keptForRetry.remove();
+        return kept;
+    }
+
+    public static boolean isKeptForRetry() {
+        return keptForRetry.get();
+    }
+
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder("Driver recovery: " + (ENABLED ? "on" : "off") + ", failures=");
+        summary.append(failures).append(", recovered=").append(recovered).append(", unrecovered=")
+                .append(unrecovered.get());
+        for (TimingStats stats : stepStats.values()) {
+            if (stats.getCount() > 0) {
+                summary.append("\n  ").append(stats);
+            }
+        }
+        return summary.toString();
+    }
+
+    private static boolean attempt(Recovery step) {
+        try {
+            switch (step) {
+                case REATTACH:
+                    DeviceConfig device = DevicePool.acquire();
+                    if (AppiumConfig.DRIVER_MODE.needsServer()) {
+                        AppiumConfig.getServerManager().ensureRunning(device.getAppiumPort());
+                    }
+                    break;
+                case RESTART_UIAUTOMATOR2:
+                    AppiumConfig.restartUiAutomator2();
+                    break;
+                case RESTART_APP:
+                    AndroidDriver driver = DriverManager.peekDriver();
+                    if (driver == null) {
+                        return false;
+                    }
+                    driver.terminateApp(AppiumConfig.APP_PACKAGE);
+                    driver.activateApp(AppiumConfig.APP_PACKAGE);
+                    break;
+                case NEW_SESSION:
+                    AppiumConfig.reinitializeDriver();
+                    break;
+                default:
+                    return false;
+            }
+            return DriverHealthMonitor.probe(DriverManager.peekDriver()) == null;
+        } catch (SessionNotCreatedException e) {
+            System.err.println("Recovery step " + step + " could not create a session: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            System.err.println("Recovery step " + step + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Outcome report(Outcome outcome) {
+        String message = "Driver recovery: " + outcome;
+        System.out.println(message);
+        try {
+            ExtentReportManager.logWarning(message);
+        } catch (Exception e) {
+            System.err.println("Failed to log recovery to ExtentReport: " + e.getMessage());
+        }
+        return outcome;
+    }
+
+    private static boolean containsAny(String message, String[] hints) {
+        for (String hint : hints) {
+            if (message.contains(hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,278 @@
+package com.elektronicare.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the framework configuration, merged once at
+ * startup from these layers (later layers win):
+ *
+ * 1. built-in defaults (the defaults passed to the getters)
+ * 2. config/&lt;env&gt;.properties on the classpath, selected with -Denv=dev|staging|prod
+ *    or ELEKTRONICARE_ENV; no file is loaded when no environment is selected
+ * 3. an external properties file given with -Dconfig.file=path
+ * 4. environment variables ELEKTRONICARE_&lt;KEY&gt;, e.g. ELEKTRONICARE_IMPLICIT_WAIT
+ *    for implicit.wait
+ * 5. system properties (-Dkey=value)
+ *
+ * Keys prefixed with device.&lt;udid&gt;. override the plain key for that device
+ * only, e.g. device.emulator-5556.explicit.wait=20; see forDevice().
+ * The settings read on hot paths are parsed once into typed fields.
+ */
+public final class FrameworkConfig {
+
+    private static final String ENV_PREFIX = "ELEKTRONICARE_";
+
+    private static final FrameworkConfig INSTANCE = load();
+    private static final Map<String, FrameworkConfig> deviceConfigs = new ConcurrentHashMap<>();
+
+    private final Map<String, String> values;
+    private final List<String> layers;
+
+    // Typed settings, parsed once
+    private final Duration implicitWait;
+    private final Duration explicitWait;
+    private final Duration newCommandTimeout;
+    private final String appiumServerUrl;
+    private final String apkPath;
+    private final String appPackage;
+    private final String appActivity;
+    private final String deviceName;
+    private final boolean noReset;
+    private final boolean fullReset;
+    private final boolean autoGrantPermissions;
+
+    private FrameworkConfig(Map<String, String> values, List<String> layers) {
+        this.values = Collections.unmodifiableMap(values);
+        this.layers = Collections.unmodifiableList(layers);
+
+        this.implicitWait = getSeconds("implicit.wait", 3);
+        this.explicitWait = getSeconds("explicit.wait", 5);
+        this.newCommandTimeout = getSeconds("new.command.timeout", 300);
+        this.appiumServerUrl = getString("appium.server.url", "http://127.0.0.1:4723");
+        this.apkPath = resolvePath(getString("app.path", "app-debug.apk"));
+        this.appPackage = getString("app.package", "com.example.elektronicarebeta1");
+        this.appActivity = getString("app.activity", "com.example.elektronicarebeta1.SplashActivity");
+        this.deviceName = getString("device.name", "Android Emulator");
+        this.noReset = getBoolean("no.reset", false);
+        this.fullReset = getBoolean("full.reset", false);
+        this.autoGrantPermissions = getBoolean("auto.grant.permissions", true);
+    }
+
+    /**
+     * The configuration shared by all devices
+     */
+    public static FrameworkConfig get() {
+        return INSTANCE;
+    }
+
+    /**
+     * The configuration with the device's overrides applied, or the shared
+     * one when the device has none
+     */
+    public static FrameworkConfig forDevice(DeviceConfig device) {
+        if (device == null || device.getUdid() == null) {
+            return INSTANCE;
+        }
+        return deviceConfigs.computeIfAbsent(device.getUdid(), INSTANCE::withOverrides);
+    }
+
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+
+    public Duration getNewCommandTimeout() {
+        return newCommandTimeout;
+    }
+
+    public String getAppiumServerUrl() {
+        return appiumServerUrl;
+    }
+
+    public String getApkPath() {
+        return apkPath;
+    }
+
+    public String getAppPackage() {
+        return appPackage;
+    }
+
+    public String getAppActivity() {
+        return appActivity;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public boolean isNoReset() {
+        return noReset;
+    }
+
+    public boolean isFullReset() {
+        return fullReset;
+    }
+
+    public boolean isAutoGrantPermissions() {
+        return autoGrantPermissions;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : parse(key, value, Integer::parseInt);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : parse(key, value, Long::parseLong);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : parse(key, value, Double::parseDouble);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * A duration configured as a number of seconds
+     */
+    public Duration getSeconds(String key, long defaultSeconds) {
+        return Duration.ofSeconds(getLong(key, defaultSeconds));
+    }
+
+    /**
+     * Where the configuration came from, lowest layer first
+     */
+    public List<String> getLayers() {
+        return layers;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameworkConfig" + layers + " implicit.wait=" + implicitWait.getSeconds() + "s explicit.wait="
+                + explicitWait.getSeconds() + "s appium.server.url=" + appiumServerUrl + " app.path=" + apkPath;
+    }
+
+    private FrameworkConfig withOverrides(String udid) {
+        String prefix = "device." + udid + ".";
+        Map<String, String> merged = new HashMap<>(values);
+        int overrides = 0;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getKey().length() > prefix.length()) {
+                merged.put(entry.getKey().substring(prefix.length()), entry.getValue());
+                overrides++;
+            }
+        }
+        if (overrides == 0) {
+            return this;
+        }
+        List<String> deviceLayers = new ArrayList<>(layers);
+        deviceLayers.add(prefix + "* (" + overrides + ")");
+        FrameworkConfig config = new FrameworkConfig(merged, deviceLayers);
+        System.out.println("Config for device " + udid + ": " + config);
+        return config;
+    }
+
+    private static FrameworkConfig load() {
+        Map<String, String> values = new HashMap<>();
+        List<String> layers = new ArrayList<>();
+        layers.add("defaults");
+
+        String env = System.getProperty("env", System.getenv(ENV_PREFIX + "ENV"));
+        if (env != null && !env.trim().isEmpty()) {
+            String resource = "config/" + env.trim().toLowerCase(Locale.ROOT) + ".properties";
+            try (InputStream in = FrameworkConfig.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("No configuration for environment '" + env + "': " + resource
+                            + " is not on the classpath");
+                }
+                putAll(values, in);
+                layers.add(resource);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read " + resource, e);
+            }
+        }
+
+        String file = System.getProperty("config.file", System.getenv(ENV_PREFIX + "CONFIG_FILE"));
+        if (file != null && !file.trim().isEmpty()) {
+            Path path = Paths.get(file.trim());
+            try (InputStream in = Files.newInputStream(path)) {
+                putAll(values, in);
+                layers.add(path.toString());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read configuration file " + path, e);
+            }
+        }
+
+        int fromEnv = 0;
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (entry.getKey().startsWith(ENV_PREFIX) && entry.getKey().length() > ENV_PREFIX.length()) {
+                String key = entry.getKey().substring(ENV_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '.');
+                values.put(key, entry.getValue());
+                fromEnv++;
+            }
+        }
+        layers.add("env(" + fromEnv + ")");
+
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            values.put(key, system.getProperty(key));
+        }
+        layers.add("system properties");
+
+        FrameworkConfig config = new FrameworkConfig(values, layers);
+        System.out.println("Loaded " + config);
+        return config;
+    }
+
+    private static void putAll(Map<String, String> values, InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key).trim());
+        }
+    }
+
+    private static String resolvePath(String path) {
+        Path resolved = Paths.get(path);
+        return resolved.isAbsolute() ? path : Paths.get(System.getProperty("user.dir")).resolve(resolved).toString();
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse(String value);
+    }
+
+    private static <T> T parse(String key, String value, Parser<T> parser) {
+        try {
+            return parser.parse(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": '" + value + "'", e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.elektronicare.config;
+
+import com.elektronicare.utils.GestureEngine;
+import com.elektronicare.utils.LogcatCollector;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.android.AndroidDriver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of warm Appium sessions that are leased per test instead of
+ * created and quit for every test method.
+ *
+ * maxSize caps the idle sessions kept between tests, not the sessions in
+ * use: lease() never blocks and creates a new session whenever none is
+ * idle, and release() quits a session when maxSize are already idle.
+ */
+public class SessionPool {
+
+    /**
+     * Creates a new, responsive driver session
+     */
+    @FunctionalInterface
+    public interface SessionFactory {
+        AndroidDriver create() throws Exception;
+    }
+
+    /**
+     * How app state is reset when a session is returned to the pool
+     */
+    public enum ResetStrategy {
+        /** terminateApp + activateApp, keeps app data */
+        RESTART_APP,
+        /** mobile: clearApp + activateApp, same state as a fresh noReset=false session */
+        CLEAR_APP;
+
+        public static ResetStrategy fromString(String value) {
+            return "restart".equalsIgnoreCase(value) ? RESTART_APP : CLEAR_APP;
+        }
+    }
+
+    private final SessionFactory factory;
+    private final String appPackage;
+    private final int maxSize;
+    private final ResetStrategy resetStrategy;
+
+    private final BlockingDeque<AndroidDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<AndroidDriver> leased = ConcurrentHashMap.newKeySet();
+
+    private final TimingStats leaseStats = new TimingStats("session.lease");
+    private final TimingStats returnStats = new TimingStats("session.return");
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger discarded = new AtomicInteger();
+
+    public SessionPool(SessionFactory factory, String appPackage, int maxSize, ResetStrategy resetStrategy) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Session pool size must be at least 1");
+        }
+        this.factory = factory;
+        this.appPackage = appPackage;
+        this.maxSize = maxSize;
+        this.resetStrategy = resetStrategy;
+    }
+
+    /**
+     * Create sessions up front so the first tests do not pay for them
+     */
+    public void warmUp(int count) {
+        int target = Math.min(count, maxSize);
+        while (idle.size() + leased.size() < target) {
+            try {
+                idle.offerLast(createSession());
+            } catch (Exception e) {
+                System.err.println("Session pool warm-up failed: " + e.getMessage());
+                return;
+            }
+        }
+        System.out.println("Session pool warmed up with " + idle.size() + " session(s)");
+    }
+
+    /**
+     * Lease a healthy session, reusing an idle one when possible and
+     * creating one otherwise
+     */
+    public AndroidDriver lease() {
+        long start = System.nanoTime();
+        try {
+            AndroidDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (isHealthy(driver)) {
+                    reused.incrementAndGet();
+                    leased.add(driver);
+                    return driver;
+                }
+                System.err.println("Discarding unhealthy pooled session: " + driver.getSessionId());
+                quitQuietly(driver);
+                discarded.incrementAndGet();
+            }
+
+            driver = createSession();
+            leased.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to lease session from pool", e);
+        } finally {
+            leaseStats.recordSince(start);
+        }
+    }
+
+    /**
+     * Return a session to the pool, resetting app state for the next test
+     */
+    public void release(AndroidDriver driver) {
+        if (driver == null || !leased.remove(driver)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            resetApp(driver);
+            if (idle.size() < maxSize) {
+                idle.offerLast(driver);
+            } else {
+                quitQuietly(driver);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to reset pooled session, discarding: " + e.getMessage());
+            quitQuietly(driver);
+            discarded.incrementAndGet();
+        } finally {
+            returnStats.recordSince(start);
+        }
+    }
+
+    /**
+     * Drop a leased session without returning it to the pool
+     */
+    public void discard(AndroidDriver driver) {
+        if (driver != null) {
+            leased.remove(driver);
+            idle.remove(driver);
+            quitQuietly(driver);
+            discarded.incrementAndGet();
+        }
+    }
+
+    /**
+     * Track a session that took over from a leased one, e.g. after UiAutomator2 was restarted
+     */
+    public void replace(AndroidDriver oldDriver, AndroidDriver newDriver) {
+        if (oldDriver != null && leased.remove(oldDriver)) {
+            leased.add(newDriver);
+        }
+    }
+
+    /**
+     * Quit every pooled session and print pool statistics
+     */
+    public void shutdown() {
+        AndroidDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quitQuietly(driver);
+        }
+        for (AndroidDriver leasedDriver : leased) {
+            quitQuietly(leasedDriver);
+        }
+        leased.clear();
+        System.out.println(getStatsSummary());
+    }
+
+    public String getStatsSummary() {
+        return "Session pool: created=" + created.get() + ", reused=" + reused.get()
+                + ", discarded=" + discarded.get() + "\n  " + leaseStats + "\n  " + returnStats;
+    }
+
+    public TimingStats getLeaseStats() {
+        return leaseStats;
+    }
+
+    public TimingStats getReturnStats() {
+        return returnStats;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    private AndroidDriver createSession() throws Exception {
+        AndroidDriver driver = factory.create();
+        created.incrementAndGet();
+        return driver;
+    }
+
+    private void resetApp(AndroidDriver driver) {
+        if (resetStrategy == ResetStrategy.CLEAR_APP) {
+            driver.executeScript("mobile: clearApp", Map.of("appId", appPackage));
+        } else {
+            driver.terminateApp(appPackage);
+        }
+        driver.activateApp(appPackage);
+    }
+
+    private boolean isHealthy(AndroidDriver driver) {
+        try {
+            return driver.getSessionId() != null && driver.currentActivity() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void quitQuietly(AndroidDriver driver) {
+        DriverHealthMonitor.unregister(driver);
+        GestureEngine.forget(driver);
+        LogcatCollector.stop(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Warning: Error quitting pooled session: " + e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.elektronicare.pages;
 
 import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.utils.ElementRecord;
+import com.elektronicare.utils.ObservedHttpClientFactory;
+import com.elektronicare.utils.PageFieldDecorator;
+import com.elektronicare.utils.PageSnapshotCache;
 import com.elektronicare.utils.TestUtils;
+import com.elektronicare.utils.TimingStats;
 import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Enhanced base page class with improved initialization and error handling
  */
 public abstract class BasePage {
 
+    private static final TimingStats bulkReadStats = new TimingStats("bulk.read");
+    private static final AtomicLong bulkReadRoundTrips = new AtomicLong();
+    private static final AtomicLong bulkReadElements = new AtomicLong();
+
     protected AndroidDriver driver;
     private boolean elementsInitialized = false;
 
@@ -25,7 +43,7 @@ public abstract class BasePage {
         try {
             this.driver = AppiumConfig.getDriver();
             if (this.driver != null) {
-                PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+                PageFieldDecorator.initElements(driver, this);
                 elementsInitialized = true;
                 System.out.println("Page elements initialized successfully for " + this.getClass().getSimpleName());
             } else {
@@ -54,7 +72,7 @@ public abstract class BasePage {
 
                 this.driver = AppiumConfig.getDriver();
                 if (this.driver != null) {
-                    PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+                    PageFieldDecorator.initElements(driver, this);
                     elementsInitialized = true;
                     System.out.println("Elements initialized successfully on attempt " + attempt);
                     return;
@@ -196,6 +214,64 @@ public abstract class BasePage {
         }
     }
 
+    /**
+     * Read attributes of every element matching the XPath as immutable records.
+     * Served from the page snapshot (at most one getPageSource() round trip);
+     * falls back to findElements plus per-element reads if the snapshot is
+     * disabled or cannot be evaluated.
+     */
+    protected List<ElementRecord> readElements(String xpath, String... attributes) {
+        return readElements(xpath, new LinkedHashSet<>(Arrays.asList(attributes)));
+    }
+
+    protected List<ElementRecord> readElements(String xpath, Set<String> attributes) {
+        long start = System.nanoTime();
+        long commandsBefore = ObservedHttpClientFactory.getThreadCommandCount();
+        List<ElementRecord> records = null;
+
+        if (PageSnapshotCache.ENABLED) {
+            try {
+                records = PageSnapshotCache.get().read(xpath, attributes);
+            } catch (Exception e) {
+                System.err.println("Snapshot read failed, reading elements one by one: " + e.getMessage());
+            }
+        }
+        if (records == null) {
+            records = readElementsOneByOne(xpath, attributes);
+        }
+
+        bulkReadStats.recordSince(start);
+        bulkReadRoundTrips.addAndGet(ObservedHttpClientFactory.getThreadCommandCount() - commandsBefore);
+        bulkReadElements.addAndGet(records.size());
+        return records;
+    }
+
+    private List<ElementRecord> readElementsOneByOne(String xpath, Set<String> attributes) {
+        ensureDriverAvailable();
+        List<ElementRecord> records = new ArrayList<>();
+        for (WebElement element : driver.findElements(By.xpath(xpath))) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                String value = "displayed".equals(attribute)
+                        ? String.valueOf(element.isDisplayed())
+                        : element.getAttribute(attribute);
+                if (value != null) {
+                    values.put(attribute, value);
+                }
+            }
+            records.add(new ElementRecord(values));
+        }
+        return records;
+    }
+
+    /**
+     * Bulk read timings with the number of elements and round trips they cost
+     */
+    public static String getBulkReadSummary() {
+        return "Bulk reads: elements=" + bulkReadElements.get() + " roundTrips=" + bulkReadRoundTrips.get()
+                + "\n  " + bulkReadStats;
+    }
+
     /**
      * Get current driver instance
      */
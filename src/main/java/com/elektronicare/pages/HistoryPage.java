@@ -1,15 +1,29 @@
 package com.elektronicare.pages;
 
+import com.elektronicare.utils.ElementRecord;
+import com.elektronicare.utils.GestureEngine;
+import com.elektronicare.utils.ReadinessWaiter;
 import com.elektronicare.utils.TestUtils;
+import com.elektronicare.utils.VirtualListReader;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
+import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Page Object for History Screen
  */
 public class HistoryPage extends BasePage {
 
+    // First history item fields, shared by the element proxies and bulk reads
+    private static final String FIRST_ITEM_SERVICE_NAME_XPATH = "(//android.widget.TextView[contains(@resource-id, 'serviceNameText')])[1]";
+    private static final String FIRST_ITEM_STATUS_XPATH = "(//android.widget.TextView[contains(@resource-id, 'statusText')])[1]";
+    private static final String FIRST_ITEM_DATE_XPATH = "(//android.widget.TextView[contains(@resource-id, 'dateText')])[1]";
+    private static final String FIRST_ITEM_PRICE_XPATH = "(//android.widget.TextView[contains(@resource-id, 'priceText')])[1]";
+    private static final String SCROLL_VIEW_XPATH = "//*[@resource-id='com.example.elektronicarebeta1:id/scrollView']";
+    private static final String HISTORY_ITEMS_XPATH = "//android.widget.LinearLayout[contains(@resource-id, 'repair_item')]";
+
     // Header elements
     @AndroidFindBy(id = "com.example.elektronicarebeta1:id/back_button")
     private WebElement backButton;
@@ -24,7 +38,7 @@ public class HistoryPage extends BasePage {
     @AndroidFindBy(id = "com.example.elektronicarebeta1:id/scrollView")
     private WebElement scrollView;
 
-    @AndroidFindBy(xpath = "//android.widget.LinearLayout[contains(@resource-id, 'repair_item')]")
+    @AndroidFindBy(xpath = HISTORY_ITEMS_XPATH)
     private List<WebElement> historyItems;
 
     // Empty state
@@ -38,16 +52,16 @@ public class HistoryPage extends BasePage {
     private WebElement noRepairsDescription;
 
     // History item elements (for first item)
-    @AndroidFindBy(xpath = "(//android.widget.TextView[contains(@resource-id, 'serviceNameText')])[1]")
+    @AndroidFindBy(xpath = FIRST_ITEM_SERVICE_NAME_XPATH)
     private WebElement firstItemServiceName;
 
-    @AndroidFindBy(xpath = "(//android.widget.TextView[contains(@resource-id, 'statusText')])[1]")
+    @AndroidFindBy(xpath = FIRST_ITEM_STATUS_XPATH)
     private WebElement firstItemStatus;
 
-    @AndroidFindBy(xpath = "(//android.widget.TextView[contains(@resource-id, 'dateText')])[1]")
+    @AndroidFindBy(xpath = FIRST_ITEM_DATE_XPATH)
     private WebElement firstItemDate;
 
-    @AndroidFindBy(xpath = "(//android.widget.TextView[contains(@resource-id, 'priceText')])[1]")
+    @AndroidFindBy(xpath = FIRST_ITEM_PRICE_XPATH)
     private WebElement firstItemPrice;
 
     // Bottom navigation
@@ -109,6 +123,33 @@ public class HistoryPage extends BasePage {
         return 0;
     }
 
+    /**
+     * Every history item, including rows below the fold, read lazily while
+     * scrolling. Each record holds the row's texts keyed by resource-id,
+     * e.g. serviceNameText, statusText, dateText and priceText.
+     */
+    public Stream<ElementRecord> streamHistoryItems() {
+        initializeElements();
+        return new VirtualListReader(driver, SCROLL_VIEW_XPATH, HISTORY_ITEMS_XPATH,
+                VirtualListReader.keyOf("serviceNameText", "dateText", "statusText", "priceText")).stream();
+    }
+
+    /**
+     * Number of history items in the whole list, scrolling through it
+     */
+    public int getTotalHistoryItemsCount() {
+        initializeElements();
+        if (!TestUtils.isElementDisplayed(repairsContainer)) {
+            return 0;
+        }
+        try {
+            return (int) streamHistoryItems().count();
+        } catch (Exception e) {
+            System.err.println("Error counting all history items: " + e.getMessage());
+            return getHistoryItemsCount();
+        }
+    }
+
     /**
      * Check if history list is empty
      */
@@ -167,10 +208,7 @@ public class HistoryPage extends BasePage {
      */
     public String getFirstItemServiceName() {
         initializeElements();
-        if (TestUtils.isElementDisplayed(firstItemServiceName)) {
-            return TestUtils.getElementText(firstItemServiceName);
-        }
-        return "";
+        return readFirstItemText(FIRST_ITEM_SERVICE_NAME_XPATH);
     }
 
     /**
@@ -178,10 +216,7 @@ public class HistoryPage extends BasePage {
      */
     public String getFirstItemStatus() {
         initializeElements();
-        if (TestUtils.isElementDisplayed(firstItemStatus)) {
-            return TestUtils.getElementText(firstItemStatus);
-        }
-        return "";
+        return readFirstItemText(FIRST_ITEM_STATUS_XPATH);
     }
 
     /**
@@ -189,10 +224,7 @@ public class HistoryPage extends BasePage {
      */
     public String getFirstItemDate() {
         initializeElements();
-        if (TestUtils.isElementDisplayed(firstItemDate)) {
-            return TestUtils.getElementText(firstItemDate);
-        }
-        return "";
+        return readFirstItemText(FIRST_ITEM_DATE_XPATH);
     }
 
     /**
@@ -200,8 +232,17 @@ public class HistoryPage extends BasePage {
      */
     public String getFirstItemPrice() {
         initializeElements();
-        if (TestUtils.isElementDisplayed(firstItemPrice)) {
-            return TestUtils.getElementText(firstItemPrice);
+        return readFirstItemText(FIRST_ITEM_PRICE_XPATH);
+    }
+
+    /**
+     * Text of the first element matching the XPath if it is displayed. The
+     * four first-item getters share one page snapshot.
+     */
+    private String readFirstItemText(String xpath) {
+        List<ElementRecord> records = readElements(xpath, "text", "displayed");
+        if (!records.isEmpty() && records.get(0).isDisplayed()) {
+            return records.get(0).getText();
         }
         return "";
     }
@@ -229,10 +270,22 @@ public class HistoryPage extends BasePage {
      * Scroll down to load more history items
      */
     public void scrollToLoadMore() {
+        scrollToLoadMore(1);
+    }
+
+    /**
+     * Scroll the history list several pages down in a single gesture request
+     */
+    public void scrollToLoadMore(int pages) {
         initializeElements();
         if (TestUtils.isElementDisplayed(scrollView)) {
-            scrollDown();
-            waitFor(1000);
+            try {
+                GestureEngine.Swipe swipe = GestureEngine.scroll(scrollView, GestureEngine.Direction.DOWN);
+                GestureEngine.perform(driver, "gesture.history", GestureEngine.repeat(swipe, pages));
+            } catch (Exception e) {
+                System.err.println("Failed to scroll history list: " + e.getMessage());
+            }
+            ReadinessWaiter.waitForIdle(Duration.ofSeconds(3));
         }
     }
 
@@ -1,5 +1,7 @@
 package com.elektronicare.pages;
 
+import com.elektronicare.utils.HierarchyFingerprint;
+import com.elektronicare.utils.ReadinessWaiter;
 import com.elektronicare.utils.TestUtils;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -51,6 +53,14 @@ public class LoginPage extends BasePage {
     private static final int DEFAULT_TIMEOUT = 15; // Increased timeout
     private static final int LONG_TIMEOUT = 30;
 
+    // Page source needles for the login completion and toast checks
+    private static final String[] LOGIN_SCREEN_IDS = { ":id/edit_email", ":id/btn_sign_in" };
+    private static final String TOAST_CLASS = "android.widget.Toast";
+    private static final String[] POST_LOGIN_HINTS = { "dashboard", "home", "welcome" };
+    private static final String[] TOAST_HINTS = { "toast", "error", "invalid" };
+    private static final String[] LOGIN_COMPLETION_NEEDLES = { ":id/edit_email", ":id/btn_sign_in", TOAST_CLASS,
+            "dashboard", "home", "welcome" };
+
     public LoginPage() {
         super();
         // Give more time for page initialization
@@ -290,13 +300,11 @@ public class LoginPage extends BasePage {
             System.out.println("Starting login process...");
 
             enterEmail(email);
-            Thread.sleep(1000);
-
             enterPassword(password);
-            Thread.sleep(1000);
 
+            // Keyboard dismissal animates the layout; wait for it to settle instead of sleeping
             hideKeyboard();
-            Thread.sleep(1000);
+            ReadinessWaiter.waitForIdle(Duration.ofSeconds(3));
 
             clickLoginButton();
             System.out.println("Login process completed");
@@ -335,8 +343,8 @@ public class LoginPage extends BasePage {
         } catch (Exception e) {
             // Also try to find toast message in page source
             try {
-                String pageSource = driver.getPageSource();
-                if (pageSource.contains("toast") || pageSource.contains("error") || pageSource.contains("invalid")) {
+                HierarchyFingerprint fingerprint = HierarchyFingerprint.of(driver.getPageSource(), TOAST_HINTS);
+                if (fingerprint.containsAny(TOAST_HINTS)) {
                     System.out.println("Toast-like content found in page source");
                     return "Toast message detected";
                 }
@@ -348,38 +356,38 @@ public class LoginPage extends BasePage {
     }
 
     public void waitForLoginToComplete() {
-        try {
-            System.out.println("Waiting for login to complete...");
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(LONG_TIMEOUT));
-
-            wait.until(driver -> {
-                try {
-                    // Check if we're still on login page
-                    boolean stillOnLogin = isLoginPageDisplayed(2000);
-
-                    // Check for any toast messages
-                    String toast = getToastMessage();
-                    boolean hasToast = !toast.isEmpty();
-
-                    // Check if page source changed significantly
-                    String pageSource = driver.getPageSource().toLowerCase();
-                    boolean hasNewContent = pageSource.contains("dashboard") ||
-                            pageSource.contains("home") ||
-                            pageSource.contains("welcome");
-
-                    System.out.println("Login completion check - StillOnLogin: " + stillOnLogin +
-                            ", HasToast: " + hasToast + ", HasNewContent: " + hasNewContent);
-
-                    return !stillOnLogin || hasToast || hasNewContent;
-                } catch (Exception e) {
-                    System.out.println("Exception in login completion check: " + e.getMessage());
-                    return true; // Assume completion if we can't check
+        System.out.println("Waiting for login to complete...");
+        HierarchyFingerprint.SettleTracker tracker = new HierarchyFingerprint.SettleTracker(2);
+        HierarchyFingerprint[] baseline = { null };
+
+        boolean completed = ReadinessWaiter.waitUntil("login.complete", Duration.ofSeconds(LONG_TIMEOUT), () -> {
+            try {
+                // One streaming pass over the hierarchy answers every check for this poll
+                HierarchyFingerprint fingerprint = HierarchyFingerprint.of(driver.getPageSource(),
+                        LOGIN_COMPLETION_NEEDLES);
+                if (baseline[0] == null) {
+                    baseline[0] = fingerprint;
                 }
-            });
-        } catch (TimeoutException e) {
+
+                boolean stillOnLogin = fingerprint.containsAny(LOGIN_SCREEN_IDS);
+                boolean hasToast = fingerprint.contains(TOAST_CLASS);
+                boolean hasNewContent = fingerprint.containsAny(POST_LOGIN_HINTS);
+                boolean settledElsewhere = tracker.observe(fingerprint)
+                        && fingerprint.isStructurallyDifferent(baseline[0]);
+
+                System.out.println("Login completion check - StillOnLogin: " + stillOnLogin +
+                        ", HasToast: " + hasToast + ", HasNewContent: " + hasNewContent +
+                        ", SettledElsewhere: " + settledElsewhere);
+
+                return !stillOnLogin || hasToast || hasNewContent || settledElsewhere;
+            } catch (Exception e) {
+                System.out.println("Exception in login completion check: " + e.getMessage());
+                return true; // Assume completion if we can't check
+            }
+        });
+
+        if (!completed) {
             System.out.println("Timeout waiting for login completion - proceeding anyway");
-        } catch (Exception e) {
-            System.out.println("Error waiting for login completion: " + e.getMessage());
         }
     }
 
@@ -405,7 +413,6 @@ public class LoginPage extends BasePage {
     public void refreshPageElements() {
         try {
             initializeElements();
-            Thread.sleep(1000);
         } catch (Exception e) {
             System.err.println("Failed to refresh page elements: " + e.getMessage());
         }
@@ -418,22 +425,18 @@ public class LoginPage extends BasePage {
         try {
             System.out.println("Checking if login page is ready for testing...");
 
-            // Multiple attempts with different strategies
+            // Wait for a login anchor to appear, then confirm with the full page check
             for (int attempt = 1; attempt <= 3; attempt++) {
                 System.out.println("Attempt " + attempt + " to verify page readiness");
 
                 refreshPageElements();
-                Thread.sleep(2000);
+                ReadinessWaiter.waitForResourceId(Duration.ofSeconds(DEFAULT_TIMEOUT),
+                        "edit_email", "edit_password", "btn_sign_in");
 
                 if (isPageLoaded()) {
                     System.out.println("Login page is ready for testing!");
                     return true;
                 }
-
-                if (attempt < 3) {
-                    System.out.println("Page not ready, waiting before retry...");
-                    Thread.sleep(3000);
-                }
             }
 
             System.err.println("Login page is not ready for testing after all attempts");
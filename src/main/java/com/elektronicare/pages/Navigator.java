@@ -0,0 +1,235 @@
+package com.elektronicare.pages;
+
+import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.FrameworkConfig;
+import com.elektronicare.utils.ReadinessWaiter;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.android.AndroidDriver;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Navigation graph of the app's entry screens. A target screen is reached
+ * by a shortcut (deep link or direct activity start) when one is available,
+ * and by walking the UI from its parent screen otherwise. A shortcut that
+ * fails once is not tried again for the rest of the run, so a build whose
+ * activities are not exported only pays for the failed attempt once.
+ *
+ * Both routes are timed per screen so the saving shows up in the summary.
+ *
+ * Options: -Dnav.shortcuts=false, -Dnav.shortcut.timeout=5 (seconds),
+ * -Dnav.activity.login=.LoginActivity, -Dnav.deeplink.login=elektronicare://login
+ */
+public class Navigator {
+
+    public static final boolean SHORTCUTS_ENABLED = FrameworkConfig.get().getBoolean("nav.shortcuts", true);
+    private static final Duration SHORTCUT_TIMEOUT = FrameworkConfig.get().getSeconds("nav.shortcut.timeout", 5);
+
+    private static final Set<Screen> brokenShortcuts = ConcurrentHashMap.newKeySet();
+    private static final Map<String, TimingStats> routeStats = new ConcurrentHashMap<>();
+
+    /**
+     * Screens reachable from app launch. Any one anchor id identifies the
+     * screen, so an anchor must not appear on another screen: edit_email,
+     * for one, is on both login and register.
+     */
+    public enum Screen {
+        WELCOME(null, "WelcomeActivity", "sign_in_button", "create_account_button"),
+        LOGIN(WELCOME, "LoginActivity", "btn_sign_in"),
+        REGISTER(WELCOME, "RegisterActivity", "edit_full_name", "btn_create_account");
+
+        private final Screen parent;
+        private final String defaultActivity;
+        private final String[] anchorIds;
+
+        Screen(Screen parent, String defaultActivity, String... anchorIds) {
+            this.parent = parent;
+            this.defaultActivity = defaultActivity;
+            this.anchorIds = anchorIds;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+
+        String activity() {
+            return FrameworkConfig.get().getString("nav.activity." + key(), defaultActivity);
+        }
+
+        String deepLink() {
+            return FrameworkConfig.get().getString("nav.deeplink." + key(), null);
+        }
+    }
+
+    /**
+     * How a screen was reached and how long it took
+     */
+    public static class Result {
+        private final Screen screen;
+        private final String route;
+        private final long millis;
+
+        Result(Screen screen, String route, long millis) {
+            this.screen = screen;
+            this.route = route;
+            this.millis = millis;
+        }
+
+        public Screen getScreen() {
+            return screen;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return screen + " via " + route + " in " + millis + "ms";
+        }
+    }
+
+    private Navigator() {
+    }
+
+    /**
+     * Bring the app to the target screen, preferring a shortcut over the UI walk
+     */
+    public static Result navigateTo(Screen target) {
+        long start = System.nanoTime();
+
+        if (isOn(target)) {
+            return finish(target, "current", start);
+        }
+
+        if (SHORTCUTS_ENABLED && !brokenShortcuts.contains(target)) {
+            if (tryShortcut(target)) {
+                return finish(target, "shortcut", start);
+            }
+            brokenShortcuts.add(target);
+            System.out.println("Shortcut to " + target + " failed, using UI navigation from now on");
+        }
+
+        walk(target);
+        return finish(target, "ui", start);
+    }
+
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder("Navigation: shortcuts " + (SHORTCUTS_ENABLED ? "on" : "off")
+                + ", broken=" + brokenShortcuts);
+        for (Screen screen : Screen.values()) {
+            TimingStats shortcut = routeStats.get(screen.key() + ".shortcut");
+            TimingStats ui = routeStats.get(screen.key() + ".ui");
+            if (shortcut != null) {
+                summary.append("\n  ").append(shortcut);
+            }
+            if (ui != null) {
+                summary.append("\n  ").append(ui);
+            }
+            if (shortcut != null && ui != null) {
+                summary.append(String.format("%n  nav.%s saving per navigation: %.1fms", screen.key(),
+                        ui.getMeanMillis() - shortcut.getMeanMillis()));
+            }
+        }
+        return summary.toString();
+    }
+
+    private static Result finish(Screen target, String route, long start) {
+        long elapsed = routeStats.computeIfAbsent(target.key() + "." + route, key -> new TimingStats("nav." + key))
+                .recordSince(start);
+        Result result = new Result(target, route, elapsed / 1_000_000);
+        System.out.println("Reached " + result);
+        return result;
+    }
+
+    private static boolean isOn(Screen screen) {
+        return ReadinessWaiter.waitForResourceId(Duration.ZERO, screen.anchorIds);
+    }
+
+    private static boolean tryShortcut(Screen target) {
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return false;
+        }
+
+        try {
+            String deepLink = target.deepLink();
+            if (deepLink != null && !deepLink.isEmpty()) {
+                Map<String, Object> args = new HashMap<>();
+                args.put("url", deepLink);
+                args.put("package", AppiumConfig.APP_PACKAGE);
+                driver.executeScript("mobile: deepLink", args);
+            } else {
+                String activity = target.activity();
+                Map<String, Object> args = new HashMap<>();
+                args.put("intent", AppiumConfig.APP_PACKAGE + "/" + (activity.contains(".") ? activity : "." + activity));
+                args.put("wait", true);
+                driver.executeScript("mobile: startActivity", args);
+            }
+        } catch (Exception e) {
+            System.out.println("Shortcut to " + target + " not available: " + e.getMessage());
+            return false;
+        }
+
+        if (ReadinessWaiter.waitForResourceId(SHORTCUT_TIMEOUT, target.anchorIds)) {
+            return true;
+        }
+
+        // The shortcut opened something else; start from a clean launch for the UI walk
+        try {
+            driver.terminateApp(AppiumConfig.APP_PACKAGE);
+            driver.activateApp(AppiumConfig.APP_PACKAGE);
+            ReadinessWaiter.waitForAppLaunched();
+        } catch (Exception e) {
+            System.err.println("Failed to relaunch app after shortcut: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Reach the screen through the UI, starting from its parent
+     */
+    private static void walk(Screen target) {
+        if (target.parent != null) {
+            navigateTo(target.parent);
+        }
+
+        boolean moved = false;
+        switch (target) {
+            case WELCOME:
+                OnboardingPage onboardingPage = PageRegistry.get(OnboardingPage.class);
+                if (onboardingPage.isOnboardingPageDisplayed()) {
+                    onboardingPage.skipOnboarding();
+                    moved = true;
+                }
+                break;
+            case LOGIN:
+                WelcomePage loginFrom = PageRegistry.get(WelcomePage.class);
+                if (loginFrom.isWelcomePageDisplayed()) {
+                    loginFrom.clickSignIn();
+                    moved = true;
+                }
+                break;
+            case REGISTER:
+                WelcomePage registerFrom = PageRegistry.get(WelcomePage.class);
+                if (registerFrom.isWelcomePageDisplayed()) {
+                    registerFrom.clickCreateAccount();
+                    moved = true;
+                }
+                break;
+            default:
+                break;
+        }
+        if (moved) {
+            ReadinessWaiter.waitForResourceId(ReadinessWaiter.DEFAULT_TIMEOUT, target.anchorIds);
+        }
+    }
+}
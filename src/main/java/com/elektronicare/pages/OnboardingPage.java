@@ -1,5 +1,7 @@
 package com.elektronicare.pages;
 
+import com.elektronicare.utils.GestureEngine;
+import com.elektronicare.utils.PerfTelemetry;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -186,45 +188,30 @@ public class OnboardingPage extends BasePage {
     }
 
     public void swipeToNextPage() {
-        try {
-            initializeElements();
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            wait.until(ExpectedConditions.visibilityOf(viewPager));
-
-            // Swipe left on viewPager to go to next page
-            int startX = viewPager.getSize().getWidth() * 3 / 4;
-            int endX = viewPager.getSize().getWidth() / 4;
-            int y = viewPager.getSize().getHeight() / 2;
-
-            performSwipe(startX, y, endX, y);
+        swipeToNextPage(1);
+    }
 
-            // Wait for swipe animation to complete
-            WebDriverWait swipeWait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            swipeWait.until(driver -> {
-                try {
-                    return viewPager.isDisplayed();
-                } catch (Exception e) {
-                    return true;
-                }
-            });
-            System.out.println("Swiped to next page successfully");
-        } catch (Exception e) {
-            System.out.println("Error swiping to next page: " + e.getMessage());
-        }
+    /**
+     * Swipe forward several pages in a single gesture request
+     */
+    public void swipeToNextPage(int pages) {
+        swipePages(GestureEngine.Direction.RIGHT, pages, "next");
     }
 
     public void swipeToPreviousPage() {
+        swipePages(GestureEngine.Direction.LEFT, 1, "previous");
+    }
+
+    private void swipePages(GestureEngine.Direction direction, int pages, String label) {
         try {
             initializeElements();
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(5));
             wait.until(ExpectedConditions.visibilityOf(viewPager));
 
-            // Swipe right on viewPager to go to previous page
-            int startX = viewPager.getSize().getWidth() / 4;
-            int endX = viewPager.getSize().getWidth() * 3 / 4;
-            int y = viewPager.getSize().getHeight() / 2;
-
-            performSwipe(startX, y, endX, y);
+            // Swipe across the viewPager's own bounds, read in one request
+            GestureEngine.Swipe swipe = GestureEngine.scroll(viewPager, direction);
+            PerfTelemetry.measureFrames("onboarding",
+                    () -> GestureEngine.perform(driver, "gesture.onboarding", GestureEngine.repeat(swipe, pages)));
 
             // Wait for swipe animation to complete
             WebDriverWait swipeWait = new WebDriverWait(driver, Duration.ofSeconds(5));
@@ -235,9 +222,9 @@ public class OnboardingPage extends BasePage {
                     return true;
                 }
             });
-            System.out.println("Swiped to previous page successfully");
+            System.out.println("Swiped to " + label + " page successfully");
         } catch (Exception e) {
-            System.out.println("Error swiping to previous page: " + e.getMessage());
+            System.out.println("Error swiping to " + label + " page: " + e.getMessage());
         }
     }
 
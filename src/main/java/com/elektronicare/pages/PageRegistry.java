@@ -0,0 +1,95 @@
+package com.elektronicare.pages;
+
+import com.elektronicare.utils.DriverManager;
+import com.elektronicare.utils.TimingStats;
+import io.appium.java_client.android.AndroidDriver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-session page object registry. A page is built the first time it is
+ * requested on the current thread's driver session and reused until the
+ * session changes, instead of being constructed eagerly by every test or
+ * step class.
+ */
+public class PageRegistry {
+
+    private static final ThreadLocal<SessionPages> sessionPages = new ThreadLocal<>();
+
+    private static final Map<Class<?>, TimingStats> constructionStats = new ConcurrentHashMap<>();
+    private static final AtomicLong reuses = new AtomicLong();
+
+    private PageRegistry() {
+    }
+
+    /**
+     * Page object for the current session, built on first use
+     */
+    public static <T extends BasePage> T get(Class<T> pageClass) {
+        String sessionId = currentSessionId();
+        SessionPages pages = sessionPages.get();
+        if (pages == null || !pages.sessionId.equals(sessionId)) {
+            pages = new SessionPages(sessionId);
+            sessionPages.set(pages);
+        }
+
+        BasePage page = pages.pages.get(pageClass);
+        if (page != null) {
+            reuses.incrementAndGet();
+            return pageClass.cast(page);
+        }
+
+        T created = create(pageClass);
+        // A page built without a driver is not cached so the next call can retry
+        if (created.isInitialized()) {
+            pages.pages.put(pageClass, created);
+        }
+        return created;
+    }
+
+    /**
+     * Forget the current thread's pages. BaseTest calls it when the thread
+     * gives up its session, so idle worker threads do not keep a quit
+     * driver reachable through its pages.
+     */
+    public static void clear() {
+        sessionPages.remove();
+    }
+
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder("Page registry: reuses=" + reuses.get());
+        constructionStats.values().stream()
+                .sorted((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()))
+                .forEach(stats -> summary.append("\n  ").append(stats));
+        return summary.toString();
+    }
+
+    private static <T extends BasePage> T create(Class<T> pageClass) {
+        long start = System.nanoTime();
+        try {
+            return pageClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot create page " + pageClass.getSimpleName(), e);
+        } finally {
+            constructionStats.computeIfAbsent(pageClass, type -> new TimingStats("construct." + type.getSimpleName()))
+                    .recordSince(start);
+        }
+    }
+
+    private static String currentSessionId() {
+        AndroidDriver driver = DriverManager.peekDriver();
+        return driver != null ? String.valueOf(driver.getSessionId()) : "";
+    }
+
+    private static class SessionPages {
+        final String sessionId;
+        final Map<Class<?>, BasePage> pages = new HashMap<>();
+
+        SessionPages(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
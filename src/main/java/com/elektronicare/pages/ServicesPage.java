@@ -1,5 +1,12 @@
 package com.elektronicare.pages;
 
+import com.elektronicare.utils.ElementRecord;
+import com.elektronicare.utils.PageSnapshot;
+import com.elektronicare.utils.PageSnapshotCache;
+import com.elektronicare.utils.PerfTelemetry;
+import com.elektronicare.utils.ReadinessWaiter;
+import com.elektronicare.utils.ScrollSearch;
+import com.elektronicare.utils.VirtualListReader;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -7,9 +14,24 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ServicesPage extends BasePage {
 
+    // Locators shared by the element proxies and the page snapshot reads
+    private static final String SERVICES_RECYCLER_XPATH = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']";
+    private static final String SERVICE_CARDS_XPATH = SERVICES_RECYCLER_XPATH + "//com.google.android.material.card.MaterialCardView";
+    private static final String SERVICE_NAMES_XPATH = SERVICES_RECYCLER_XPATH + "//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_name']";
+    private static final String SERVICE_CATEGORIES_XPATH = SERVICES_RECYCLER_XPATH + "//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_category']";
+    private static final String SERVICE_DESCRIPTIONS_XPATH = SERVICES_RECYCLER_XPATH + "//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_description']";
+    private static final String SERVICE_PRICES_XPATH = SERVICES_RECYCLER_XPATH + "//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_price']";
+    private static final String SERVICE_ICONS_XPATH = SERVICES_RECYCLER_XPATH + "//android.widget.ImageView[@resource-id='com.example.elektronicarebeta1:id/service_icon']";
+    private static final String NO_SERVICES_ID = "com.example.elektronicarebeta1:id/no_services_view";
+    private static final String NO_SERVICES_XPATH = "//*[@resource-id='" + NO_SERVICES_ID + "']";
+    private static final String SERVICES_SCROLLABLE = "new UiSelector().resourceId(\"com.example.elektronicarebeta1:id/services_recycler_view\")";
+
+    private static final Duration SERVICES_LOAD_TIMEOUT = Duration.ofSeconds(10);
+
     @AndroidFindBy(xpath = "//android.widget.TextView[@text='Our Services']")
     private WebElement servicesTitle;
 
@@ -19,32 +41,32 @@ public class ServicesPage extends BasePage {
     @AndroidFindBy(id = "com.example.elektronicarebeta1:id/services_recycler_view")
     private WebElement servicesRecyclerView;
 
-    @AndroidFindBy(id = "com.example.elektronicarebeta1:id/no_services_view")
+    @AndroidFindBy(id = NO_SERVICES_ID)
     private WebElement noServicesView;
 
     // Service items in RecyclerView - using proper selectors for MaterialCardView
     // items
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//com.google.android.material.card.MaterialCardView")
+    @AndroidFindBy(xpath = SERVICE_CARDS_XPATH)
     private List<WebElement> serviceCards;
 
     // Service names in cards (from Firebase)
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_name']")
+    @AndroidFindBy(xpath = SERVICE_NAMES_XPATH)
     private List<WebElement> serviceNames;
 
     // Service categories in cards
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_category']")
+    @AndroidFindBy(xpath = SERVICE_CATEGORIES_XPATH)
     private List<WebElement> serviceCategories;
 
     // Service descriptions in cards
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_description']")
+    @AndroidFindBy(xpath = SERVICE_DESCRIPTIONS_XPATH)
     private List<WebElement> serviceDescriptions;
 
     // Service prices in cards
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//android.widget.TextView[@resource-id='com.example.elektronicarebeta1:id/service_price']")
+    @AndroidFindBy(xpath = SERVICE_PRICES_XPATH)
     private List<WebElement> servicePrices;
 
     // Service icons in cards
-    @AndroidFindBy(xpath = "//androidx.recyclerview.widget.RecyclerView[@resource-id='com.example.elektronicarebeta1:id/services_recycler_view']//android.widget.ImageView[@resource-id='com.example.elektronicarebeta1:id/service_icon']")
+    @AndroidFindBy(xpath = SERVICE_ICONS_XPATH)
     private List<WebElement> serviceIcons;
 
     // Bottom navigation
@@ -103,6 +125,10 @@ public class ServicesPage extends BasePage {
      * Wait for Firebase services to load with proper timeout
      */
     public void waitForServicesToLoad() {
+        if (PageSnapshotCache.ENABLED) {
+            waitForServicesToLoadFromSnapshot();
+            return;
+        }
         try {
             initializeElements();
             System.out.println("Waiting for Firebase services to load...");
@@ -140,6 +166,32 @@ public class ServicesPage extends BasePage {
         }
     }
 
+    /**
+     * Poll page snapshots until the cards carry data or the empty view shows.
+     * The cached snapshot is checked first, so repeated calls on a loaded
+     * screen cost no extra round trip.
+     */
+    private void waitForServicesToLoadFromSnapshot() {
+        boolean[] useCached = {true};
+        boolean loaded = ReadinessWaiter.waitUntil("services.loaded", SERVICES_LOAD_TIMEOUT, () -> {
+            PageSnapshot snapshot = useCached[0] ? PageSnapshotCache.get() : PageSnapshotCache.refresh();
+            useCached[0] = false;
+            return isServicesLoaded(snapshot);
+        });
+        if (!loaded) {
+            System.out.println("Timeout waiting for services to load");
+        }
+    }
+
+    private static boolean isServicesLoaded(PageSnapshot snapshot) {
+        List<String> names = snapshot.texts(SERVICE_NAMES_XPATH);
+        if (!snapshot.read(SERVICE_CARDS_XPATH, List.of()).isEmpty() && !names.isEmpty()
+                && !names.get(0).trim().isEmpty()) {
+            return true;
+        }
+        return snapshot.read(NO_SERVICES_XPATH, List.of("displayed")).stream().anyMatch(ElementRecord::isDisplayed);
+    }
+
     /**
      * Select service by name (from Firebase data)
      */
@@ -233,6 +285,9 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
+            if (PageSnapshotCache.ENABLED) {
+                return isTextDisplayed(SERVICE_NAMES_XPATH, serviceName);
+            }
             for (WebElement nameElement : serviceNames) {
                 if (nameElement.getText().toLowerCase().contains(serviceName.toLowerCase())) {
                     return nameElement.isDisplayed();
@@ -252,6 +307,9 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
+            if (PageSnapshotCache.ENABLED) {
+                return isTextDisplayed(SERVICE_CATEGORIES_XPATH, category);
+            }
             for (WebElement categoryElement : serviceCategories) {
                 if (categoryElement.getText().toLowerCase().contains(category.toLowerCase())) {
                     return categoryElement.isDisplayed();
@@ -264,6 +322,19 @@ public class ServicesPage extends BasePage {
         }
     }
 
+    /**
+     * Snapshot equivalent of the WebElement loops above: first element whose
+     * text contains the value decides
+     */
+    private boolean isTextDisplayed(String xpath, String value) {
+        for (ElementRecord record : readElements(xpath, "text", "displayed")) {
+            if (record.getText().toLowerCase().contains(value.toLowerCase())) {
+                return record.isDisplayed();
+            }
+        }
+        return false;
+    }
+
     public boolean areServicesDisplayed() {
         try {
             initializeElements();
@@ -328,6 +399,9 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
+            if (PageSnapshotCache.ENABLED) {
+                return readElements(SERVICE_CARDS_XPATH).size();
+            }
             return serviceCards != null ? serviceCards.size() : 0;
         } catch (Exception e) {
             System.out.println("Error getting services count: " + e.getMessage());
@@ -342,9 +416,8 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
-            return serviceNames.stream()
-                    .map(WebElement::getText)
-                    .filter(text -> text != null && !text.trim().isEmpty())
+            return readTexts(SERVICE_NAMES_XPATH).stream()
+                    .filter(text -> !text.trim().isEmpty())
                     .collect(java.util.stream.Collectors.toList());
         } catch (Exception e) {
             System.out.println("Error getting service names: " + e.getMessage());
@@ -352,6 +425,45 @@ public class ServicesPage extends BasePage {
         }
     }
 
+    /**
+     * Every service card of the list, including those not bound yet, read
+     * lazily while scrolling the RecyclerView. Each record holds the card's
+     * texts keyed by resource-id, e.g. service_name and service_price.
+     */
+    public Stream<ElementRecord> streamServiceItems() {
+        initializeElements();
+        waitForServicesToLoad();
+        return new VirtualListReader(driver, SERVICES_RECYCLER_XPATH, SERVICE_CARDS_XPATH,
+                VirtualListReader.keyOf("service_name", "service_category", "service_price")).stream();
+    }
+
+    /**
+     * Number of services in the whole list, scrolling through it; unlike
+     * getServicesCount() this also counts cards RecyclerView has not bound
+     */
+    public int getTotalServicesCount() {
+        try {
+            return (int) streamServiceItems().count();
+        } catch (Exception e) {
+            System.out.println("Error counting all services: " + e.getMessage());
+            return getServicesCount();
+        }
+    }
+
+    /**
+     * Names of all services in the list, scrolling through it
+     */
+    public List<String> getAllServiceNames() {
+        try {
+            return streamServiceItems().map(item -> item.get("service_name"))
+                    .filter(name -> !name.trim().isEmpty())
+                    .collect(java.util.stream.Collectors.toList());
+        } catch (Exception e) {
+            System.out.println("Error reading all service names: " + e.getMessage());
+            return getServiceNames();
+        }
+    }
+
     /**
      * Get all service categories from Firebase data
      */
@@ -359,9 +471,8 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
-            return serviceCategories.stream()
-                    .map(WebElement::getText)
-                    .filter(text -> text != null && !text.trim().isEmpty())
+            return readTexts(SERVICE_CATEGORIES_XPATH).stream()
+                    .filter(text -> !text.trim().isEmpty())
                     .collect(java.util.stream.Collectors.toList());
         } catch (Exception e) {
             System.out.println("Error getting service categories: " + e.getMessage());
@@ -376,9 +487,8 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
-            return servicePrices.stream()
-                    .map(WebElement::getText)
-                    .filter(text -> text != null && text.contains("Rp"))
+            return readTexts(SERVICE_PRICES_XPATH).stream()
+                    .filter(text -> text.contains("Rp"))
                     .collect(java.util.stream.Collectors.toList());
         } catch (Exception e) {
             System.out.println("Error getting service prices: " + e.getMessage());
@@ -390,6 +500,10 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
+            if (PageSnapshotCache.ENABLED) {
+                return readElements(SERVICE_PRICES_XPATH, "displayed").stream()
+                        .anyMatch(ElementRecord::isDisplayed);
+            }
             return servicePrices != null && !servicePrices.isEmpty() &&
                     servicePrices.stream().anyMatch(WebElement::isDisplayed);
         } catch (Exception e) {
@@ -412,24 +526,12 @@ public class ServicesPage extends BasePage {
                 return;
             }
 
-            // Scroll down to find the service
-            for (int i = 0; i < 5; i++) {
-                scrollDown();
-                // Wait for scroll animation to complete and content to load
-                WebDriverWait scrollWait = new WebDriverWait(driver, Duration.ofSeconds(3));
-                scrollWait.until(driver -> {
-                    try {
-                        initializeElements();
-                        return serviceCards.size() > 0; // Wait for content to be stable
-                    } catch (Exception e) {
-                        return true; // Continue if there's an issue
-                    }
-                });
-
-                if (isServiceDisplayed(serviceName)) {
-                    System.out.println("Found service after scrolling: " + serviceName);
-                    return;
-                }
+            // One device-side search, falling back to scrolling until the list stops moving
+            ScrollSearch.Result result = PerfTelemetry.measureFrames("services.scroll",
+                    () -> ScrollSearch.scrollToText(driver, SERVICES_SCROLLABLE, serviceName, true));
+            if (result.isFound()) {
+                System.out.println("Found service after scrolling: " + serviceName);
+                return;
             }
 
             System.out.println("Service not found after scrolling: " + serviceName);
@@ -445,17 +547,37 @@ public class ServicesPage extends BasePage {
         try {
             initializeElements();
             waitForServicesToLoad();
+
+            // One bulk read for cards, names, categories and prices
+            List<ElementRecord> records = readElements(SERVICE_CARDS_XPATH + " | " + SERVICE_NAMES_XPATH + " | "
+                    + SERVICE_CATEGORIES_XPATH + " | " + SERVICE_PRICES_XPATH, "class", "resource-id", "text");
+            long cards = records.stream().filter(r -> r.get("class").endsWith("MaterialCardView")).count();
+
             System.out.println("=== SERVICE DETAILS ===");
-            System.out.println("Total service cards: " + serviceCards.size());
-            System.out.println("Service names: " + getServiceNames());
-            System.out.println("Service categories: " + getServiceCategories());
-            System.out.println("Service prices: " + getServicePrices());
+            System.out.println("Total service cards: " + cards);
+            System.out.println("Service names: " + textsWithId(records, "service_name"));
+            System.out.println("Service categories: " + textsWithId(records, "service_category"));
+            System.out.println("Service prices: " + textsWithId(records, "service_price"));
             System.out.println("======================");
         } catch (Exception e) {
             System.out.println("Error logging service details: " + e.getMessage());
         }
     }
 
+    private List<String> readTexts(String xpath) {
+        return readElements(xpath, "text").stream()
+                .map(ElementRecord::getText)
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    private static List<String> textsWithId(List<ElementRecord> records, String id) {
+        return records.stream()
+                .filter(r -> r.getResourceId().endsWith(":id/" + id))
+                .map(ElementRecord::getText)
+                .filter(text -> !text.trim().isEmpty())
+                .collect(java.util.stream.Collectors.toList());
+    }
+
     /**
      * Check if services recycler view is visible
      */
@@ -525,7 +647,7 @@ public class ServicesPage extends BasePage {
             int endY = servicesRecyclerView.getSize().getHeight() * 3 / 4;
             int x = servicesRecyclerView.getSize().getWidth() / 2;
 
-            performSwipe(x, startY, x, endY);
+            PerfTelemetry.measureFrames("services.refresh", () -> performSwipe(x, startY, x, endY));
 
             // Wait for refresh to complete
             waitForServicesToLoad();
@@ -587,6 +709,10 @@ public class ServicesPage extends BasePage {
             initializeElements();
             waitForServicesToLoad();
 
+            if (PageSnapshotCache.ENABLED) {
+                List<String> names = PageSnapshotCache.get().texts(SERVICE_NAMES_XPATH);
+                return index >= 0 && index < names.size() ? names.get(index) : "";
+            }
             if (index >= 0 && index < serviceNames.size()) {
                 return serviceNames.get(index).getText();
             }
@@ -605,6 +731,10 @@ public class ServicesPage extends BasePage {
             initializeElements();
             waitForServicesToLoad();
 
+            if (PageSnapshotCache.ENABLED) {
+                List<String> categories = PageSnapshotCache.get().texts(SERVICE_CATEGORIES_XPATH);
+                return index >= 0 && index < categories.size() ? categories.get(index) : "";
+            }
             if (index >= 0 && index < serviceCategories.size()) {
                 return serviceCategories.get(index).getText();
             }
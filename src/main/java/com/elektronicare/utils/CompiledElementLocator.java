@@ -0,0 +1,102 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.AppiumConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ElementLocator that looks up a page object field through its compiled
+ * locator and falls back to the original XPath until the compiled one has
+ * proven itself. Lookups are recorded on the field's LocatorMetric for the
+ * strategy that was used; an XPath fallback counts as a retry.
+ *
+ * The fallback runs with the implicit wait off: the compiled lookup has
+ * already waited it out, and elements that are usually absent (toasts,
+ * error labels) never get verified, so they would pay it twice per check.
+ */
+public class CompiledElementLocator implements ElementLocator {
+
+    private final SearchContext context;
+    private final CompiledLocator locator;
+    private final LocatorMetric compiledMetric;
+    private final LocatorMetric xpathMetric;
+
+    public CompiledElementLocator(SearchContext context, CompiledLocator locator) {
+        this.context = context;
+        this.locator = locator;
+        this.compiledMetric = LocatorMetrics.get(locator.getPage(), locator.getField(), locator.getStrategy());
+        this.xpathMetric = LocatorMetrics.get(locator.getPage(), locator.getField(), "xpath");
+    }
+
+    @Override
+    public WebElement findElement() {
+        List<WebElement> elements = findElements();
+        if (elements.isEmpty()) {
+            (locator.isDemoted() ? xpathMetric : compiledMetric).recordFailure();
+            throw new NoSuchElementException("Cannot locate " + locator.getName() + " using " + locator);
+        }
+        return elements.get(0);
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        long start = System.nanoTime();
+        LocatorMetric metric = locator.isDemoted() ? xpathMetric : compiledMetric;
+        try {
+            if (locator.isDemoted()) {
+                return context.findElements(locator.getXPathBy());
+            }
+
+            List<WebElement> elements = context.findElements(locator.getOptimizedBy());
+            if (!elements.isEmpty()) {
+                locator.markVerified();
+                return elements;
+            }
+            if (locator.isVerified()) {
+                // The compiled locator has matched before, so the element is simply absent
+                return elements;
+            }
+
+            metric.recordRetry();
+            List<WebElement> fallback = findWithoutImplicitWait(locator.getXPathBy());
+            if (!fallback.isEmpty()) {
+                locator.demote();
+                System.err.println("Compiled locator missed for " + locator.getName()
+                        + ", using XPath from now on: " + locator.getXPath());
+            }
+            return fallback;
+        } catch (RuntimeException e) {
+            metric.recordFailure();
+            throw e;
+        } finally {
+            metric.recordLookup(System.nanoTime() - start);
+        }
+    }
+
+    private List<WebElement> findWithoutImplicitWait(By by) {
+        WebDriver driver = context instanceof WebDriver ? (WebDriver) context
+                : context instanceof WrapsDriver ? ((WrapsDriver) context).getWrappedDriver() : null;
+        if (driver == null) {
+            return context.findElements(by);
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return context.findElements(by);
+        } finally {
+            driver.manage().timeouts().implicitlyWait(AppiumConfig.implicitWait());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return locator.toString();
+    }
+}
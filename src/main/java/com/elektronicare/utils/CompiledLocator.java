@@ -0,0 +1,98 @@
+package com.elektronicare.utils;
+
+import org.openqa.selenium.By;
+
+/**
+ * An @AndroidFindBy XPath together with the faster By it was compiled to.
+ * The XPath stays as fallback: if the compiled By misses before it has ever
+ * matched while the XPath finds the element, the locator is demoted and
+ * uses the XPath from then on.
+ */
+public class CompiledLocator {
+
+    private final String page;
+    private final String field;
+    private final String xpath;
+    private final By optimizedBy;
+    private final String strategy;
+    private final String note;
+
+    private volatile boolean verified;
+    private volatile boolean demoted;
+
+    CompiledLocator(String page, String field, String xpath, By optimizedBy, String strategy, String note) {
+        this.page = page;
+        this.field = field;
+        this.xpath = xpath;
+        this.optimizedBy = optimizedBy;
+        this.strategy = strategy;
+        this.note = note;
+    }
+
+    /**
+     * Page and field name, e.g. "LoginPage.emailField"
+     */
+    public String getName() {
+        return page + "." + field;
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getXPath() {
+        return xpath;
+    }
+
+    public By getOptimizedBy() {
+        return optimizedBy;
+    }
+
+    public By getXPathBy() {
+        return By.xpath(xpath);
+    }
+
+    /**
+     * "id", "uiautomator" or "xpath" when the XPath could not be translated
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Why the XPath was kept, or how the translation differs from it
+     */
+    public String getNote() {
+        return note;
+    }
+
+    public boolean isOptimized() {
+        return optimizedBy != null;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public boolean isDemoted() {
+        return demoted;
+    }
+
+    void markVerified() {
+        verified = true;
+    }
+
+    void demote() {
+        demoted = true;
+    }
+
+    @Override
+    public String toString() {
+        String target = isOptimized() ? optimizedBy.toString() : "xpath kept";
+        return getName() + ": " + strategy + " -> " + target + (note != null ? " (" + note + ")" : "");
+    }
+}
@@ -1,58 +1,97 @@
 package com.elektronicare.utils;
 
 import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.DeviceConfig;
 import io.appium.java_client.android.AndroidDriver;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Driver Manager for managing Appium driver instance
+ * Thread-safe registry of the driver and device bound to each test thread.
+ * AppiumConfig, page objects and TestUtils all resolve their driver here.
  */
 public class DriverManager {
-    
-    private static ThreadLocal<AndroidDriver> driver = new ThreadLocal<>();
-    
+
+    private static final ThreadLocal<AndroidDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<DeviceConfig> device = new ThreadLocal<>();
+    private static final Map<Thread, AndroidDriver> activeDrivers = new ConcurrentHashMap<>();
+
     /**
-     * Set the driver instance
+     * Set the driver instance for the current thread
      */
     public static void setDriver(AndroidDriver androidDriver) {
+        if (androidDriver == null) {
+            removeDriver();
+            return;
+        }
         driver.set(androidDriver);
+        activeDrivers.put(Thread.currentThread(), androidDriver);
     }
-    
+
     /**
-     * Get the driver instance
+     * Get the validated driver instance for the current thread
      */
     public static AndroidDriver getDriver() {
-        AndroidDriver androidDriver = driver.get();
-        if (androidDriver == null) {
-            // If no driver is set, get from AppiumConfig
-            androidDriver = AppiumConfig.getDriver();
-            setDriver(androidDriver);
-        }
-        return androidDriver;
+        return AppiumConfig.getDriver();
     }
-    
+
+    /**
+     * Get the current thread's driver without any responsiveness check
+     */
+    public static AndroidDriver peekDriver() {
+        return driver.get();
+    }
+
     /**
      * Remove the driver instance
      */
     public static void removeDriver() {
         driver.remove();
+        activeDrivers.remove(Thread.currentThread());
+    }
+
+    /**
+     * Drivers currently bound to any thread
+     */
+    public static List<AndroidDriver> getActiveDrivers() {
+        return new ArrayList<>(activeDrivers.values());
     }
-    
+
     /**
-     * Initialize driver using AppiumConfig
+     * Set the device bound to the current thread
+     */
+    public static void setDevice(DeviceConfig deviceConfig) {
+        device.set(deviceConfig);
+    }
+
+    /**
+     * Get the device bound to the current thread, or null if none
+     */
+    public static DeviceConfig getDevice() {
+        return device.get();
+    }
+
+    /**
+     * Remove the device binding for the current thread
+     */
+    public static void removeDevice() {
+        device.remove();
+    }
+
+    /**
+     * Initialize driver for the current thread using AppiumConfig
      */
     public static void initializeDriver() {
-        AndroidDriver androidDriver = AppiumConfig.getDriver();
-        setDriver(androidDriver);
+        AppiumConfig.initializeDriver();
     }
-    
+
     /**
-     * Quit the driver and remove from ThreadLocal
+     * Quit the current thread's driver and remove it from the registry
      */
     public static void quitDriver() {
-        AndroidDriver androidDriver = driver.get();
-        if (androidDriver != null) {
-            androidDriver.quit();
-            removeDriver();
-        }
+        AppiumConfig.quitDriver();
     }
-}
\ No newline at end of file
+}
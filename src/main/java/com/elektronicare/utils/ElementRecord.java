@@ -0,0 +1,47 @@
+package com.elektronicare.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable attribute values of one element, read in bulk through
+ * BasePage.readElements() instead of one getText()/isDisplayed() call each.
+ */
+public final class ElementRecord {
+
+    private final Map<String, String> attributes;
+
+    public ElementRecord(Map<String, String> attributes) {
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    /**
+     * Attribute value, or empty string if it was not read or not present
+     */
+    public String get(String attribute) {
+        String value = attributes.get(attribute);
+        return value != null ? value : "";
+    }
+
+    public String getText() {
+        return get("text");
+    }
+
+    public String getResourceId() {
+        return get("resource-id");
+    }
+
+    public boolean isDisplayed() {
+        return !"false".equals(attributes.get("displayed"));
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementRecord" + attributes;
+    }
+}
@@ -1,130 +1,437 @@
 package com.elektronicare.utils;
 
+import com.elektronicare.config.FrameworkConfig;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * ExtentReports manager for test reporting
+ * ExtentReports manager for test reporting.
+ *
+ * Test threads only append events to a lock-free queue. A single writer
+ * thread appends them to a JSON-lines log next to the HTML report, applies
+ * them to the ExtentReports model (which it alone touches) and re-renders
+ * the Spark HTML every report.render.interval.s seconds and on
+ * flushReports(). After a crash the log is complete up to the last event;
+ * rebuild the HTML from it with renderFromLog() or main().
  */
 public class ExtentReportManager {
-    
-    private static ExtentReports extent;
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
-    
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long RENDER_INTERVAL_MS = FrameworkConfig.get().getSeconds("report.render.interval.s", 60)
+            .toMillis();
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FLUSH_TIMEOUT_MS = 60000;
+
+    /**
+     * One line of the report log
+     */
+    public static class Event {
+        public String type;
+        public long test;
+        public String name;
+        public String status;
+        public String message;
+        public long time;
+        public String thread;
+
+        public Event() {
+        }
+
+        Event(String type, long test, String name, String status, String message) {
+            this.type = type;
+            this.test = test;
+            this.name = name;
+            this.status = status;
+            this.message = message;
+            this.time = System.currentTimeMillis();
+            this.thread = Thread.currentThread().getName();
+        }
+    }
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicLong testIds = new AtomicLong();
+    private static final AtomicLong eventsWritten = new AtomicLong();
+    private static final AtomicLong renders = new AtomicLong();
+    private static final ThreadLocal<Long> test = new ThreadLocal<>();
+    private static final TimingStats renderStats = new TimingStats("report.render");
+
+    private static volatile Thread writer;
+    private static volatile Path logPath;
+
     /**
      * Initialize ExtentReports
      */
     public static void initReports() {
-        if (extent == null) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String reportPath = System.getProperty("user.dir") + "/test-reports/ElektroniCare_Test_Report_" + timestamp + ".html";
-            
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-            sparkReporter.config().setDocumentTitle("ElektroniCare Automation Test Report");
-            sparkReporter.config().setReportName("Mobile App Test Results");
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
-            
-            // System information
-            extent.setSystemInfo("Application", "ElektroniCare Beta 1");
-            extent.setSystemInfo("Platform", "Android");
-            extent.setSystemInfo("Automation Tool", "Appium");
-            extent.setSystemInfo("Framework", "TestNG");
-            extent.setSystemInfo("Tester", "Automation Team");
-            
-            System.out.println("ExtentReports initialized: " + reportPath);
-        }
-    }
-    
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+        String reportPath = System.getProperty("user.dir") + "/test-reports/ElektroniCare_Test_Report_" + timestamp + ".html";
+        logPath = Paths.get(reportPath.replace(".html", ".jsonl"));
+
+        Thread thread = new Thread(() -> run(Paths.get(reportPath), logPath), "report-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+
+        System.out.println("ExtentReports initialized: " + reportPath + " (event log " + logPath + ")");
+    }
+
     /**
      * Create a new test in the report
      */
     public static void createTest(String testName, String description) {
-        if (extent != null) {
-            ExtentTest extentTest = extent.createTest(testName, description);
-            test.set(extentTest);
+        if (started.get()) {
+            long id = testIds.incrementAndGet();
+            test.set(id);
+            enqueue(new Event("test", id, testName, null, description));
         }
     }
-    
+
     /**
-     * Get current test instance
+     * Id of the current thread's report test, or null if none
      */
-    public static ExtentTest getTest() {
+    public static Long getCurrentTestId() {
         return test.get();
     }
-    
+
     /**
      * Log info message
      */
     public static void logInfo(String message) {
-        ExtentTest currentTest = getTest();
-        if (currentTest != null) {
-            currentTest.info(message);
-        }
+        log(Status.INFO, message);
     }
-    
+
     /**
      * Log pass message
      */
     public static void logPass(String message) {
-        ExtentTest currentTest = getTest();
-        if (currentTest != null) {
-            currentTest.pass(message);
-        }
+        log(Status.PASS, message);
     }
-    
+
     /**
      * Log fail message
      */
     public static void logFail(String message) {
-        ExtentTest currentTest = getTest();
-        if (currentTest != null) {
-            currentTest.fail(message);
-        }
+        log(Status.FAIL, message);
     }
-    
+
+    /**
+     * Log warning message
+     */
+    public static void logWarning(String message) {
+        log(Status.WARNING, message);
+    }
+
     /**
      * Log skip message
      */
     public static void logSkip(String message) {
-        ExtentTest currentTest = getTest();
-        if (currentTest != null) {
-            currentTest.skip(message);
+        log(Status.SKIP, message);
+    }
+
+    /**
+     * Log a block of preformatted text, e.g. a device log excerpt
+     */
+    public static void logCode(String text) {
+        Long currentTest = test.get();
+        if (text != null && currentTest != null) {
+            enqueue(new Event("code", currentTest, null, Status.INFO.name(), text));
         }
     }
-    
+
     /**
      * Add screenshot to report
      */
     public static void addScreenshot(String screenshotPath) {
-        if (screenshotPath != null) {
-            ExtentTest currentTest = getTest();
-            if (currentTest != null) {
-                currentTest.addScreenCaptureFromPath(screenshotPath);
-            }
+        Long currentTest = test.get();
+        if (screenshotPath != null && currentTest != null) {
+            enqueue(new Event("screenshot", currentTest, null, null, screenshotPath));
         }
     }
-    
+
     /**
-     * Flush reports
+     * Write every queued event and render the HTML report
      */
     public static void flushReports() {
-        if (extent != null) {
-            extent.flush();
+        if (!started.get()) {
+            return;
+        }
+        CountDownLatch rendered = new CountDownLatch(1);
+        enqueue(rendered);
+        try {
+            if (!rendered.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                System.err.println("Timed out waiting for the report writer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(getStatsSummary());
+    }
+
+    /**
+     * Start an empty report model, e.g. between benchmark iterations. The
+     * event log keeps earlier events; renderFromLog() resets at the same point.
+     */
+    public static void resetReports() {
+        if (started.get()) {
+            enqueue(new Event("reset", 0, null, null, null));
         }
     }
-    
+
     /**
      * Clean up thread local
      */
     public static void removeTest() {
+        Long currentTest = test.get();
+        if (currentTest != null) {
+            enqueue(new Event("end", currentTest, null, null, null));
+        }
         test.remove();
     }
-}
\ No newline at end of file
+
+    public static Path getLogPath() {
+        return logPath;
+    }
+
+    public static String getStatsSummary() {
+        return "Report: events=" + eventsWritten.get() + ", queued=" + queue.size() + ", renders=" + renders.get()
+                + "\n  " + renderStats;
+    }
+
+    /**
+     * Rebuild the HTML report from an event log, e.g. after a crashed run
+     */
+    public static void renderFromLog(Path log, Path html) throws IOException {
+        ExtentReports extent = createReports(html);
+        Map<Long, ExtentTest> tests = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    Event event = MAPPER.readValue(line, Event.class);
+                    if ("reset".equals(event.type)) {
+                        extent = createReports(html);
+                        tests.clear();
+                    } else {
+                        apply(extent, tests, event);
+                    }
+                } catch (JsonProcessingException e) {
+                    // The last line of a crashed run may be cut off
+                    System.err.println("Skipping unreadable report event: " + e.getOriginalMessage());
+                }
+            }
+        }
+        extent.flush();
+        System.out.println("Rendered " + html + " from " + log);
+    }
+
+    /**
+     * Usage: ExtentReportManager &lt;events.jsonl&gt; [report.html]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ExtentReportManager <events.jsonl> [report.html]");
+            System.exit(2);
+        }
+        Path log = Paths.get(args[0]);
+        Path html = args.length > 1 ? Paths.get(args[1]) : Paths.get(args[0].replaceAll("\\.jsonl$", "") + ".html");
+        renderFromLog(log, html);
+    }
+
+    private static void log(Status status, String message) {
+        Long currentTest = test.get();
+        if (currentTest != null) {
+            enqueue(new Event("log", currentTest, null, status.name(), message));
+        }
+    }
+
+    private static void enqueue(Object item) {
+        queue.offer(item);
+        Thread thread = writer;
+        if (item instanceof CountDownLatch && thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Writer thread: the only code that touches the log file and the ExtentReports model
+     */
+    private static void run(Path html, Path log) {
+        ExtentReports extent = createReports(html);
+        Map<Long, ExtentTest> tests = new HashMap<>();
+        long lastRender = System.currentTimeMillis();
+        boolean dirty = false;
+
+        try {
+            Files.createDirectories(log.getParent());
+        } catch (IOException e) {
+            System.err.println("Cannot create report directory " + log.getParent() + ": " + e.getMessage());
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(log, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            while (true) {
+                Object item = queue.poll();
+                if (item == null) {
+                    out.flush();
+                    if (dirty && System.currentTimeMillis() - lastRender >= RENDER_INTERVAL_MS) {
+                        render(extent);
+                        lastRender = System.currentTimeMillis();
+                        dirty = false;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                if (item instanceof CountDownLatch) {
+                    out.flush();
+                    render(extent);
+                    lastRender = System.currentTimeMillis();
+                    dirty = false;
+                    ((CountDownLatch) item).countDown();
+                    continue;
+                }
+
+                Event event = (Event) item;
+                out.write(MAPPER.writeValueAsString(event));
+                out.write('\n');
+                eventsWritten.incrementAndGet();
+                if ("reset".equals(event.type)) {
+                    extent = createReports(html);
+                    tests.clear();
+                    continue;
+                }
+                try {
+                    apply(extent, tests, event);
+                    dirty = true;
+                } catch (Exception e) {
+                    System.err.println("Failed to apply report event " + event.type + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Report writer stopped, event log " + log + " is incomplete: " + e.getMessage());
+            // Keep the HTML report working without the log
+            drainWithoutLog(html, extent, tests);
+        }
+    }
+
+    private static void drainWithoutLog(Path html, ExtentReports extent, Map<Long, ExtentTest> tests) {
+        while (true) {
+            Object item = queue.poll();
+            if (item == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else if (item instanceof CountDownLatch) {
+                render(extent);
+                ((CountDownLatch) item).countDown();
+            } else if ("reset".equals(((Event) item).type)) {
+                extent = createReports(html);
+                tests.clear();
+            } else {
+                try {
+                    apply(extent, tests, (Event) item);
+                } catch (Exception e) {
+                    System.err.println("Failed to apply report event: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void apply(ExtentReports extent, Map<Long, ExtentTest> tests, Event event) {
+        if ("test".equals(event.type)) {
+            ExtentTest extentTest = extent.createTest(event.name, event.message);
+            extentTest.getModel().setStartTime(new Date(event.time));
+            tests.put(event.test, extentTest);
+            return;
+        }
+
+        ExtentTest extentTest = tests.get(event.test);
+        if (extentTest == null) {
+            return;
+        }
+        switch (event.type) {
+            case "log":
+                extentTest.log(Status.valueOf(event.status), event.message);
+                List<Log> logs = extentTest.getModel().getLogs();
+                if (!logs.isEmpty()) {
+                    logs.get(logs.size() - 1).setTimestamp(new Date(event.time));
+                }
+                break;
+            case "code":
+                extentTest.info(MarkupHelper.createCodeBlock(event.message));
+                break;
+            case "screenshot":
+                extentTest.addScreenCaptureFromPath(event.message);
+                break;
+            case "end":
+                extentTest.getModel().setEndTime(new Date(event.time));
+                tests.remove(event.test);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void render(ExtentReports extent) {
+        long start = System.nanoTime();
+        try {
+            extent.flush();
+            renders.incrementAndGet();
+        } catch (Exception e) {
+            System.err.println("Failed to render report: " + e.getMessage());
+        } finally {
+            renderStats.recordSince(start);
+        }
+    }
+
+    private static ExtentReports createReports(Path html) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(html.toString());
+        sparkReporter.config().setDocumentTitle("ElektroniCare Automation Test Report");
+        sparkReporter.config().setReportName("Mobile App Test Results");
+        sparkReporter.config().setTheme(Theme.STANDARD);
+
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(sparkReporter);
+
+        // System information
+        extent.setSystemInfo("Application", "ElektroniCare Beta 1");
+        extent.setSystemInfo("Platform", "Android");
+        extent.setSystemInfo("Automation Tool", "Appium");
+        extent.setSystemInfo("Framework", "TestNG");
+        extent.setSystemInfo("Tester", "Automation Team");
+        return extent;
+    }
+}
@@ -0,0 +1,239 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+import org.openqa.selenium.remote.SessionId;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Touch gestures built on W3C actions instead of the deprecated TouchAction.
+ *
+ * - The viewport size is fetched once per session and cached, so a scroll
+ *   costs one actions request instead of a window().getSize() round trip
+ *   plus the gesture.
+ * - The finger moves at a configurable velocity (-Dgesture.velocity, px/s,
+ *   default 3000) instead of a fixed one second, clamped to
+ *   -Dgesture.min.duration.ms (default 100) so slow devices still register
+ *   a swipe rather than a fling.
+ * - perform(driver, swipes...) sends several gestures as one pointer
+ *   sequence in a single actions request, separated by
+ *   -Dgesture.pause.ms (default 50).
+ *
+ * Latency of each actions request is recorded per gesture kind.
+ */
+public class GestureEngine {
+
+    public static final double VELOCITY = FrameworkConfig.get().getDouble("gesture.velocity", 3000);
+    public static final long MIN_DURATION_MS = FrameworkConfig.get().getLong("gesture.min.duration.ms", 100);
+    public static final long PAUSE_MS = FrameworkConfig.get().getLong("gesture.pause.ms", 50);
+
+    // Fraction of the area covered by a scroll, measured from its centre
+    private static final double SCROLL_SPAN = 0.6;
+
+    /**
+     * Direction to scroll in, as in scrollDown(): DOWN reveals the content
+     * further down, so the finger moves up
+     */
+    public enum Direction {
+        UP, DOWN, LEFT, RIGHT
+    }
+
+    /**
+     * One straight finger movement in viewport coordinates
+     */
+    public static class Swipe {
+        private final int startX;
+        private final int startY;
+        private final int endX;
+        private final int endY;
+        private final double velocity;
+
+        public Swipe(int startX, int startY, int endX, int endY) {
+            this(startX, startY, endX, endY, VELOCITY);
+        }
+
+        public Swipe(int startX, int startY, int endX, int endY, double velocity) {
+            this.startX = startX;
+            this.startY = startY;
+            this.endX = endX;
+            this.endY = endY;
+            this.velocity = velocity > 0 ? velocity : VELOCITY;
+        }
+
+        /**
+         * Same movement at another velocity in px/s
+         */
+        public Swipe withVelocity(double pixelsPerSecond) {
+            return new Swipe(startX, startY, endX, endY, pixelsPerSecond);
+        }
+
+        public Duration getDuration() {
+            double distance = Math.hypot(endX - startX, endY - startY);
+            long millis = Math.round(distance / velocity * 1000);
+            return Duration.ofMillis(Math.max(MIN_DURATION_MS, millis));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + startX + "," + startY + ")->(" + endX + "," + endY + ") in " + getDuration().toMillis() + "ms";
+        }
+    }
+
+    private static final Map<String, Dimension> viewports = new ConcurrentHashMap<>();
+    private static final Map<String, TimingStats> gestureStats = new ConcurrentHashMap<>();
+    private static final AtomicLong viewportHits = new AtomicLong();
+    private static final AtomicLong viewportMisses = new AtomicLong();
+    private static final AtomicLong gestures = new AtomicLong();
+
+    private GestureEngine() {
+    }
+
+    /**
+     * Viewport size of the session, fetched on first use
+     */
+    public static Dimension viewport(AndroidDriver driver) {
+        String key = keyOf(driver);
+        Dimension cached = key == null ? null : viewports.get(key);
+        if (cached != null) {
+            viewportHits.incrementAndGet();
+            return cached;
+        }
+        viewportMisses.incrementAndGet();
+        Dimension size = driver.manage().window().getSize();
+        if (key != null) {
+            viewports.put(key, size);
+        }
+        return size;
+    }
+
+    /**
+     * Drop the cached viewport of a session that is being quit
+     */
+    public static void forget(AndroidDriver driver) {
+        String key = keyOf(driver);
+        if (key != null) {
+            viewports.remove(key);
+        }
+    }
+
+    /**
+     * Swipe that scrolls the whole screen in the given direction
+     */
+    public static Swipe scroll(AndroidDriver driver, Direction direction) {
+        Dimension size = viewport(driver);
+        return scroll(new Rectangle(new Point(0, 0), size), direction);
+    }
+
+    /**
+     * Swipe that scrolls the given area in the given direction
+     */
+    public static Swipe scroll(Rectangle area, Direction direction) {
+        int centerX = area.getX() + area.getWidth() / 2;
+        int centerY = area.getY() + area.getHeight() / 2;
+        int halfX = (int) (area.getWidth() * SCROLL_SPAN / 2);
+        int halfY = (int) (area.getHeight() * SCROLL_SPAN / 2);
+        switch (direction) {
+            case DOWN:
+                return new Swipe(centerX, centerY + halfY, centerX, centerY - halfY);
+            case UP:
+                return new Swipe(centerX, centerY - halfY, centerX, centerY + halfY);
+            case RIGHT:
+                return new Swipe(centerX + halfX, centerY, centerX - halfX, centerY);
+            default:
+                return new Swipe(centerX - halfX, centerY, centerX + halfX, centerY);
+        }
+    }
+
+    /**
+     * Swipe that scrolls inside an element; its rect is read in a single request
+     */
+    public static Swipe scroll(WebElement element, Direction direction) {
+        return scroll(element.getRect(), direction);
+    }
+
+    /**
+     * Perform the swipes one after another in a single actions request
+     */
+    public static void perform(AndroidDriver driver, Swipe... swipes) {
+        perform(driver, swipes.length == 1 ? "gesture.swipe" : "gesture.batch", List.of(swipes));
+    }
+
+    /**
+     * Perform the swipes in a single actions request, recording its latency
+     * under the given name
+     */
+    public static void perform(AndroidDriver driver, String name, List<Swipe> swipes) {
+        if (swipes.isEmpty()) {
+            return;
+        }
+        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+        Sequence sequence = new Sequence(finger, 0);
+        for (int i = 0; i < swipes.size(); i++) {
+            Swipe swipe = swipes.get(i);
+            if (i > 0 && PAUSE_MS > 0) {
+                sequence.addAction(new Pause(finger, Duration.ofMillis(PAUSE_MS)));
+            }
+            sequence.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(),
+                    swipe.startX, swipe.startY));
+            sequence.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+            sequence.addAction(finger.createPointerMove(swipe.getDuration(), PointerInput.Origin.viewport(),
+                    swipe.endX, swipe.endY));
+            sequence.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            driver.perform(Collections.singletonList(sequence));
+            gestures.addAndGet(swipes.size());
+        } finally {
+            getStats(name).recordSince(start);
+        }
+    }
+
+    /**
+     * The same swipe repeated, e.g. to scroll several pages at once
+     */
+    public static List<Swipe> repeat(Swipe swipe, int times) {
+        List<Swipe> swipes = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            swipes.add(swipe);
+        }
+        return swipes;
+    }
+
+    /**
+     * Latency statistics for a gesture kind
+     */
+    public static TimingStats getStats(String name) {
+        return gestureStats.computeIfAbsent(name, TimingStats::new);
+    }
+
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "Gestures: %d performed at %.0fpx/s, viewport cache hits=%d misses=%d", gestures.get(), VELOCITY,
+                viewportHits.get(), viewportMisses.get()));
+        for (TimingStats stats : gestureStats.values()) {
+            summary.append("\n  ").append(stats);
+        }
+        return summary.toString();
+    }
+
+    private static String keyOf(AndroidDriver driver) {
+        SessionId sessionId = driver == null ? null : driver.getSessionId();
+        return sessionId == null ? null : sessionId.toString();
+    }
+}
@@ -0,0 +1,229 @@
+package com.elektronicare.utils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+
+/**
+ * Hashes of a UI hierarchy computed in one StAX pass over the page source,
+ * without building a DOM or lowercased copies of the XML.
+ *
+ * The structure hash covers element classes, resource-ids and depth, so it
+ * only changes when the screen changes. The state hash also covers text,
+ * content-desc, bounds and the checked/selected/focused flags, so two equal
+ * state hashes in a row mean the screen has settled.
+ *
+ * Needles passed to of() are matched case-insensitively against element
+ * names and attribute values; up to 64 are supported.
+ */
+public final class HierarchyFingerprint {
+
+    private static final XMLInputFactory XML_INPUT = createInputFactory();
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long structureHash;
+    private final long stateHash;
+    private final int nodeCount;
+    private final String[] needles;
+    private final long matchedNeedles;
+
+    private HierarchyFingerprint(long structureHash, long stateHash, int nodeCount, String[] needles,
+            long matchedNeedles) {
+        this.structureHash = structureHash;
+        this.stateHash = stateHash;
+        this.nodeCount = nodeCount;
+        this.needles = needles;
+        this.matchedNeedles = matchedNeedles;
+    }
+
+    /**
+     * Fingerprint a page source, noting which needles occur in it
+     */
+    public static HierarchyFingerprint of(String pageSource, String... needles) {
+        if (needles.length > 64) {
+            throw new IllegalArgumentException("At most 64 needles are supported");
+        }
+
+        long structure = FNV_OFFSET;
+        long state = FNV_OFFSET;
+        int nodes = 0;
+        int depth = 0;
+        long matched = 0;
+
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT.createXMLStreamReader(new StringReader(pageSource));
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                nodes++;
+                depth++;
+                String name = reader.getLocalName();
+                structure = mix(mix(structure, depth), name);
+                matched |= match(name, needles);
+
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    String attribute = reader.getAttributeLocalName(i);
+                    String value = reader.getAttributeValue(i);
+                    matched |= match(value, needles);
+
+                    switch (attribute) {
+                        case "class":
+                        case "resource-id":
+                            structure = mix(structure, value);
+                            break;
+                        case "text":
+                        case "content-desc":
+                        case "bounds":
+                        case "checked":
+                        case "selected":
+                        case "focused":
+                            state = mix(mix(state, attribute), value);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Page source is not well-formed XML: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Nothing to release for a string source
+                }
+            }
+        }
+
+        return new HierarchyFingerprint(structure, (state ^ structure) * FNV_PRIME, nodes, needles, matched);
+    }
+
+    public long getStructureHash() {
+        return structureHash;
+    }
+
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Whether the needle occurred in an element name or attribute value
+     */
+    public boolean contains(String needle) {
+        for (int i = 0; i < needles.length; i++) {
+            if (needles[i].equals(needle)) {
+                return (matchedNeedles & (1L << i)) != 0;
+            }
+        }
+        throw new IllegalArgumentException("Needle was not searched for: " + needle);
+    }
+
+    public boolean containsAny(String... candidates) {
+        for (String candidate : candidates) {
+            if (contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the screen differs structurally from the other fingerprint
+     */
+    public boolean isStructurallyDifferent(HierarchyFingerprint other) {
+        return other == null || structureHash != other.structureHash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HierarchyFingerprint[structure=%016x state=%016x nodes=%d]", structureHash, stateHash,
+                nodeCount);
+    }
+
+    /**
+     * Tracks consecutive fingerprints and reports when the screen has settled
+     */
+    public static class SettleTracker {
+        private final int stablePolls;
+        private HierarchyFingerprint last;
+        private int stableCount;
+
+        public SettleTracker(int stablePolls) {
+            this.stablePolls = stablePolls;
+        }
+
+        /**
+         * Record a fingerprint; true once the state hash has repeated stablePolls times
+         */
+        public boolean observe(HierarchyFingerprint fingerprint) {
+            if (last != null && last.stateHash == fingerprint.stateHash) {
+                stableCount++;
+            } else {
+                stableCount = 0;
+            }
+            last = fingerprint;
+            return stableCount >= stablePolls;
+        }
+
+        public HierarchyFingerprint getLast() {
+            return last;
+        }
+    }
+
+    private static long match(String value, String[] needles) {
+        long matched = 0;
+        for (int i = 0; i < needles.length; i++) {
+            if (containsIgnoreCase(value, needles[i])) {
+                matched |= 1L << i;
+            }
+        }
+        return matched;
+    }
+
+    private static boolean containsIgnoreCase(String value, String needle) {
+        int last = value.length() - needle.length();
+        for (int start = 0; start <= last; start++) {
+            if (value.regionMatches(true, start, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Separator so that "ab"+"c" and "a"+"bc" hash differently
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
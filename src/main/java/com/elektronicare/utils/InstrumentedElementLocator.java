@@ -0,0 +1,55 @@
+package com.elektronicare.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * ElementLocator for a single-strategy @AndroidFindBy field that records
+ * every lookup on the field's LocatorMetric
+ */
+public class InstrumentedElementLocator implements ElementLocator {
+
+    private final SearchContext context;
+    private final By by;
+    private final LocatorMetric metric;
+
+    public InstrumentedElementLocator(SearchContext context, By by, LocatorMetric metric) {
+        this.context = context;
+        this.by = by;
+        this.metric = metric;
+    }
+
+    @Override
+    public WebElement findElement() {
+        List<WebElement> elements = findElements();
+        if (elements.isEmpty()) {
+            metric.recordFailure();
+            throw new NoSuchElementException("Cannot locate " + metric.getPage() + "." + metric.getField()
+                    + " using " + by);
+        }
+        return elements.get(0);
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        long start = System.nanoTime();
+        try {
+            return context.findElements(by);
+        } catch (RuntimeException e) {
+            metric.recordFailure();
+            throw e;
+        } finally {
+            metric.recordLookup(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return by.toString();
+    }
+}
@@ -0,0 +1,256 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles @AndroidFindBy XPath locators into resource-id or UiSelector
+ * lookups, which UiAutomator2 resolves without dumping and querying the
+ * whole hierarchy. Supported XPath subset:
+ *
+ * //class or //* with predicates on resource-id, text, content-desc and class
+ * using = or contains(), joined by "and" or by "or"; (expr)[1]; nested paths
+ * whose last step has an exact resource-id. Anything else keeps its XPath
+ * and is listed as not optimized in the report.
+ *
+ * Disable with -Dlocator.optimize=false.
+ */
+public class LocatorCompiler {
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("locator.optimize", true);
+
+    private static final Pattern FIRST_MATCH = Pattern.compile("^\\((//.*)\\)\\[1\\]$");
+    private static final Pattern STEP = Pattern.compile("^([\\w.$]+|\\*)(?:\\[(.*)\\])?$");
+    private static final Pattern EQUALS = Pattern.compile("^@([\\w-]+)\\s*=\\s*(['\"])(.*)\\2$");
+    private static final Pattern CONTAINS = Pattern.compile("^contains\\(\\s*@([\\w-]+)\\s*,\\s*(['\"])(.*)\\2\\s*\\)$");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    private static final Pattern REGEX_SAFE = Pattern.compile("^[\\w :/]+$");
+
+    private static final String TOAST_CLASS = "android.widget.Toast";
+
+    private static final Map<Field, CompiledLocator> compiled = new ConcurrentHashMap<>();
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Compiled locator for a page object field, or null if the field has no
+     * single @AndroidFindBy XPath on a WebElement or List&lt;WebElement&gt;
+     */
+    public static CompiledLocator compile(Field field) {
+        AndroidFindBy findBy = field.getAnnotation(AndroidFindBy.class);
+        if (findBy == null || findBy.xpath().isEmpty() || !isElementField(field)) {
+            return null;
+        }
+        return compiled.computeIfAbsent(field, f -> compile(
+                f.getDeclaringClass().getSimpleName(), f.getName(), findBy.xpath()));
+    }
+
+    /**
+     * Compile every annotated field of the given page classes and return the report
+     */
+    public static String compileAll(Class<?>... pageClasses) {
+        for (Class<?> pageClass : pageClasses) {
+            for (Field field : pageClass.getDeclaredFields()) {
+                compile(field);
+            }
+        }
+        return getReport();
+    }
+
+    /**
+     * Translate one XPath. Never fails: untranslatable XPaths are returned
+     * with strategy "xpath" and the reason in the note.
+     */
+    public static CompiledLocator compile(String page, String field, String xpath) {
+        try {
+            return translate(page, field, xpath);
+        } catch (IllegalArgumentException e) {
+            return new CompiledLocator(page, field, xpath, null, "xpath", e.getMessage());
+        }
+    }
+
+    private static CompiledLocator translate(String page, String field, String xpath) {
+        String expression = xpath.trim();
+        boolean firstOnly = false;
+        Matcher first = FIRST_MATCH.matcher(expression);
+        if (first.matches()) {
+            expression = first.group(1);
+            firstOnly = true;
+        }
+        if (!expression.startsWith("//")) {
+            throw new IllegalArgumentException("only descendant (//) paths are supported");
+        }
+
+        String[] steps = expression.substring(2).split("//");
+        for (String step : steps) {
+            if (QUOTED.matcher(step).replaceAll("").contains("/")) {
+                throw new IllegalArgumentException("child (/) steps are not supported");
+            }
+        }
+
+        String note = null;
+        Matcher step = STEP.matcher(steps[steps.length - 1]);
+        if (!step.matches()) {
+            throw new IllegalArgumentException("unsupported step '" + steps[steps.length - 1] + "'");
+        }
+        String className = step.group(1);
+        String predicate = step.group(2);
+        if (TOAST_CLASS.equals(className)) {
+            throw new IllegalArgumentException("toasts are only exposed to XPath");
+        }
+
+        List<String> terms = new ArrayList<>();
+        boolean anyOf = false;
+        if (predicate != null) {
+            boolean hasAnd = predicate.contains(" and ");
+            anyOf = predicate.contains(" or ");
+            if (hasAnd && anyOf) {
+                throw new IllegalArgumentException("mixed and/or predicates");
+            }
+            for (String term : predicate.split(anyOf ? " or " : " and ")) {
+                terms.add(toSelectorCall(term.trim()));
+            }
+        }
+
+        if (steps.length > 1) {
+            // UiSelector cannot express the ancestor steps; an exact resource-id is specific enough to drop them
+            if (anyOf || terms.stream().noneMatch(term -> term.startsWith(".resourceId("))) {
+                throw new IllegalArgumentException("nested path without an exact resource-id");
+            }
+            note = "ancestor steps dropped";
+        }
+
+        String classCall = "*".equals(className) ? "" : ".className(" + quote(className) + ")";
+        String instanceCall = firstOnly ? ".instance(0)" : "";
+
+        if (anyOf) {
+            if (firstOnly) {
+                throw new IllegalArgumentException("(a or b)[1] has no UiSelector equivalent");
+            }
+            // UiAutomator2 returns the union of ';'-separated selectors
+            StringBuilder selectors = new StringBuilder();
+            for (String term : terms) {
+                if (selectors.length() > 0) {
+                    selectors.append(";");
+                }
+                selectors.append("new UiSelector()").append(classCall).append(term);
+            }
+            return new CompiledLocator(page, field, xpath, AppiumBy.androidUIAutomator(selectors.toString()),
+                    "uiautomator", note);
+        }
+
+        if (classCall.isEmpty() && !firstOnly && terms.size() == 1 && terms.get(0).startsWith(".resourceId(")) {
+            String id = unquote(terms.get(0).substring(".resourceId(".length(), terms.get(0).length() - 1));
+            return new CompiledLocator(page, field, xpath, By.id(id), "id", note);
+        }
+
+        if (classCall.isEmpty() && terms.isEmpty()) {
+            throw new IllegalArgumentException("matches every element");
+        }
+        String selector = "new UiSelector()" + classCall + String.join("", terms) + instanceCall;
+        return new CompiledLocator(page, field, xpath, AppiumBy.androidUIAutomator(selector), "uiautomator", note);
+    }
+
+    private static String toSelectorCall(String term) {
+        boolean contains;
+        Matcher matcher = EQUALS.matcher(term);
+        if (matcher.matches()) {
+            contains = false;
+        } else {
+            matcher = CONTAINS.matcher(term);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("unsupported predicate '" + term + "'");
+            }
+            contains = true;
+        }
+
+        String attribute = matcher.group(1);
+        String value = matcher.group(3);
+        if (value.contains("\"") || value.contains("\\")) {
+            throw new IllegalArgumentException("value needs escaping: " + value);
+        }
+
+        switch (attribute) {
+            case "resource-id":
+                if (!contains) {
+                    return ".resourceId(" + quote(value) + ")";
+                }
+                if (!REGEX_SAFE.matcher(value).matches()) {
+                    throw new IllegalArgumentException("resource-id fragment is not regex safe: " + value);
+                }
+                return ".resourceIdMatches(" + quote(".*" + value + ".*") + ")";
+            case "text":
+                return (contains ? ".textContains(" : ".text(") + quote(value) + ")";
+            case "content-desc":
+                return (contains ? ".descriptionContains(" : ".description(") + quote(value) + ")";
+            case "class":
+                if (contains) {
+                    throw new IllegalArgumentException("contains(@class) is not supported");
+                }
+                return ".className(" + quote(value) + ")";
+            default:
+                throw new IllegalArgumentException("@" + attribute + " has no UiSelector equivalent");
+        }
+    }
+
+    /**
+     * Whether the field is a WebElement or List&lt;WebElement&gt;
+     */
+    static boolean isElementField(Field field) {
+        if (WebElement.class.equals(field.getType())) {
+            return true;
+        }
+        if (!List.class.equals(field.getType())) {
+            return false;
+        }
+        Type type = field.getGenericType();
+        return type instanceof ParameterizedType
+                && WebElement.class.equals(((ParameterizedType) type).getActualTypeArguments()[0]);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String unquote(String value) {
+        return value.substring(1, value.length() - 1);
+    }
+
+    /**
+     * Every compiled locator, not optimized ones first
+     */
+    public static List<CompiledLocator> getCompiledLocators() {
+        List<CompiledLocator> locators = new ArrayList<>(compiled.values());
+        locators.sort(Comparator.comparing(CompiledLocator::isOptimized).thenComparing(CompiledLocator::getName));
+        return locators;
+    }
+
+    /**
+     * Which locators were optimized, to what, and which kept their XPath
+     */
+    public static String getReport() {
+        List<CompiledLocator> locators = getCompiledLocators();
+        long optimized = locators.stream().filter(CompiledLocator::isOptimized).count();
+        StringBuilder report = new StringBuilder("Locator compiler: " + optimized + "/" + locators.size()
+                + " XPath locators optimized");
+        for (CompiledLocator locator : locators) {
+            report.append("\n  ").append(locator.isOptimized() ? "" : "NOT OPTIMIZED ").append(locator);
+        }
+        return report.toString();
+    }
+}
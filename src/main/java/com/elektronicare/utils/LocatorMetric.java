@@ -0,0 +1,68 @@
+package com.elektronicare.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lookup latency, retries and failures of one page object field
+ */
+public class LocatorMetric {
+
+    private final String page;
+    private final String field;
+    private final String strategy;
+    private final TimingStats lookups;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    LocatorMetric(String page, String field, String strategy) {
+        this.page = page;
+        this.field = field;
+        this.strategy = strategy;
+        this.lookups = new TimingStats(page + "." + field + " [" + strategy + "]");
+    }
+
+    public void recordLookup(long nanos) {
+        lookups.record(nanos);
+    }
+
+    /**
+     * An extra server lookup within the same locate call, e.g. XPath fallback
+     */
+    public void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public TimingStats getLookups() {
+        return lookups;
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public String toString() {
+        return lookups + String.format(" p99=%.1fms retries=%d failures=%d",
+                lookups.getPercentileMillis(99), getRetries(), getFailures());
+    }
+}
@@ -0,0 +1,146 @@
+package com.elektronicare.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of per-field locator metrics, keyed by page class, field and
+ * strategy, with JSON, CSV and Prometheus text exports
+ */
+public class LocatorMetrics {
+
+    private static final String METRICS_DIR = System.getProperty("user.dir") + "/test-reports/metrics";
+
+    private static final Map<String, LocatorMetric> metrics = new ConcurrentHashMap<>();
+
+    private LocatorMetrics() {
+    }
+
+    /**
+     * Metric for a page object field, created on first use
+     */
+    public static LocatorMetric get(String page, String field, String strategy) {
+        return metrics.computeIfAbsent(page + "." + field + "|" + strategy,
+                key -> new LocatorMetric(page, field, strategy));
+    }
+
+    /**
+     * Metrics with at least one lookup, slowest total first
+     */
+    public static List<LocatorMetric> getMetrics() {
+        return metrics.values().stream()
+                .filter(metric -> metric.getLookups().getCount() > 0)
+                .sorted((a, b) -> Long.compare(b.getLookups().getTotalNanos(), a.getLookups().getTotalNanos()))
+                .collect(Collectors.toList());
+    }
+
+    public static String getSummary() {
+        StringBuilder summary = new StringBuilder("Locator lookups:");
+        for (LocatorMetric metric : getMetrics()) {
+            summary.append("\n  ").append(metric);
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Write locator-metrics_<timestamp>.json, .csv and .prom under test-reports/metrics
+     */
+    public static void exportAll() {
+        try {
+            Path dir = Paths.get(METRICS_DIR);
+            Files.createDirectories(dir);
+            String base = "locator-metrics_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+
+            Files.write(dir.resolve(base + ".json"), toJson().getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve(base + ".csv"), toCsv().getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve(base + ".prom"), toPrometheus().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Locator metrics exported: " + dir.resolve(base) + ".{json,csv,prom}");
+        } catch (IOException e) {
+            System.err.println("Failed to export locator metrics: " + e.getMessage());
+        }
+    }
+
+    public static String toJson() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (LocatorMetric metric : getMetrics()) {
+            TimingStats lookups = metric.getLookups();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", metric.getPage());
+            row.put("field", metric.getField());
+            row.put("strategy", metric.getStrategy());
+            row.put("count", lookups.getCount());
+            row.put("totalMs", lookups.getTotalNanos() / 1_000_000.0);
+            row.put("p50Ms", lookups.getPercentileMillis(50));
+            row.put("p95Ms", lookups.getPercentileMillis(95));
+            row.put("p99Ms", lookups.getPercentileMillis(99));
+            row.put("maxMs", lookups.getMaxMillis());
+            row.put("retries", metric.getRetries());
+            row.put("failures", metric.getFailures());
+            rows.add(row);
+        }
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(rows);
+    }
+
+    public static String toCsv() {
+        StringBuilder csv = new StringBuilder("page,field,strategy,count,total_ms,p50_ms,p95_ms,p99_ms,max_ms,retries,failures\n");
+        for (LocatorMetric metric : getMetrics()) {
+            TimingStats lookups = metric.getLookups();
+            csv.append(String.format(Locale.ROOT, "%s,%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d%n",
+                    metric.getPage(), metric.getField(), metric.getStrategy(), lookups.getCount(),
+                    lookups.getTotalNanos() / 1_000_000.0, lookups.getPercentileMillis(50),
+                    lookups.getPercentileMillis(95), lookups.getPercentileMillis(99), lookups.getMaxMillis(),
+                    metric.getRetries(), metric.getFailures()));
+        }
+        return csv.toString();
+    }
+
+    public static String toPrometheus() {
+        StringBuilder prom = new StringBuilder();
+        prom.append("# HELP locator_lookup_seconds Page object element lookup latency\n");
+        prom.append("# TYPE locator_lookup_seconds summary\n");
+        for (LocatorMetric metric : getMetrics()) {
+            TimingStats lookups = metric.getLookups();
+            String labels = labels(metric);
+            for (double quantile : new double[] { 0.5, 0.95, 0.99 }) {
+                prom.append(String.format(Locale.ROOT, "locator_lookup_seconds{%s,quantile=\"%s\"} %.6f%n",
+                        labels, quantile, lookups.getPercentileMillis(quantile * 100) / 1000));
+            }
+            prom.append(String.format(Locale.ROOT, "locator_lookup_seconds_sum{%s} %.6f%n",
+                    labels, lookups.getTotalNanos() / 1e9));
+            prom.append("locator_lookup_seconds_count{").append(labels).append("} ").append(lookups.getCount()).append('\n');
+        }
+        prom.append("# HELP locator_lookup_retries_total Extra lookups within one locate call\n");
+        prom.append("# TYPE locator_lookup_retries_total counter\n");
+        for (LocatorMetric metric : getMetrics()) {
+            prom.append("locator_lookup_retries_total{").append(labels(metric)).append("} ")
+                    .append(metric.getRetries()).append('\n');
+        }
+        prom.append("# HELP locator_lookup_failures_total Lookups that found no element or failed\n");
+        prom.append("# TYPE locator_lookup_failures_total counter\n");
+        for (LocatorMetric metric : getMetrics()) {
+            prom.append("locator_lookup_failures_total{").append(labels(metric)).append("} ")
+                    .append(metric.getFailures()).append('\n');
+        }
+        return prom.toString();
+    }
+
+    private static String labels(LocatorMetric metric) {
+        return "page=\"" + metric.getPage() + "\",field=\"" + metric.getField() + "\",strategy=\""
+                + metric.getStrategy() + "\"";
+    }
+}
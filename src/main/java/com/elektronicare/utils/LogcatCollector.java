@@ -0,0 +1,522 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.DeviceConfig;
+import com.elektronicare.config.DriverMode;
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.remote.SessionId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Device log capture for each driver session.
+ *
+ * A background task streams the session's logcat, either from Appium's
+ * "logcat" log type or from "adb -s &lt;udid&gt; logcat", into a memory-mapped
+ * ring-buffer file under test-reports/logcat/, deleted when the session
+ * stops. Only the most recent -Dlogcat.buffer.mb (default 16) are kept.
+ * Every line gets a logical offset, so a test only records where its log
+ * starts and ends (markTestStart/markTestEnd) and reads its own slice back
+ * on demand.
+ *
+ * A small inverted index maps a few terms to the offsets of the lines that
+ * contain them, so checks such as "no FATAL EXCEPTION during this test" are
+ * a binary search instead of a rescan of the log. The indexed terms are
+ * the -Dlogcat.index.terms phrases, plus "level:&lt;L&gt;" and "tag:&lt;TAG&gt;" for
+ * every threadtime-formatted line.
+ *
+ * Options: -Dlogcat=false, -Dlogcat.source=appium|adb,
+ * -Dlogcat.poll.ms=1000, -Dlogcat.attach.lines=200. Only live sessions are
+ * captured, so recordings do not contain the polling traffic.
+ */
+public class LogcatCollector {
+
+    public static final String FATAL_EXCEPTION = "FATAL EXCEPTION";
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("logcat", true)
+            && DriverMode.current() == DriverMode.LIVE;
+    public static final String SOURCE = FrameworkConfig.get().getString("logcat.source", "appium").trim();
+    public static final int BUFFER_BYTES = (int) Math.min(Integer.MAX_VALUE,
+            FrameworkConfig.get().getLong("logcat.buffer.mb", 16) * 1024 * 1024);
+    public static final long POLL_MS = FrameworkConfig.get().getLong("logcat.poll.ms", 1000);
+    public static final int ATTACH_LINES = FrameworkConfig.get().getInt("logcat.attach.lines", 200);
+    private static final List<String> INDEX_TERMS = Arrays.asList(FrameworkConfig.get().getString(
+            "logcat.index.terms", FATAL_EXCEPTION + ",ANR in,OutOfMemoryError,has died").split(","));
+
+    private static final String LOG_DIR = System.getProperty("user.dir") + "/test-reports/logcat/";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    // "06-01 12:00:00.000  1234  1250 E AndroidRuntime: FATAL EXCEPTION: main"
+    private static final Pattern THREADTIME = Pattern.compile(
+            "^\\S+\\s+\\S+\\s+\\d+\\s+\\d+\\s+([VDIWEFA])\\s+([^:]*?)\\s*:.*");
+
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "logcat-collector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ThreadLocal<Session> testSession = new ThreadLocal<>();
+    private static final ThreadLocal<Long> testStart = new ThreadLocal<>();
+
+    private static final TimingStats pollStats = new TimingStats("logcat.poll");
+    private static final TimingStats queryStats = new TimingStats("logcat.query");
+    private static final AtomicLong linesCaptured = new AtomicLong();
+    private static final AtomicLong bytesCaptured = new AtomicLong();
+    private static final AtomicLong pollErrors = new AtomicLong();
+    private static final AtomicLong slicesAttached = new AtomicLong();
+
+    /**
+     * One test's part of a session log
+     */
+    public static class Slice {
+        private final Session session;
+        private final long start;
+        private final long end;
+
+        Slice(Session session, long start, long end) {
+            this.session = session;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Whether an indexed term occurs in the slice
+         */
+        public boolean contains(String term) {
+            return count(term) > 0;
+        }
+
+        /**
+         * Number of lines in the slice containing an indexed term
+         */
+        public int count(String term) {
+            long queryStart = System.nanoTime();
+            try {
+                return session.count(term, start, end);
+            } finally {
+                queryStats.recordSince(queryStart);
+            }
+        }
+
+        /**
+         * Lines in the slice containing an indexed term
+         */
+        public List<String> lines(String term) {
+            return session.lines(term, start, end);
+        }
+
+        /**
+         * Text of the slice; the part already overwritten in the ring is missing
+         */
+        public String text() {
+            return session.read(start, end);
+        }
+
+        /**
+         * Whether the start of the slice has been overwritten in the ring
+         */
+        public boolean isTruncated() {
+            return start < session.floor();
+        }
+
+        public long getBytes() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Growable sorted list of line offsets for one term
+     */
+    private static class OffsetList {
+        private long[] offsets = new long[16];
+        private int size;
+
+        void add(long offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+
+        /**
+         * Index of the first offset &gt;= value
+         */
+        int lowerBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (offsets[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Drop the offsets below the floor once they are half the list
+         */
+        void prune(long floor) {
+            int dropped = lowerBound(floor);
+            if (dropped > size / 2) {
+                offsets = Arrays.copyOfRange(offsets, dropped, Math.max(dropped + 16, size));
+                size -= dropped;
+            }
+        }
+    }
+
+    /**
+     * Ring buffer, index and capture task of one driver session
+     */
+    private static class Session {
+        private final String id;
+        private final AndroidDriver driver;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final Map<String, OffsetList> index = new HashMap<>();
+        // Serializes polls without blocking queries on the buffer
+        private final Object pollLock = new Object();
+        private long written;
+        private volatile ScheduledFuture<?> poll;
+        private volatile Process adb;
+        private boolean errorReported;
+
+        Session(String id, AndroidDriver driver, Path file) throws IOException {
+            this.id = id;
+            this.driver = driver;
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BUFFER_BYTES);
+        }
+
+        synchronized long position() {
+            return written;
+        }
+
+        synchronized long floor() {
+            return Math.max(0, written - BUFFER_BYTES);
+        }
+
+        synchronized void append(String line) {
+            byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > BUFFER_BYTES) {
+                bytes = Arrays.copyOfRange(bytes, bytes.length - BUFFER_BYTES, bytes.length);
+            }
+            long offset = written;
+            int physical = (int) (offset % BUFFER_BYTES);
+            int first = Math.min(bytes.length, BUFFER_BYTES - physical);
+            buffer.put(physical, bytes, 0, first);
+            if (first < bytes.length) {
+                buffer.put(0, bytes, first, bytes.length - first);
+            }
+            written += bytes.length;
+            indexLine(line, offset);
+            linesCaptured.incrementAndGet();
+            bytesCaptured.addAndGet(bytes.length);
+        }
+
+        private void indexLine(String line, long offset) {
+            for (String term : INDEX_TERMS) {
+                if (!term.isEmpty() && line.contains(term)) {
+                    addToIndex(term, offset);
+                }
+            }
+            Matcher matcher = THREADTIME.matcher(line);
+            if (matcher.matches()) {
+                addToIndex("level:" + matcher.group(1), offset);
+                addToIndex("tag:" + matcher.group(2), offset);
+            }
+        }
+
+        private void addToIndex(String term, long offset) {
+            OffsetList offsets = index.computeIfAbsent(term, key -> new OffsetList());
+            offsets.add(offset);
+            if (offsets.size % 1024 == 0) {
+                offsets.prune(floor());
+            }
+        }
+
+        synchronized int count(String term, long from, long to) {
+            OffsetList offsets = index.get(term);
+            if (offsets == null) {
+                return 0;
+            }
+            return offsets.lowerBound(to) - offsets.lowerBound(Math.max(from, floor()));
+        }
+
+        synchronized List<String> lines(String term, long from, long to) {
+            List<String> lines = new ArrayList<>();
+            OffsetList offsets = index.get(term);
+            if (offsets == null) {
+                return lines;
+            }
+            for (int i = offsets.lowerBound(Math.max(from, floor())); i < offsets.size && offsets.offsets[i] < to;
+                    i++) {
+                lines.add(readLine(offsets.offsets[i]));
+            }
+            return lines;
+        }
+
+        synchronized String read(long from, long to) {
+            long start = Math.max(from, floor());
+            long end = Math.min(to, written);
+            if (end <= start) {
+                return "";
+            }
+            byte[] bytes = new byte[(int) (end - start)];
+            int physical = (int) (start % BUFFER_BYTES);
+            int first = Math.min(bytes.length, BUFFER_BYTES - physical);
+            buffer.get(physical, bytes, 0, first);
+            if (first < bytes.length) {
+                buffer.get(0, bytes, first, bytes.length - first);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private String readLine(long offset) {
+            long end = offset;
+            while (end < written && buffer.get((int) (end % BUFFER_BYTES)) != '\n') {
+                end++;
+            }
+            return read(offset, end);
+        }
+
+        /**
+         * Fetch the entries Appium collected since the last call
+         */
+        void pollAppium() {
+            synchronized (pollLock) {
+                long start = System.nanoTime();
+                try {
+                    for (LogEntry entry : driver.manage().logs().get("logcat")) {
+                        append(entry.getMessage());
+                    }
+                } catch (Exception e) {
+                    pollErrors.incrementAndGet();
+                    if (!errorReported) {
+                        errorReported = true;
+                        System.err.println("Logcat capture failed for session " + id + ": " + e.getMessage());
+                    }
+                } finally {
+                    pollStats.recordSince(start);
+                }
+            }
+        }
+
+        void close() {
+            ScheduledFuture<?> task = poll;
+            if (task != null) {
+                task.cancel(false);
+            }
+            Process process = adb;
+            if (process != null) {
+                process.destroy();
+            }
+            synchronized (this) {
+                // Slices already taken keep reading from the mapping; only attached slices are kept on disk
+                try {
+                    channel.close();
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Failed to remove logcat buffer " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private LogcatCollector() {
+    }
+
+    /**
+     * Remember where the current test's log starts, starting capture for the
+     * thread's session if it is not running yet
+     */
+    public static void markTestStart() {
+        Session session = sessionFor(DriverManager.peekDriver());
+        testSession.set(session);
+        if (session == null) {
+            testStart.set(null);
+            return;
+        }
+        // Lines logged before the test but not polled yet belong to the previous test
+        sync(session);
+        testStart.set(session.position());
+    }
+
+    /**
+     * The current test's log so far, or null if nothing is captured
+     */
+    public static Slice currentSlice() {
+        Session session = testSession.get();
+        Long start = testStart.get();
+        if (session == null || start == null) {
+            return null;
+        }
+        sync(session);
+        return new Slice(session, start, session.position());
+    }
+
+    /**
+     * The current test's log, ending the test's capture window
+     */
+    public static Slice markTestEnd() {
+        Slice slice = currentSlice();
+        testSession.remove();
+        testStart.remove();
+        return slice;
+    }
+
+    /**
+     * Fail if the app crashed since the current test started
+     */
+    public static void assertNoFatalException() {
+        Slice slice = currentSlice();
+        if (slice != null && slice.contains(FATAL_EXCEPTION)) {
+            throw new AssertionError("App crashed during the test: " + slice.lines(FATAL_EXCEPTION));
+        }
+    }
+
+    /**
+     * Write the slice next to the report and attach it to the current report test
+     */
+    public static Path attach(Slice slice, String testName) {
+        if (slice == null) {
+            return null;
+        }
+        Path path = Paths.get(LOG_DIR, testName.replaceAll("[^A-Za-z0-9._-]", "_") + "_"
+                + LocalDateTime.now().format(TIMESTAMP_FORMAT) + ".log");
+        try {
+            String text = slice.text();
+            Files.createDirectories(path.getParent());
+            Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+
+            String[] lines = text.split("\n");
+            int from = Math.max(0, lines.length - ATTACH_LINES);
+            ExtentReportManager.logInfo("Logcat: <a href='logcat/" + path.getFileName() + "'>" + path.getFileName()
+                    + "</a> (" + lines.length + " lines" + (slice.isTruncated() ? ", start overwritten" : "") + ")");
+            ExtentReportManager.logCode(String.join("\n", Arrays.copyOfRange(lines, from, lines.length)));
+            slicesAttached.incrementAndGet();
+            return path;
+        } catch (IOException e) {
+            System.err.println("Failed to write logcat slice " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stop capturing a session that is being quit, after a last poll
+     */
+    public static void stop(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        Session session = sessionId == null ? null : sessions.remove(sessionId);
+        if (session != null) {
+            sync(session);
+            session.close();
+        }
+    }
+
+    public static String getStatsSummary() {
+        return String.format("Logcat: %s (%s), sessions=%d, lines=%d, bytes=%d, poll errors=%d, slices attached=%d,"
+                + " query mean=%.1fus%n  %s", ENABLED ? "on" : "off", SOURCE, sessions.size(), linesCaptured.get(),
+                bytesCaptured.get(), pollErrors.get(), slicesAttached.get(), queryStats.getMeanMillis() * 1000,
+                pollStats);
+    }
+
+    private static Session sessionFor(AndroidDriver driver) {
+        String sessionId = idOf(driver);
+        if (!ENABLED || sessionId == null) {
+            return null;
+        }
+        return sessions.computeIfAbsent(sessionId, id -> start(id, driver));
+    }
+
+    private static Session start(String sessionId, AndroidDriver driver) {
+        DeviceConfig device = DriverManager.getDevice();
+        String udid = device != null ? device.getUdid() : "device";
+        Path file = Paths.get(LOG_DIR, udid.replaceAll("[^A-Za-z0-9._-]", "_") + "_"
+                + sessionId.substring(0, Math.min(8, sessionId.length())) + ".ring");
+        try {
+            Files.createDirectories(file.getParent());
+            Session session = new Session(sessionId, driver, file);
+            if ("adb".equalsIgnoreCase(SOURCE)) {
+                startAdb(session, device);
+            } else {
+                session.poll = poller.scheduleWithFixedDelay(session::pollAppium, 0, POLL_MS, TimeUnit.MILLISECONDS);
+            }
+            System.out.println("Capturing logcat of session " + sessionId + " into " + file);
+            return session;
+        } catch (IOException e) {
+            System.err.println("Cannot capture logcat into " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void startAdb(Session session, DeviceConfig device) throws IOException {
+        List<String> command = new ArrayList<>(List.of("adb"));
+        if (device != null && device.getUdid() != null) {
+            command.addAll(Arrays.asList("-s", device.getUdid()));
+        }
+        command.addAll(Arrays.asList("logcat", "-v", "threadtime", "-T", "1"));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        session.adb = process;
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    session.append(line);
+                }
+            } catch (Exception e) {
+                // Stream closed when the session is stopped
+            }
+        }, "logcat-adb-" + session.id.substring(0, Math.min(8, session.id.length())));
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Bring the buffer up to date before a slice is read; adb streams on its own
+     */
+    private static void sync(Session session) {
+        if (session.poll != null) {
+            session.pollAppium();
+        }
+    }
+
+    private static String idOf(AndroidDriver driver) {
+        SessionId sessionId = driver == null ? null : driver.getSessionId();
+        return sessionId == null ? null : sessionId.toString();
+    }
+}
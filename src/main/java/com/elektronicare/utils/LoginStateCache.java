@@ -0,0 +1,228 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.DeviceConfig;
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Cache of the app's authenticated state. After a real login the app data
+ * folders (shared_prefs by default) are pulled once per account and device;
+ * later tests that only need a logged-in dashboard push them back and
+ * relaunch the app instead of going through the login form.
+ *
+ * An entry is dropped when it is older than login.cache.ttl.minutes, when
+ * the APK under test changes, when a restore does not land on the dashboard,
+ * or when a test calls invalidate() (e.g. after logging out or changing the
+ * password). Pulling app data needs a debuggable build; clearing the old
+ * prefs before a restore uses mobile: shell, which needs the adb_shell
+ * server feature.
+ *
+ * Options: -Dlogin.cache=false, -Dlogin.cache.ttl.minutes=30,
+ * -Dlogin.cache.paths=shared_prefs,files
+ */
+public class LoginStateCache {
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("login.cache", true);
+    private static final long TTL_MS = Duration.ofMinutes(FrameworkConfig.get().getLong("login.cache.ttl.minutes", 30))
+            .toMillis();
+    private static final List<String> PATHS = Arrays.asList(FrameworkConfig.get()
+            .getString("login.cache.paths", "shared_prefs").split(","));
+    private static final Duration RESTORE_TIMEOUT = Duration.ofSeconds(10);
+    private static final String[] DASHBOARD_IDS = { "welcome_text", "nav_home" };
+
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong captures = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+    private static final TimingStats restoreStats = new TimingStats("login.cache.restore");
+    private static final TimingStats captureStats = new TimingStats("login.cache.capture");
+
+    private LoginStateCache() {
+    }
+
+    /**
+     * Restore the account's cached state and relaunch the app on the
+     * dashboard. Returns false (a miss) when there is nothing usable cached.
+     */
+    public static boolean restore(String account) {
+        if (!ENABLED) {
+            return false;
+        }
+        String key = key(account);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        if (System.currentTimeMillis() - snapshot.capturedAt > TTL_MS) {
+            invalidate(key, "expired");
+            misses.incrementAndGet();
+            return false;
+        }
+
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            driver.terminateApp(AppiumConfig.APP_PACKAGE);
+            for (String path : PATHS) {
+                clearAppPath(driver, path);
+            }
+            for (Map.Entry<String, byte[]> file : snapshot.files.entrySet()) {
+                driver.pushFile("@" + AppiumConfig.APP_PACKAGE + "/" + file.getKey(), file.getValue());
+            }
+            driver.activateApp(AppiumConfig.APP_PACKAGE);
+
+            if (waitForDashboard(RESTORE_TIMEOUT)) {
+                hits.incrementAndGet();
+                System.out.println("Login state restored for " + account + " (" + snapshot.files.size() + " files)");
+                return true;
+            }
+            invalidate(key, "restore did not reach the dashboard");
+        } catch (Exception e) {
+            invalidate(key, "restore failed: " + e.getMessage());
+        } finally {
+            restoreStats.recordSince(start);
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Wait until the dashboard is shown, which is how a login or restore is
+     * recognised as finished
+     */
+    public static boolean waitForDashboard(Duration timeout) {
+        return ReadinessWaiter.waitForResourceId(timeout, DASHBOARD_IDS);
+    }
+
+    /**
+     * Pull the app's state after a successful login so later tests can restore it
+     */
+    public static void capture(String account) {
+        if (!ENABLED) {
+            return;
+        }
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Map<String, byte[]> files = new LinkedHashMap<>();
+            for (String path : PATHS) {
+                byte[] zip = driver.pullFolder("@" + AppiumConfig.APP_PACKAGE + "/" + path);
+                files.putAll(unzip(path, zip));
+            }
+            if (files.isEmpty()) {
+                System.out.println("No app data to cache for " + account);
+                return;
+            }
+            snapshots.put(key(account), new Snapshot(files, System.currentTimeMillis()));
+            captures.incrementAndGet();
+            System.out.println("Login state cached for " + account + " (" + files.size() + " files)");
+        } catch (Exception e) {
+            System.err.println("Could not capture login state: " + e.getMessage());
+        } finally {
+            captureStats.recordSince(start);
+        }
+    }
+
+    /**
+     * Drop the cached state of an account on the current device
+     */
+    public static void invalidate(String account) {
+        invalidate(key(account), "invalidated by test");
+    }
+
+    public static void invalidateAll() {
+        invalidations.addAndGet(snapshots.size());
+        snapshots.clear();
+    }
+
+    public static String getStatsSummary() {
+        return "Login state cache: " + (ENABLED ? "on" : "off") + " hits=" + hits.get() + " misses=" + misses.get()
+                + " captures=" + captures.get() + " invalidations=" + invalidations.get()
+                + "\n  " + restoreStats + "\n  " + captureStats;
+    }
+
+    private static void invalidate(String key, String reason) {
+        if (snapshots.remove(key) != null) {
+            invalidations.incrementAndGet();
+            System.out.println("Login state cache entry dropped (" + reason + "): " + key);
+        }
+    }
+
+    /**
+     * Remove app data written since the session started so only the cached files remain
+     */
+    private static void clearAppPath(AndroidDriver driver, String path) {
+        try {
+            Map<String, Object> args = new HashMap<>();
+            args.put("command", "run-as");
+            args.put("args", Arrays.asList(AppiumConfig.APP_PACKAGE, "rm", "-rf", path));
+            driver.executeScript("mobile: shell", args);
+        } catch (Exception e) {
+            // adb_shell not allowed on the server; the pushed files still overwrite the old ones
+        }
+    }
+
+    private static Map<String, byte[]> unzip(String path, byte[] zip) throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName();
+                if (name.startsWith(path + "/")) {
+                    name = name.substring(path.length() + 1);
+                }
+                files.put(path + "/" + name, in.readAllBytes());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Account on the current device for the APK build under test
+     */
+    private static String key(String account) {
+        DeviceConfig device = DriverManager.getDevice();
+        File apk = new File(AppiumConfig.APK_PATH);
+        return account + "@" + (device != null ? device : "default") + "#" + (apk.exists() ? apk.lastModified() : 0);
+    }
+
+    private static class Snapshot {
+        final Map<String, byte[]> files;
+        final long capturedAt;
+
+        Snapshot(Map<String, byte[]> files, long capturedAt) {
+            this.files = files;
+            this.capturedAt = capturedAt;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.elektronicare.utils;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HttpClient factory for AndroidDriver that reports every WebDriver command
+ * (method, path, response, latency) to registered listeners. This is the one
+ * place that sees all traffic to the Appium server, whichever page object,
+ * helper or element proxy issued it.
+ */
+public class ObservedHttpClientFactory implements HttpClient.Factory {
+
+    /**
+     * Notified after each WebDriver command completes
+     */
+    @FunctionalInterface
+    public interface CommandListener {
+        void onCommand(HttpRequest request, HttpResponse response, long elapsedNanos);
+    }
+
+    private static final List<CommandListener> listeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong commandCount = new AtomicLong();
+    private static final ThreadLocal<long[]> threadCommandCount = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final HttpClient.Factory delegate;
+
+    public ObservedHttpClientFactory() {
+        this(HttpClient.Factory.createDefault());
+    }
+
+    public ObservedHttpClientFactory(HttpClient.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    public static void addListener(CommandListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(CommandListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Total WebDriver commands sent by all drivers
+     */
+    public static long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * WebDriver commands sent from the current thread, used to count the
+     * round trips of a single operation
+     */
+    public static long getThreadCommandCount() {
+        return threadCommandCount.get()[0];
+    }
+
+    /**
+     * Session id from a WebDriver command path, or null for session-less commands
+     */
+    public static String sessionIdOf(HttpRequest request) {
+        String path = request.getUri();
+        int start = path.indexOf("/session/");
+        if (start < 0) {
+            return null;
+        }
+        start += "/session/".length();
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new ObservedHttpClient(delegate.createClient(config));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate.cleanupIdleClients();
+    }
+
+    private static class ObservedHttpClient implements HttpClient {
+
+        private final HttpClient client;
+
+        ObservedHttpClient(HttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            long start = System.nanoTime();
+            HttpResponse response = client.execute(request);
+            commandCount.incrementAndGet();
+            threadCommandCount.get()[0]++;
+            notifyListeners(request, response, System.nanoTime() - start);
+            return response;
+        }
+
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return CompletableFuture.supplyAsync(() -> execute(request));
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return client.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+
+        private void notifyListeners(HttpRequest request, HttpResponse response, long elapsedNanos) {
+            for (CommandListener listener : listeners) {
+                try {
+                    listener.onCommand(request, response, elapsedNanos);
+                } catch (Exception e) {
+                    System.err.println("Command listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
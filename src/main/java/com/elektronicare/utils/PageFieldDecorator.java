@@ -0,0 +1,159 @@
+package com.elektronicare.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementListHandler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Field decorator for page objects. @AndroidFindBy fields with a single
+ * id, className, accessibility, uiAutomator or xpath strategy get an
+ * instrumented locator (see LocatorMetrics); XPath fields use the faster
+ * locator produced by LocatorCompiler when one exists. Anything else is
+ * decorated by AppiumFieldDecorator as before.
+ *
+ * initElements() resolves the annotations of a page class once and reuses
+ * that metadata for every later instance, so building a page only creates
+ * the element proxies.
+ */
+public class PageFieldDecorator extends AppiumFieldDecorator {
+
+    private static final Map<Class<?>, List<FieldBinding>> bindingsByClass = new ConcurrentHashMap<>();
+
+    private final SearchContext context;
+
+    public PageFieldDecorator(SearchContext context) {
+        super(context);
+        this.context = context;
+    }
+
+    /**
+     * Decorate every element field of the page, like PageFactory.initElements
+     */
+    public static void initElements(SearchContext context, Object page) {
+        PageFieldDecorator fallback = null;
+        for (FieldBinding binding : bindingsFor(page.getClass())) {
+            Object value;
+            if (binding.locatorFactory != null) {
+                value = proxyFor(binding.field, binding.locatorFactory.apply(context));
+            } else {
+                if (fallback == null) {
+                    fallback = new PageFieldDecorator(context);
+                }
+                value = fallback.decorateWithAppium(binding.field);
+            }
+            if (value != null) {
+                try {
+                    binding.field.set(page, value);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException("Cannot set " + binding.field, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Object decorate(ClassLoader ignored, Field field) {
+        Function<SearchContext, ElementLocator> factory = locatorFactory(field);
+        if (factory != null) {
+            return proxyFor(field, factory.apply(context));
+        }
+        return super.decorate(ignored, field);
+    }
+
+    private Object decorateWithAppium(Field field) {
+        return super.decorate(field.getDeclaringClass().getClassLoader(), field);
+    }
+
+    private static List<FieldBinding> bindingsFor(Class<?> pageClass) {
+        return bindingsByClass.computeIfAbsent(pageClass, type -> {
+            List<FieldBinding> bindings = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())
+                            || !LocatorCompiler.isElementField(field)) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    bindings.add(new FieldBinding(field, locatorFactory(field)));
+                }
+            }
+            return bindings;
+        });
+    }
+
+    /**
+     * How to build the locator for a field, or null to leave it to AppiumFieldDecorator
+     */
+    private static Function<SearchContext, ElementLocator> locatorFactory(Field field) {
+        AndroidFindBy findBy = field.getAnnotation(AndroidFindBy.class);
+        if (findBy == null || !LocatorCompiler.isElementField(field)) {
+            return null;
+        }
+        String page = field.getDeclaringClass().getSimpleName();
+
+        if (!findBy.xpath().isEmpty()) {
+            CompiledLocator compiled = LocatorCompiler.ENABLED ? LocatorCompiler.compile(field) : null;
+            if (compiled != null && compiled.isOptimized()) {
+                return context -> new CompiledElementLocator(context, compiled);
+            }
+            return instrumented(page, field, "xpath", By.xpath(findBy.xpath()));
+        }
+        if (!findBy.id().isEmpty()) {
+            return instrumented(page, field, "id", By.id(findBy.id()));
+        }
+        if (!findBy.className().isEmpty()) {
+            return instrumented(page, field, "className", By.className(findBy.className()));
+        }
+        if (!findBy.accessibility().isEmpty()) {
+            return instrumented(page, field, "accessibility", AppiumBy.accessibilityId(findBy.accessibility()));
+        }
+        if (!findBy.uiAutomator().isEmpty()) {
+            return instrumented(page, field, "uiautomator", AppiumBy.androidUIAutomator(findBy.uiAutomator()));
+        }
+        return null;
+    }
+
+    private static Function<SearchContext, ElementLocator> instrumented(String page, Field field, String strategy,
+            By by) {
+        LocatorMetric metric = LocatorMetrics.get(page, field.getName(), strategy);
+        return context -> new InstrumentedElementLocator(context, by, metric);
+    }
+
+    private static Object proxyFor(Field field, ElementLocator locator) {
+        ClassLoader loader = field.getDeclaringClass().getClassLoader();
+        if (WebElement.class.equals(field.getType())) {
+            InvocationHandler handler = new LocatingElementHandler(locator);
+            return Proxy.newProxyInstance(loader, new Class<?>[] { WebElement.class, WrapsElement.class, Locatable.class },
+                    handler);
+        }
+        return Proxy.newProxyInstance(loader, new Class<?>[] { List.class }, new LocatingElementListHandler(locator));
+    }
+
+    private static class FieldBinding {
+        final Field field;
+        final Function<SearchContext, ElementLocator> locatorFactory;
+
+        FieldBinding(Field field, Function<SearchContext, ElementLocator> locatorFactory) {
+            this.field = field;
+            this.locatorFactory = locatorFactory;
+        }
+    }
+}
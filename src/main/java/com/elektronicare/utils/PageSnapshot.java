@@ -0,0 +1,225 @@
+package com.elektronicare.utils;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed UiAutomator2 page source indexed by resource-id, class and text.
+ * Answers XPath and attribute reads in-JVM without further server round trips.
+ */
+public class PageSnapshot {
+
+    private static final ThreadLocal<DocumentBuilder> documentBuilder = ThreadLocal.withInitial(() -> {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(false);
+            factory.setValidating(false);
+            return factory.newDocumentBuilder();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create XML parser", e);
+        }
+    });
+
+    private static final Pattern BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)\\]\\[(-?\\d+),(-?\\d+)\\]");
+
+    private static final ThreadLocal<Map<String, XPathExpression>> compiledXPaths = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<XPath> xpath = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private final Document document;
+    private final long capturedAtNanos;
+    private final Map<String, List<Element>> byResourceId = new HashMap<>();
+    private final Map<String, List<Element>> byClass = new HashMap<>();
+    private final Map<String, List<Element>> byText = new HashMap<>();
+
+    private PageSnapshot(Document document) {
+        this.document = document;
+        this.capturedAtNanos = System.nanoTime();
+        index(document.getDocumentElement());
+    }
+
+    /**
+     * Parse a page source string returned by driver.getPageSource()
+     */
+    public static PageSnapshot parse(String pageSource) {
+        try {
+            DocumentBuilder builder = documentBuilder.get();
+            builder.reset();
+            return new PageSnapshot(builder.parse(new InputSource(new StringReader(pageSource))));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot parse page source: " + e.getMessage(), e);
+        }
+    }
+
+    private void index(Element element) {
+        add(byResourceId, element.getAttribute("resource-id"), element);
+        add(byClass, element.getTagName(), element);
+        add(byText, element.getAttribute("text"), element);
+
+        NodeList children = element.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                index((Element) child);
+            }
+        }
+    }
+
+    private static void add(Map<String, List<Element>> index, String key, Element element) {
+        if (key != null && !key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+        }
+    }
+
+    /**
+     * Elements with the given full resource-id, in document order
+     */
+    public List<Element> findByResourceId(String resourceId) {
+        return byResourceId.getOrDefault(resourceId, Collections.emptyList());
+    }
+
+    /**
+     * Elements of the given class (tag name), in document order
+     */
+    public List<Element> findByClass(String className) {
+        return byClass.getOrDefault(className, Collections.emptyList());
+    }
+
+    /**
+     * Elements whose text attribute equals the given text, in document order
+     */
+    public List<Element> findByText(String text) {
+        return byText.getOrDefault(text, Collections.emptyList());
+    }
+
+    /**
+     * Evaluate an XPath locator against the snapshot
+     */
+    public List<Element> findByXPath(String expression) {
+        try {
+            XPathExpression compiled = compiledXPaths.get().get(expression);
+            if (compiled == null) {
+                compiled = xpath.get().compile(expression);
+                compiledXPaths.get().put(expression, compiled);
+            }
+            NodeList nodes = (NodeList) compiled.evaluate(document, XPathConstants.NODESET);
+            List<Element> elements = new ArrayList<>(nodes.getLength());
+            for (int i = 0; i < nodes.getLength(); i++) {
+                if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                    elements.add((Element) nodes.item(i));
+                }
+            }
+            return elements;
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Invalid XPath '" + expression + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Text attribute of every element matching the XPath
+     */
+    public List<String> texts(String expression) {
+        List<String> texts = new ArrayList<>();
+        for (Element element : findByXPath(expression)) {
+            texts.add(element.getAttribute("text"));
+        }
+        return texts;
+    }
+
+    /**
+     * Immutable records with the requested attributes of every element matching the XPath
+     */
+    public List<ElementRecord> read(String expression, Collection<String> attributes) {
+        List<ElementRecord> records = new ArrayList<>();
+        for (Element element : findByXPath(expression)) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                if (element.hasAttribute(attribute)) {
+                    values.put(attribute, element.getAttribute(attribute));
+                }
+            }
+            records.add(new ElementRecord(values));
+        }
+        return records;
+    }
+
+    /**
+     * One record per element matching the XPath, e.g. the cards of a list,
+     * holding the text of each descendant keyed by its resource-id without
+     * the package prefix, plus the item's own "bounds"
+     */
+    public List<ElementRecord> readItems(String expression) {
+        List<ElementRecord> items = new ArrayList<>();
+        for (Element item : findByXPath(expression)) {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("bounds", item.getAttribute("bounds"));
+            NodeList descendants = item.getElementsByTagName("*");
+            for (int i = 0; i < descendants.getLength(); i++) {
+                Element descendant = (Element) descendants.item(i);
+                String resourceId = descendant.getAttribute("resource-id");
+                String text = descendant.getAttribute("text");
+                if (!resourceId.isEmpty() && !text.isEmpty()) {
+                    values.putIfAbsent(resourceId.substring(resourceId.indexOf('/') + 1), text);
+                }
+            }
+            items.add(new ElementRecord(values));
+        }
+        return items;
+    }
+
+    /**
+     * Bounds of the first element matching the XPath as {left, top, right, bottom}, or null
+     */
+    public int[] boundsOf(String expression) {
+        List<Element> elements = findByXPath(expression);
+        return elements.isEmpty() ? null : parseBounds(elements.get(0).getAttribute("bounds"));
+    }
+
+    /**
+     * A UiAutomator2 bounds attribute "[left,top][right,bottom]" as
+     * {left, top, right, bottom}, or null if it is malformed
+     */
+    public static int[] parseBounds(String bounds) {
+        Matcher matcher = BOUNDS.matcher(bounds == null ? "" : bounds);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)) };
+    }
+
+    /**
+     * Whether the element is reported as displayed by UiAutomator2
+     */
+    public static boolean isDisplayed(Element element) {
+        return !"false".equals(element.getAttribute("displayed"));
+    }
+
+    public long getAgeMillis() {
+        return (System.nanoTime() - capturedAtNanos) / 1_000_000;
+    }
+
+    public int getElementCount() {
+        return byClass.values().stream().mapToInt(List::size).sum();
+    }
+}
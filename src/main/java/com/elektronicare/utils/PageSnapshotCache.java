@@ -0,0 +1,125 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Per-thread cache of the current screen's PageSnapshot. One getPageSource()
+ * round trip serves every bulk read until a mutating command (click, typing,
+ * gesture, back, app control, script) is sent for the session.
+ *
+ * Disable with -Dpage.snapshot=false to read through WebElements only.
+ */
+public class PageSnapshotCache {
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("page.snapshot", true);
+
+    // Safety net for changes the app makes on its own (e.g. Firebase data arriving)
+    private static final long MAX_AGE_MS = FrameworkConfig.get().getLong("page.snapshot.max.age.ms", 2000);
+
+    // POST commands that only read state
+    private static final Pattern READ_ONLY_POST = Pattern.compile(
+            ".*/(element|elements|element/[^/]+/element|element/[^/]+/elements|timeouts|se/log|log|appium/settings)$");
+
+    private static final ThreadLocal<CachedSnapshot> current = new ThreadLocal<>();
+    private static final Map<String, AtomicLong> mutationEpochs = new ConcurrentHashMap<>();
+
+    private static final TimingStats fetchStats = new TimingStats("snapshot.fetch");
+    private static final AtomicLong hits = new AtomicLong();
+
+    static {
+        ObservedHttpClientFactory.addListener((request, response, elapsedNanos) -> onCommand(request));
+    }
+
+    private PageSnapshotCache() {
+    }
+
+    /**
+     * Snapshot of the current screen, fetched only if the cached one is stale
+     */
+    public static PageSnapshot get() {
+        AndroidDriver driver = requireDriver();
+        String sessionId = String.valueOf(driver.getSessionId());
+        long epoch = epochOf(sessionId).get();
+
+        CachedSnapshot cached = current.get();
+        if (cached != null && cached.sessionId.equals(sessionId) && cached.epoch == epoch
+                && cached.snapshot.getAgeMillis() <= MAX_AGE_MS) {
+            hits.incrementAndGet();
+            return cached.snapshot;
+        }
+        return fetch(driver, sessionId, epoch);
+    }
+
+    /**
+     * Always fetch a new snapshot, e.g. while polling for content to load
+     */
+    public static PageSnapshot refresh() {
+        AndroidDriver driver = requireDriver();
+        String sessionId = String.valueOf(driver.getSessionId());
+        return fetch(driver, sessionId, epochOf(sessionId).get());
+    }
+
+    /**
+     * Drop the current thread's snapshot
+     */
+    public static void invalidate() {
+        current.remove();
+    }
+
+    public static String getStatsSummary() {
+        return "Page snapshot cache: hits=" + hits.get() + "\n  " + fetchStats;
+    }
+
+    private static AndroidDriver requireDriver() {
+        // No responsiveness probe here: a cache hit must not cost a round trip
+        AndroidDriver driver = DriverManager.peekDriver();
+        if (driver == null) {
+            throw new RuntimeException("Driver not initialized. Call initializeDriver() first.");
+        }
+        return driver;
+    }
+
+    private static PageSnapshot fetch(AndroidDriver driver, String sessionId, long epoch) {
+        long start = System.nanoTime();
+        PageSnapshot snapshot = PageSnapshot.parse(driver.getPageSource());
+        fetchStats.recordSince(start);
+        current.set(new CachedSnapshot(sessionId, epoch, snapshot));
+        return snapshot;
+    }
+
+    private static void onCommand(HttpRequest request) {
+        String sessionId = ObservedHttpClientFactory.sessionIdOf(request);
+        if (sessionId == null) {
+            return;
+        }
+        if (request.getMethod() == HttpMethod.DELETE && request.getUri().endsWith("/session/" + sessionId)) {
+            mutationEpochs.remove(sessionId);
+        } else if (request.getMethod() == HttpMethod.POST && !READ_ONLY_POST.matcher(request.getUri()).matches()) {
+            epochOf(sessionId).incrementAndGet();
+        }
+    }
+
+    private static AtomicLong epochOf(String sessionId) {
+        return mutationEpochs.computeIfAbsent(sessionId, id -> new AtomicLong());
+    }
+
+    private static class CachedSnapshot {
+        final String sessionId;
+        final long epoch;
+        final PageSnapshot snapshot;
+
+        CachedSnapshot(String sessionId, long epoch, PageSnapshot snapshot) {
+            this.sessionId = sessionId;
+            this.epoch = epoch;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.DriverMode;
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Performance telemetry of the app under test, collected alongside the
+ * functional checks:
+ *
+ * - startup.cold.ms / startup.warm.ms: launch until the app is ready, for a
+ *   new session or restartApp() (cold) and a reused session (warm)
+ * - frames.&lt;gesture&gt;.jank.pct / .p90.ms / .count: dumpsys gfxinfo around
+ *   a gesture (needs the adb_shell insecure feature on the server)
+ * - memory.start.pss.kb / memory.end.pss.kb: dumpsys meminfo of the app at
+ *   test boundaries, through Appium's performance data API
+ *
+ * Samples are kept in columns in memory and written once per run to
+ * test-reports/perf/perf_&lt;timestamp&gt;.bin: dictionaries of metric and test
+ * names, then the time, test, metric and value columns as varints
+ * (delta-coded times, values in hundredths). main() turns a file into CSV.
+ *
+ * A metric with -Dperf.threshold.&lt;metric&gt;=max is checked as it is
+ * recorded; violations are kept per test thread for the report and fail
+ * assertWithinThresholds(). -Dperf=false turns collection off.
+ */
+public class PerfTelemetry {
+
+    public static final boolean ENABLED = FrameworkConfig.get().getBoolean("perf", true)
+            && DriverMode.current() != DriverMode.REPLAY;
+
+    private static final String PERF_DIR = System.getProperty("user.dir") + "/test-reports/perf/";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final byte[] MAGIC = { 'E', 'C', 'P', 'F', 1 };
+    private static final String THRESHOLD_PREFIX = "perf.threshold.";
+
+    private static final Pattern TOTAL_FRAMES = Pattern.compile("Total frames rendered:\\s*(\\d+)");
+    private static final Pattern JANKY_FRAMES = Pattern.compile("Janky frames:\\s*(\\d+)\\s*\\(([\\d.]+)%\\)");
+    private static final Pattern P90 = Pattern.compile("90th percentile:\\s*(\\d+)ms");
+
+    /**
+     * One recorded value
+     */
+    public static class Sample {
+        public final long timeMillis;
+        public final String test;
+        public final String metric;
+        public final double value;
+
+        Sample(long timeMillis, String test, String metric, double value) {
+            this.timeMillis = timeMillis;
+            this.test = test;
+            this.metric = metric;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Count, mean, max and percentiles of one metric over a bounded window
+     * of its most recent values
+     */
+    private static class MetricStats {
+        private static final int WINDOW = 4096;
+
+        private final double[] window = new double[WINDOW];
+        private long count;
+        private double total;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        synchronized void record(double value) {
+            window[(int) (count % WINDOW)] = value;
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        synchronized String summary() {
+            int size = (int) Math.min(count, WINDOW);
+            double[] sorted = Arrays.copyOf(window, size);
+            Arrays.sort(sorted);
+            return String.format("count=%d mean=%.1f p50=%.1f p95=%.1f max=%.1f", count, total / count,
+                    percentile(sorted, 50), percentile(sorted, 95), max);
+        }
+
+        private static double percentile(double[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    // Columns, guarded by the class lock
+    private static final Map<String, Integer> metricIds = new LinkedHashMap<>();
+    private static final Map<String, Integer> testIds = new LinkedHashMap<>();
+    private static long[] times = new long[256];
+    private static int[] tests = new int[256];
+    private static int[] metrics = new int[256];
+    private static long[] values = new long[256];
+    private static int size;
+
+    private static final long runStart = System.currentTimeMillis();
+    private static final Map<String, MetricStats> metricStats = new ConcurrentHashMap<>();
+    private static final Set<String> seenSessions = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<List<String>> violations = ThreadLocal.withInitial(ArrayList::new);
+    private static final AtomicLong violationCount = new AtomicLong();
+    private static volatile boolean gfxinfoUnavailable;
+
+    private PerfTelemetry() {
+    }
+
+    /**
+     * Attribute the current thread's samples to a test
+     */
+    public static void beginTest(String testName) {
+        currentTest.set(testName);
+        violations.get().clear();
+    }
+
+    public static void endTest() {
+        currentTest.remove();
+        violations.remove();
+    }
+
+    /**
+     * Record a sample for the current test and check its threshold
+     */
+    public static void record(String metric, double value) {
+        if (!ENABLED) {
+            return;
+        }
+        String test = currentTest.get() != null ? currentTest.get() : "-";
+        synchronized (PerfTelemetry.class) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                tests = Arrays.copyOf(tests, capacity);
+                metrics = Arrays.copyOf(metrics, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            times[size] = System.currentTimeMillis() - runStart;
+            tests[size] = testIds.computeIfAbsent(test, key -> testIds.size());
+            metrics[size] = metricIds.computeIfAbsent(metric, key -> metricIds.size());
+            values[size] = Math.round(value * 100);
+            size++;
+        }
+        metricStats.computeIfAbsent(metric, key -> new MetricStats()).record(value);
+
+        double threshold = FrameworkConfig.get().getDouble(THRESHOLD_PREFIX + metric, Double.NaN);
+        if (!Double.isNaN(threshold) && value > threshold) {
+            String violation = String.format("%s=%.1f exceeds %.1f", metric, value, threshold);
+            violations.get().add(violation);
+            violationCount.incrementAndGet();
+            System.err.println("Perf threshold: " + violation + " in " + test);
+        }
+    }
+
+    /**
+     * Fail if a sample of the current test exceeded its threshold
+     */
+    public static void assertWithinThresholds() {
+        List<String> exceeded = violations.get();
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("Performance thresholds exceeded: " + exceeded);
+        }
+    }
+
+    public static List<String> getViolations() {
+        return new ArrayList<>(violations.get());
+    }
+
+    /**
+     * Whether the session has not been seen before, i.e. the app was just
+     * launched by session creation rather than reused
+     */
+    public static boolean isNewSession(AndroidDriver driver) {
+        return driver != null && driver.getSessionId() != null
+                && seenSessions.add(driver.getSessionId().toString());
+    }
+
+    /**
+     * Record how long it took from the given System.nanoTime() until the app was ready
+     */
+    public static void recordStartup(boolean cold, long startNanos) {
+        record(cold ? "startup.cold.ms" : "startup.warm.ms", (System.nanoTime() - startNanos) / 1e6);
+    }
+
+    /**
+     * Run a gesture and record the frame statistics it produced
+     */
+    public static void measureFrames(String gesture, Runnable action) {
+        measureFrames(gesture, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a gesture that produces a result, e.g. a scroll search, and record
+     * the frame statistics it produced
+     */
+    public static <T> T measureFrames(String gesture, Supplier<T> action) {
+        AndroidDriver driver = ENABLED && !gfxinfoUnavailable ? DriverManager.peekDriver() : null;
+        if (driver == null || gfxinfo(driver, true) == null) {
+            return action.get();
+        }
+        T result = action.get();
+        String output = gfxinfo(driver, false);
+        if (output != null) {
+            recordFrames(gesture, output);
+        }
+        return result;
+    }
+
+    private static void recordFrames(String gesture, String output) {
+        Matcher total = TOTAL_FRAMES.matcher(output);
+        Matcher janky = JANKY_FRAMES.matcher(output);
+        Matcher p90 = P90.matcher(output);
+        if (total.find()) {
+            record("frames." + gesture + ".count", Long.parseLong(total.group(1)));
+        }
+        if (janky.find()) {
+            record("frames." + gesture + ".jank.pct", Double.parseDouble(janky.group(2)));
+        }
+        if (p90.find()) {
+            record("frames." + gesture + ".p90.ms", Long.parseLong(p90.group(1)));
+        }
+    }
+
+    /**
+     * Record the app's total PSS for the given test phase ("start" or "end")
+     */
+    public static void recordMemory(String phase) {
+        AndroidDriver driver = ENABLED ? DriverManager.peekDriver() : null;
+        if (driver == null) {
+            return;
+        }
+        try {
+            List<List<Object>> data = driver.getPerformanceData(AppiumConfig.APP_PACKAGE, "memoryinfo", 5);
+            int column = data.get(0).indexOf("totalPss");
+            Object value = column < 0 || data.size() < 2 ? null : data.get(1).get(column);
+            if (value != null) {
+                record("memory." + phase + ".pss.kb", Double.parseDouble(value.toString()));
+            }
+        } catch (Exception e) {
+            System.err.println("Could not read meminfo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the run's samples in the columnar format, or return null if there are none
+     */
+    public static synchronized Path flush() {
+        if (size == 0) {
+            return null;
+        }
+        Path path = Paths.get(PERF_DIR, "perf_" + LocalDateTime.now().format(TIMESTAMP_FORMAT) + ".bin");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.write(MAGIC);
+                writeDictionary(out, metricIds);
+                writeDictionary(out, testIds);
+                writeVarLong(out, size);
+                long previous = 0;
+                for (int i = 0; i < size; i++) {
+                    writeVarLong(out, zigzag(times[i] - previous));
+                    previous = times[i];
+                }
+                for (int i = 0; i < size; i++) {
+                    writeVarLong(out, tests[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    writeVarLong(out, metrics[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    writeVarLong(out, zigzag(values[i]));
+                }
+            }
+            System.out.println("Perf telemetry: " + size + " samples written to " + path + " (" + Files.size(path)
+                    + " bytes)");
+            return path;
+        } catch (IOException e) {
+            System.err.println("Failed to write perf telemetry " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read a file written by flush()
+     */
+    public static List<Sample> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a perf telemetry file: " + path);
+            }
+            List<String> metricNames = readDictionary(in);
+            List<String> testNames = readDictionary(in);
+            int count = (int) readVarLong(in);
+            long[] sampleTimes = new long[count];
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += unzigzag(readVarLong(in));
+                sampleTimes[i] = previous;
+            }
+            int[] sampleTests = new int[count];
+            for (int i = 0; i < count; i++) {
+                sampleTests[i] = (int) readVarLong(in);
+            }
+            int[] sampleMetrics = new int[count];
+            for (int i = 0; i < count; i++) {
+                sampleMetrics[i] = (int) readVarLong(in);
+            }
+            List<Sample> samples = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                samples.add(new Sample(sampleTimes[i], testNames.get(sampleTests[i]),
+                        metricNames.get(sampleMetrics[i]), unzigzag(readVarLong(in)) / 100.0));
+            }
+            return samples;
+        }
+    }
+
+    /**
+     * Usage: PerfTelemetry &lt;perf.bin&gt; - prints the samples as CSV
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: PerfTelemetry <perf.bin>");
+            System.exit(2);
+        }
+        System.out.println("time_ms,test,metric,value");
+        for (Sample sample : read(Paths.get(args[0]))) {
+            System.out.println(sample.timeMillis + "," + sample.test + "," + sample.metric + "," + sample.value);
+        }
+    }
+
+    public static synchronized String getStatsSummary() {
+        StringBuilder summary = new StringBuilder("Perf telemetry: " + (ENABLED ? "on" : "off") + ", samples="
+                + size + ", threshold violations=" + violationCount.get()
+                + (gfxinfoUnavailable ? ", gfxinfo unavailable" : ""));
+        for (Map.Entry<String, MetricStats> stats : new TreeMap<>(metricStats).entrySet()) {
+            summary.append(String.format("%n  %s: %s", stats.getKey(), stats.getValue().summary()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * dumpsys gfxinfo for the app, resetting the counters first if asked; null if unavailable
+     */
+    private static String gfxinfo(AndroidDriver driver, boolean reset) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("command", "dumpsys");
+        args.put("args", reset ? Arrays.asList("gfxinfo", AppiumConfig.APP_PACKAGE, "reset")
+                : Arrays.asList("gfxinfo", AppiumConfig.APP_PACKAGE));
+        try {
+            return String.valueOf(driver.executeScript("mobile: shell", args));
+        } catch (Exception e) {
+            // adb_shell is not allowed on the server; stop trying for the rest of the run
+            gfxinfoUnavailable = true;
+            System.err.println("Frame stats unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        writeVarLong(out, dictionary.size());
+        for (String name : dictionary.keySet()) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readDictionary(DataInputStream in) throws IOException {
+        int count = (int) readVarLong(in);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
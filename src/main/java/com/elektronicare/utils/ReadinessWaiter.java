@@ -0,0 +1,183 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.AppiumConfig;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Condition-based waits that replace fixed sleeps. Each wait polls a concrete
+ * signal (current activity, anchor resource-id, stable UI hierarchy) with an
+ * adaptive interval that starts short and backs off, and records how long
+ * the wait actually took.
+ */
+public class ReadinessWaiter {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final long INITIAL_POLL_MS = 50;
+    private static final long MAX_POLL_MS = 500;
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    private static final String SPLASH_ACTIVITY = "SplashActivity";
+
+    private static final Map<String, TimingStats> waitStats = new ConcurrentHashMap<>();
+
+    private ReadinessWaiter() {
+    }
+
+    /**
+     * Poll the condition until it holds or the timeout expires
+     */
+    public static boolean waitUntil(String name, Duration timeout, BooleanSupplier condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMs = INITIAL_POLL_MS;
+        boolean satisfied = false;
+
+        try {
+            while (true) {
+                if (check(condition)) {
+                    satisfied = true;
+                    return true;
+                }
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                Thread.sleep(Math.min(pollMs, remainingMs));
+                pollMs = Math.min(MAX_POLL_MS, (long) (pollMs * BACKOFF_FACTOR));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            long elapsed = getStats(name).recordSince(start);
+            System.out.println("Wait '" + name + "' " + (satisfied ? "satisfied" : "timed out") + " after "
+                    + elapsed / 1_000_000 + "ms");
+        }
+    }
+
+    /**
+     * Wait until the app has left the splash screen and its hierarchy is idle
+     */
+    public static boolean waitForAppLaunched() {
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return false;
+        }
+
+        boolean launched = waitUntil("app.launched", DEFAULT_TIMEOUT, () -> {
+            String activity = driver.currentActivity();
+            return activity != null && !activity.endsWith(SPLASH_ACTIVITY);
+        });
+        return launched && waitForIdle();
+    }
+
+    /**
+     * Wait until the current activity ends with one of the given names
+     */
+    public static boolean waitForActivity(Duration timeout, String... activities) {
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return false;
+        }
+
+        return waitUntil("activity." + String.join("|", activities), timeout, () -> {
+            String current = driver.currentActivity();
+            if (current == null) {
+                return false;
+            }
+            for (String activity : activities) {
+                if (current.endsWith(activity)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Wait until any element with one of the given resource-ids is present.
+     * Short ids such as "edit_email" are qualified with the app package.
+     */
+    public static boolean waitForResourceId(Duration timeout, String... resourceIds) {
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return false;
+        }
+
+        // Implicit wait would turn every empty lookup into a multi-second block
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return waitUntil("id." + String.join("|", resourceIds), timeout, () -> {
+                for (String resourceId : resourceIds) {
+                    if (!driver.findElements(By.id(qualifyId(resourceId))).isEmpty()) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        } finally {
+            driver.manage().timeouts().implicitlyWait(AppiumConfig.implicitWait());
+        }
+    }
+
+    /**
+     * Wait until two consecutive UI hierarchy snapshots are identical
+     */
+    public static boolean waitForIdle() {
+        return waitForIdle(DEFAULT_TIMEOUT);
+    }
+
+    public static boolean waitForIdle(Duration timeout) {
+        AndroidDriver driver = AppiumConfig.getDriverSafely();
+        if (driver == null) {
+            return false;
+        }
+
+        int[] lastHash = {0};
+        boolean[] hasPrevious = {false};
+        return waitUntil("hierarchy.idle", timeout, () -> {
+            int hash = driver.getPageSource().hashCode();
+            boolean stable = hasPrevious[0] && hash == lastHash[0];
+            lastHash[0] = hash;
+            hasPrevious[0] = true;
+            return stable;
+        });
+    }
+
+    /**
+     * Timing statistics for a named wait
+     */
+    public static TimingStats getStats(String name) {
+        return waitStats.computeIfAbsent(name, TimingStats::new);
+    }
+
+    /**
+     * One line per wait name with its recorded durations
+     */
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder("Readiness waits:");
+        waitStats.values().stream()
+                .sorted((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()))
+                .forEach(stats -> summary.append("\n  ").append(stats));
+        return summary.toString();
+    }
+
+    static String qualifyId(String resourceId) {
+        return resourceId.contains(":id/") ? resourceId : AppiumConfig.APP_PACKAGE + ":id/" + resourceId;
+    }
+
+    private static boolean check(BooleanSupplier condition) {
+        try {
+            return condition.getAsBoolean();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
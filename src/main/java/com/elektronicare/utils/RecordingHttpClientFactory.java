@@ -0,0 +1,78 @@
+package com.elektronicare.utils;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HttpClient factory that passes WebDriver commands to the real server and
+ * appends each command with its response to a SessionRecording, so the
+ * run can later be served by ReplayHttpClientFactory.
+ */
+public class RecordingHttpClientFactory implements HttpClient.Factory {
+
+    private final HttpClient.Factory delegate;
+    private final SessionRecording recording;
+
+    public RecordingHttpClientFactory(SessionRecording recording) {
+        this(HttpClient.Factory.createDefault(), recording);
+    }
+
+    public RecordingHttpClientFactory(HttpClient.Factory delegate, SessionRecording recording) {
+        this.delegate = delegate;
+        this.recording = recording;
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new RecordingHttpClient(delegate.createClient(config));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate.cleanupIdleClients();
+    }
+
+    private class RecordingHttpClient implements HttpClient {
+
+        private final HttpClient client;
+
+        RecordingHttpClient(HttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            long start = System.nanoTime();
+            HttpResponse response = client.execute(request);
+            long micros = (System.nanoTime() - start) / 1_000;
+
+            // Buffer the body so it can be both recorded and read by the driver
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+
+            recording.append(new SessionRecording.Entry(request.getMethod().name(), request.getUri(),
+                    Contents.string(request), response.getStatus(), Contents.string(response), micros));
+            return response;
+        }
+
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return CompletableFuture.supplyAsync(() -> execute(request));
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return client.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.elektronicare.utils;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HttpClient factory that answers WebDriver commands from a SessionRecording
+ * instead of an Appium server. Responses are matched on method, path and
+ * request body and served in recorded order; once a command's recorded
+ * responses are used up its last one is repeated, which keeps polling loops
+ * that run a little longer than in the recording working. A new-session
+ * command is matched on method and path only, so capabilities may differ.
+ *
+ * Element lookups missing from the recording answer "no such element";
+ * other unknown commands answer null. Both are counted as misses.
+ *
+ * Latency: none (default), recorded (sleep for the recorded time) or a
+ * fixed number of milliseconds per command.
+ */
+public class ReplayHttpClientFactory implements HttpClient.Factory {
+
+    private static final String NEW_SESSION = "POST /session";
+
+    private final Map<String, Deque<SessionRecording.Entry>> responses = new HashMap<>();
+    private final Map<String, SessionRecording.Entry> lastServed = new HashMap<>();
+    private final String latency;
+    // -1 sleeps for the recorded time, 0 not at all
+    private final long latencyMicros;
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong repeated = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReplayHttpClientFactory(Path recording, String latency) {
+        this.latency = latency;
+        this.latencyMicros = parseLatency(latency);
+        List<SessionRecording.Entry> entries = SessionRecording.read(recording);
+        for (SessionRecording.Entry entry : entries) {
+            responses.computeIfAbsent(key(entry.method, entry.path, entry.request), k -> new ArrayDeque<>())
+                    .add(entry);
+        }
+        System.out.println("Replaying " + entries.size() + " recorded commands from " + recording
+                + " (latency: " + latency + ")");
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new ReplayHttpClient();
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        // Nothing pooled
+    }
+
+    public String getStatsSummary() {
+        return "Replay: served=" + served.get() + " repeated=" + repeated.get() + " misses=" + misses.get();
+    }
+
+    private HttpResponse respond(HttpRequest request) {
+        String method = request.getMethod().name();
+        String path = request.getUri();
+        String key = key(method, path, Contents.string(request));
+
+        SessionRecording.Entry entry;
+        synchronized (this) {
+            Deque<SessionRecording.Entry> queue = responses.get(key);
+            entry = queue != null ? queue.poll() : null;
+            if (entry != null) {
+                lastServed.put(key, entry);
+                served.incrementAndGet();
+            } else {
+                entry = lastServed.get(key);
+                if (entry != null) {
+                    repeated.incrementAndGet();
+                }
+            }
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            System.err.println("Replay miss: " + method + " " + path);
+            return json(missingResponseFor(path), path.endsWith("/element") ? 404 : 200);
+        }
+
+        simulateLatency(entry);
+        return json(entry.response, entry.status);
+    }
+
+    private static String missingResponseFor(String path) {
+        if (path.endsWith("/element")) {
+            return "{\"value\":{\"error\":\"no such element\",\"message\":\"Not in recording\",\"stacktrace\":\"\"}}";
+        }
+        if (path.endsWith("/elements")) {
+            return "{\"value\":[]}";
+        }
+        return "{\"value\":null}";
+    }
+
+    private static long parseLatency(String latency) {
+        if ("none".equals(latency)) {
+            return 0;
+        }
+        if ("recorded".equals(latency)) {
+            return -1;
+        }
+        try {
+            long millis = Long.parseLong(latency);
+            if (millis >= 0) {
+                return TimeUnit.MILLISECONDS.toMicros(millis);
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid value for driver.replay.latency: '" + latency
+                + "' (expected none, recorded or a number of milliseconds)");
+    }
+
+    private void simulateLatency(SessionRecording.Entry entry) {
+        long micros = latencyMicros < 0 ? entry.micros : latencyMicros;
+        if (micros <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpResponse json(String body, int status) {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(status);
+        response.setHeader("Content-Type", "application/json; charset=utf-8");
+        response.setContent(Contents.utf8String(body == null ? "" : body));
+        return response;
+    }
+
+    private static String key(String method, String path, String body) {
+        String command = method + " " + path;
+        if (NEW_SESSION.equals(command)) {
+            return command;
+        }
+        return body == null || body.isEmpty() ? command : command + " " + body;
+    }
+
+    private class ReplayHttpClient implements HttpClient {
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return respond(request);
+        }
+
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return CompletableFuture.completedFuture(execute(request));
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            throw new UnsupportedOperationException("WebSockets are not recorded");
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.FrameworkConfig;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background persistence for screenshots. The test thread only fetches the
+ * PNG bytes and enqueues them; hashing, optional JPEG downscaling and the
+ * NIO write happen on a single writer thread. The queue is bounded: a full
+ * queue blocks the caller for up to screenshot.queue.wait.ms and then drops
+ * the frame, and both cases are counted.
+ *
+ * Identical frames (same SHA-256 of the PNG) are hard-linked to the first
+ * file instead of being encoded and written again.
+ *
+ * Options: -Dscreenshot.format=png|jpeg, -Dscreenshot.scale=0.5,
+ * -Dscreenshot.jpeg.quality=0.8, -Dscreenshot.queue.size=16,
+ * -Dscreenshot.queue.wait.ms=2000
+ */
+public class ScreenshotWriter {
+
+    private static final String SCREENSHOT_DIR = System.getProperty("user.dir") + "/screenshots/";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    private static final String FORMAT = FrameworkConfig.get().getString("screenshot.format", "png").toLowerCase();
+    private static final boolean JPEG = "jpeg".equals(FORMAT) || "jpg".equals(FORMAT);
+    private static final double SCALE = FrameworkConfig.get().getDouble("screenshot.scale", 1.0);
+    private static final float JPEG_QUALITY = (float) FrameworkConfig.get().getDouble("screenshot.jpeg.quality", 0.8);
+    private static final int QUEUE_SIZE = FrameworkConfig.get().getInt("screenshot.queue.size", 16);
+    private static final long QUEUE_WAIT_MS = FrameworkConfig.get().getLong("screenshot.queue.wait.ms", 2000);
+    private static final int DEDUP_ENTRIES = 256;
+
+    private static final BlockingQueue<Job> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final Map<String, Path> writtenByHash = new LinkedHashMap<String, Path>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Path> eldest) {
+            return size() > DEDUP_ENTRIES;
+        }
+    };
+
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong deduplicated = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong backpressureWaits = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong pending = new AtomicLong();
+    private static final TimingStats processStats = new TimingStats("screenshot.process");
+
+    private static final Object pendingLock = new Object();
+
+    static {
+        Thread writer = new Thread(ScreenshotWriter::run, "screenshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private ScreenshotWriter() {
+    }
+
+    /**
+     * Queue a PNG screenshot for writing and return the path it will be
+     * written to, or null if the queue stayed full and the frame was dropped
+     */
+    public static String submit(String name, byte[] png) {
+        String extension = JPEG ? ".jpg" : ".png";
+        Path path = Paths.get(SCREENSHOT_DIR + name + "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT) + extension);
+        Job job = new Job(path, png);
+
+        submitted.incrementAndGet();
+        pending.incrementAndGet();
+        try {
+            if (!queue.offer(job)) {
+                backpressureWaits.incrementAndGet();
+                if (!queue.offer(job, QUEUE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    dropped.incrementAndGet();
+                    finishJob();
+                    System.err.println("Screenshot queue full, dropped: " + path.getFileName());
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+            finishJob();
+            return null;
+        }
+        return path.toString();
+    }
+
+    /**
+     * Wait until every queued screenshot is on disk, e.g. before the report is flushed
+     */
+    public static boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (pendingLock) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    pendingLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public static long getBackpressureWaits() {
+        return backpressureWaits.get();
+    }
+
+    public static int getQueueDepth() {
+        return queue.size();
+    }
+
+    public static String getStatsSummary() {
+        return "Screenshots: submitted=" + submitted.get() + " written=" + written.get()
+                + " deduplicated=" + deduplicated.get() + " dropped=" + dropped.get()
+                + " backpressureWaits=" + backpressureWaits.get() + " failed=" + failed.get()
+                + " bytes=" + bytesWritten.get() + "\n  " + processStats;
+    }
+
+    private static void run() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                process(job);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                System.err.println("Failed to save screenshot " + job.path + ": " + e.getMessage());
+            } finally {
+                processStats.recordSince(start);
+                finishJob();
+            }
+        }
+    }
+
+    private static void process(Job job) throws IOException {
+        Files.createDirectories(job.path.getParent());
+
+        String hash = sha256(job.png);
+        Path existing = writtenByHash.get(hash);
+        if (existing != null && Files.exists(existing)) {
+            try {
+                Files.createLink(job.path, existing);
+                deduplicated.incrementAndGet();
+                System.out.println("Screenshot saved (same frame as " + existing.getFileName() + "): " + job.path);
+                return;
+            } catch (IOException | UnsupportedOperationException e) {
+                // File system without hard links: fall through and write the bytes
+            }
+        }
+
+        byte[] encoded = encode(job.png);
+        try (FileChannel channel = FileChannel.open(job.path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        writtenByHash.put(hash, job.path);
+        written.incrementAndGet();
+        bytesWritten.addAndGet(encoded.length);
+        System.out.println("Screenshot saved: " + job.path);
+    }
+
+    /**
+     * PNG as captured, or downscaled and/or re-encoded as JPEG
+     */
+    private static byte[] encode(byte[] png) throws IOException {
+        return encode(png, JPEG, SCALE, JPEG_QUALITY);
+    }
+
+    /**
+     * Encode a PNG screenshot with explicit settings, e.g. from the benchmarks
+     */
+    public static byte[] encode(byte[] png, boolean jpeg, double scale, float jpegQuality) throws IOException {
+        if (!jpeg && scale >= 1.0) {
+            return png;
+        }
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        int width = Math.max(1, (int) (image.getWidth() * Math.min(scale, 1.0)));
+        int height = Math.max(1, (int) (image.getHeight() * Math.min(scale, 1.0)));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!jpeg) {
+            ImageIO.write(scaled, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void finishJob() {
+        synchronized (pendingLock) {
+            if (pending.decrementAndGet() <= 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    private static class Job {
+        final Path path;
+        final byte[] png;
+
+        Job(Path path, byte[] png) {
+            this.path = path;
+            this.png = png;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Scroll-and-find that hands the whole search to the device.
+ *
+ * The first attempt is a single UiScrollable.scrollIntoView() lookup, which
+ * UiAutomator2 runs on the device without a round trip per scroll. If that
+ * fails (no scrollable container, selector rejected, or the target is past
+ * the search limit), a client-side loop scrolls with GestureEngine and
+ * fingerprints the hierarchy after each scroll. It stops as soon as the
+ * text appears, or when a scroll no longer changes the hierarchy because
+ * the end of the list was reached, instead of after a fixed number of
+ * scrolls with a fixed sleep between them.
+ *
+ * Options: -Dscroll.search.server=false skips the device-side attempt,
+ * -Dscroll.search.max=10 caps the scrolls of either strategy.
+ */
+public class ScrollSearch {
+
+    public static final boolean SERVER_SIDE = FrameworkConfig.get().getBoolean("scroll.search.server", true);
+    public static final int MAX_SCROLLS = FrameworkConfig.get().getInt("scroll.search.max", 10);
+
+    private static final String ANY_SCROLLABLE = "new UiSelector().scrollable(true).instance(0)";
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * Outcome of one search
+     */
+    public static class Result {
+        private final WebElement element;
+        private final String strategy;
+        private final int scrolls;
+        private final long millis;
+
+        Result(WebElement element, String strategy, int scrolls, long millis) {
+            this.element = element;
+            this.strategy = strategy;
+            this.scrolls = scrolls;
+            this.millis = millis;
+        }
+
+        /**
+         * The element found, or null
+         */
+        public WebElement getElement() {
+            return element;
+        }
+
+        public boolean isFound() {
+            return element != null;
+        }
+
+        /**
+         * "visible", "server" or "client"
+         */
+        public String getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * Client-side scrolls made; the device does not report its own
+         */
+        public int getScrolls() {
+            return scrolls;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return (isFound() ? "found" : "not found") + " via " + strategy + " after " + scrolls + " scroll(s) in "
+                    + millis + "ms";
+        }
+    }
+
+    private static final TimingStats serverStats = new TimingStats("scroll.search.server");
+    private static final TimingStats clientStats = new TimingStats("scroll.search.client");
+    private static final AtomicLong searches = new AtomicLong();
+    private static final AtomicLong foundOnServer = new AtomicLong();
+    private static final AtomicLong foundOnClient = new AtomicLong();
+    private static final AtomicLong notFound = new AtomicLong();
+    private static final AtomicLong clientScrolls = new AtomicLong();
+    private static final AtomicLong endsOfList = new AtomicLong();
+
+    private ScrollSearch() {
+    }
+
+    /**
+     * Scroll the first scrollable container until an element whose text
+     * equals the given text is on screen
+     */
+    public static Result scrollToText(AndroidDriver driver, String text) {
+        return scrollToText(driver, null, text, false);
+    }
+
+    /**
+     * Scroll the container matched by the UiSelector (or the first scrollable
+     * one when null) until an element whose text equals, or with partial
+     * true contains ignoring case, the given text is on screen. The partial
+     * match ignores case like the hierarchy check of the client-side fallback.
+     */
+    public static Result scrollToText(AndroidDriver driver, String scrollableSelector, String text, boolean partial) {
+        String target = partial
+                ? "new UiSelector().textMatches(" + quote("(?is).*" + Pattern.quote(text) + ".*") + ")"
+                : "new UiSelector().text(" + quote(text) + ")";
+        return scrollIntoView(driver, scrollableSelector, target, text);
+    }
+
+    /**
+     * Scroll until the element matched by the target UiSelector is on screen.
+     * The needle is looked for in the hierarchy during the client-side
+     * fallback, before the element itself is looked up.
+     */
+    public static Result scrollIntoView(AndroidDriver driver, String scrollableSelector, String targetSelector,
+            String needle) {
+        searches.incrementAndGet();
+        long start = System.nanoTime();
+        String scrollable = scrollableSelector == null ? ANY_SCROLLABLE : scrollableSelector;
+        By target = AppiumBy.androidUIAutomator(targetSelector);
+
+        // Implicit wait would make every miss block, and repeat the device-side search
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            WebElement visible = first(driver.findElements(target));
+            if (visible != null) {
+                return report(needle, new Result(visible, "visible", 0, elapsedMillis(start)));
+            }
+
+            if (SERVER_SIDE) {
+                long serverStart = System.nanoTime();
+                try {
+                    WebElement element = first(driver.findElements(AppiumBy.androidUIAutomator(
+                            "new UiScrollable(" + scrollable + ").setMaxSearchSwipes(" + MAX_SCROLLS
+                                    + ").scrollIntoView(" + targetSelector + ")")));
+                    if (element != null) {
+                        foundOnServer.incrementAndGet();
+                        return report(needle, new Result(element, "server", 0, elapsedMillis(start)));
+                    }
+                } catch (WebDriverException e) {
+                    System.out.println("Device-side scroll search failed, scrolling from the client: "
+                            + e.getMessage());
+                } finally {
+                    serverStats.recordSince(serverStart);
+                    // The lookup scrolled, but read-only commands do not invalidate the snapshot
+                    PageSnapshotCache.invalidate();
+                }
+            }
+
+            long clientStart = System.nanoTime();
+            try {
+                return report(needle, searchFromClient(driver, scrollable, target, needle, start));
+            } finally {
+                clientStats.recordSince(clientStart);
+            }
+        } finally {
+            driver.manage().timeouts().implicitlyWait(AppiumConfig.implicitWait());
+        }
+    }
+
+    public static String getStatsSummary() {
+        return String.format("Scroll search: searches=%d, found on device=%d, found by client=%d, not found=%d,"
+                + " client scrolls=%d, ends of list=%d%n  %s%n  %s", searches.get(), foundOnServer.get(),
+                foundOnClient.get(), notFound.get(), clientScrolls.get(), endsOfList.get(), serverStats, clientStats);
+    }
+
+    private static Result searchFromClient(AndroidDriver driver, String scrollable, By target, String needle,
+            long start) {
+        GestureEngine.Swipe swipe = scrollSwipe(driver, scrollable);
+        HierarchyFingerprint before = HierarchyFingerprint.of(driver.getPageSource(), needle);
+
+        for (int scrolls = 0; ; scrolls++) {
+            if (before.contains(needle)) {
+                WebElement element = first(driver.findElements(target));
+                if (element != null) {
+                    foundOnClient.incrementAndGet();
+                    return new Result(element, "client", scrolls, elapsedMillis(start));
+                }
+            }
+            if (scrolls >= MAX_SCROLLS) {
+                notFound.incrementAndGet();
+                return new Result(null, "client", scrolls, elapsedMillis(start));
+            }
+
+            GestureEngine.perform(driver, "gesture.search", List.of(swipe));
+            clientScrolls.incrementAndGet();
+            HierarchyFingerprint after = settle(driver, needle);
+            if (after.getStateHash() == before.getStateHash()) {
+                // Scrolling no longer moves anything
+                endsOfList.incrementAndGet();
+                notFound.incrementAndGet();
+                return new Result(null, "client", scrolls + 1, elapsedMillis(start));
+            }
+            before = after;
+        }
+    }
+
+    /**
+     * Fingerprint of the hierarchy once two consecutive snapshots agree
+     */
+    private static HierarchyFingerprint settle(AndroidDriver driver, String needle) {
+        HierarchyFingerprint.SettleTracker tracker = new HierarchyFingerprint.SettleTracker(1);
+        ReadinessWaiter.waitUntil("scroll.settle", SETTLE_TIMEOUT,
+                () -> tracker.observe(HierarchyFingerprint.of(driver.getPageSource(), needle)));
+        return tracker.getLast() != null ? tracker.getLast()
+                : HierarchyFingerprint.of(driver.getPageSource(), needle);
+    }
+
+    /**
+     * Swipe that scrolls the container down, or the whole screen if it is not there
+     */
+    private static GestureEngine.Swipe scrollSwipe(AndroidDriver driver, String scrollable) {
+        WebElement container = first(driver.findElements(AppiumBy.androidUIAutomator(scrollable)));
+        if (container == null) {
+            return GestureEngine.scroll(driver, GestureEngine.Direction.DOWN);
+        }
+        Rectangle rect = container.getRect();
+        return GestureEngine.scroll(rect, GestureEngine.Direction.DOWN);
+    }
+
+    private static Result report(String needle, Result result) {
+        String message = "Scroll search for '" + needle + "': " + result;
+        System.out.println(message);
+        try {
+            ExtentReportManager.logInfo(message);
+        } catch (Exception e) {
+            System.err.println("Failed to log scroll search to ExtentReport: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private static WebElement first(List<WebElement> elements) {
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
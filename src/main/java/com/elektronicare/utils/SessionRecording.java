@@ -0,0 +1,131 @@
+package com.elektronicare.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk format of recorded WebDriver traffic: one JSON object per
+ * command (method, path, request body, status, response body, latency),
+ * one per line, gzip-compressed. Page sources and screenshots dominate the
+ * size and compress well.
+ */
+public class SessionRecording {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * One recorded command
+     */
+    public static class Entry {
+        public String method;
+        public String path;
+        public String request;
+        public int status;
+        public String response;
+        public long micros;
+
+        public Entry() {
+        }
+
+        public Entry(String method, String path, String request, int status, String response, long micros) {
+            this.method = method;
+            this.path = path;
+            this.request = request;
+            this.status = status;
+            this.response = response;
+            this.micros = micros;
+        }
+    }
+
+    private final Path path;
+    private Writer writer;
+    private long entries;
+
+    private SessionRecording(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Open a recording for writing, replacing any previous file
+     */
+    public static SessionRecording create(Path path) {
+        SessionRecording recording = new SessionRecording(path);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            recording.writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(path)), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create recording " + path, e);
+        }
+        return recording;
+    }
+
+    /**
+     * Read every entry of a recording
+     */
+    public static List<Entry> read(Path path) {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    entries.add(MAPPER.readValue(line, Entry.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read recording " + path, e);
+        }
+        return entries;
+    }
+
+    public synchronized void append(Entry entry) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(MAPPER.writeValueAsString(entry));
+            writer.write('\n');
+            entries++;
+        } catch (IOException e) {
+            System.err.println("Failed to record command " + entry.method + " " + entry.path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finish the gzip stream; the file is unreadable until this has run
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            System.out.println("Recorded " + entries + " commands to " + path);
+        } catch (IOException e) {
+            System.err.println("Failed to close recording " + path + ": " + e.getMessage());
+        } finally {
+            writer = null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
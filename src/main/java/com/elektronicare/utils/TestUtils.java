@@ -2,27 +2,18 @@ package com.elektronicare.utils;
 
 import com.elektronicare.config.AppiumConfig;
 import io.appium.java_client.android.AndroidDriver;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.TimeoutException;
-import org.openqa.selenium.NoSuchElementException;
-
-import java.io.File;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Utility class for common test operations
  */
 public class TestUtils {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
-
     /**
      * Get driver safely with validation
      */
@@ -45,7 +36,7 @@ public class TestUtils {
         }
 
         try {
-            WebDriverWait wait = new WebDriverWait(driver, AppiumConfig.EXPLICIT_WAIT);
+            WebDriverWait wait = new WebDriverWait(driver, AppiumConfig.explicitWait());
             return wait.until(ExpectedConditions.visibilityOf(element));
         } catch (TimeoutException e) {
             System.err.println("Element not visible within timeout: " + e.getMessage());
@@ -66,7 +57,7 @@ public class TestUtils {
         }
 
         try {
-            WebDriverWait wait = new WebDriverWait(driver, AppiumConfig.EXPLICIT_WAIT);
+            WebDriverWait wait = new WebDriverWait(driver, AppiumConfig.explicitWait());
             return wait.until(ExpectedConditions.elementToBeClickable(element));
         } catch (TimeoutException e) {
             System.err.println("Element not clickable within timeout: " + e.getMessage());
@@ -155,7 +146,8 @@ public class TestUtils {
     }
 
     /**
-     * Take screenshot and save to file with safe driver check
+     * Take screenshot and queue it for saving with safe driver check.
+     * Returns the path the screenshot will be written to.
      */
     public static String takeScreenshot(String testName) {
         AndroidDriver driver = getDriverSafely();
@@ -165,23 +157,9 @@ public class TestUtils {
         }
 
         try {
-            TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File sourceFile = screenshot.getScreenshotAs(OutputType.FILE);
-
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            String fileName = testName + "_" + timestamp + ".png";
-            String screenshotPath = System.getProperty("user.dir") + "/screenshots/" + fileName;
-
-            File destFile = new File(screenshotPath);
-            destFile.getParentFile().mkdirs(); // Create directories if they don't exist
-
-            FileUtils.copyFile(sourceFile, destFile);
-            System.out.println("Screenshot saved: " + screenshotPath);
-
-            return screenshotPath;
-        } catch (IOException e) {
-            System.err.println("Failed to save screenshot: " + e.getMessage());
-            return null;
+            // Only the capture runs on the test thread; encoding and the write are queued
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            return ScreenshotWriter.submit(testName, png);
         } catch (Exception e) {
             System.err.println("Failed to take screenshot: " + e.getMessage());
             return null;
@@ -211,19 +189,7 @@ public class TestUtils {
         }
 
         try {
-            org.openqa.selenium.Dimension size = driver.manage().window().getSize();
-            int startX = size.getWidth() / 2;
-            int startY = (int) (size.getHeight() * 0.8);
-            int endY = (int) (size.getHeight() * 0.2);
-
-            // Use TouchAction for scrolling
-            io.appium.java_client.TouchAction touchAction = new io.appium.java_client.TouchAction(driver);
-            touchAction.press(io.appium.java_client.touch.offset.PointOption.point(startX, startY))
-                       .waitAction(io.appium.java_client.touch.WaitOptions.waitOptions(java.time.Duration.ofMillis(1000)))
-                       .moveTo(io.appium.java_client.touch.offset.PointOption.point(startX, endY))
-                       .release()
-                       .perform();
-
+            GestureEngine.perform(driver, GestureEngine.scroll(driver, GestureEngine.Direction.DOWN));
             System.out.println("Scroll down performed successfully");
         } catch (Exception e) {
             System.err.println("Failed to scroll down: " + e.getMessage());
@@ -241,19 +207,7 @@ public class TestUtils {
         }
 
         try {
-            org.openqa.selenium.Dimension size = driver.manage().window().getSize();
-            int startX = size.getWidth() / 2;
-            int startY = (int) (size.getHeight() * 0.2);
-            int endY = (int) (size.getHeight() * 0.8);
-
-            // Use TouchAction for scrolling
-            io.appium.java_client.TouchAction touchAction = new io.appium.java_client.TouchAction(driver);
-            touchAction.press(io.appium.java_client.touch.offset.PointOption.point(startX, startY))
-                       .waitAction(io.appium.java_client.touch.WaitOptions.waitOptions(java.time.Duration.ofMillis(1000)))
-                       .moveTo(io.appium.java_client.touch.offset.PointOption.point(startX, endY))
-                       .release()
-                       .perform();
-
+            GestureEngine.perform(driver, GestureEngine.scroll(driver, GestureEngine.Direction.UP));
             System.out.println("Scroll up performed successfully");
         } catch (Exception e) {
             System.err.println("Failed to scroll up: " + e.getMessage());
@@ -309,12 +263,7 @@ public class TestUtils {
         }
 
         try {
-            io.appium.java_client.TouchAction touchAction = new io.appium.java_client.TouchAction(driver);
-            touchAction.press(io.appium.java_client.touch.offset.PointOption.point(startX, startY))
-                       .waitAction(io.appium.java_client.touch.WaitOptions.waitOptions(java.time.Duration.ofMillis(1000)))
-                       .moveTo(io.appium.java_client.touch.offset.PointOption.point(endX, endY))
-                       .release()
-                       .perform();
+            GestureEngine.perform(driver, new GestureEngine.Swipe(startX, startY, endX, endY));
 
             System.out.println("Swipe performed successfully from (" + startX + "," + startY + ") to (" + endX + "," + endY + ")");
         } catch (Exception e) {
@@ -323,7 +272,8 @@ public class TestUtils {
     }
 
     /**
-     * Scroll to element by text with safe driver check
+     * Scroll to element by text with safe driver check, searching on the
+     * device first (see ScrollSearch)
      */
     public static void scrollToElement(String text) {
         AndroidDriver driver = getDriverSafely();
@@ -338,33 +288,13 @@ public class TestUtils {
         }
 
         try {
-            // Try to find element first
-            WebElement element = driver.findElement(org.openqa.selenium.By.xpath("//*[@text='" + text + "']"));
-            if (element.isDisplayed()) {
-                System.out.println("Element already visible: " + text);
-                return; // Element already visible
+            ScrollSearch.Result result = ScrollSearch.scrollToText(driver, text);
+            if (!result.isFound()) {
+                System.err.println("Element not found after scrolling: " + text);
             }
-        } catch (NoSuchElementException e) {
-            // Element not found or not visible, continue scrolling
-            System.out.println("Element not immediately visible, scrolling to find: " + text);
-        }
-
-        // Scroll down to find element
-        for (int i = 0; i < 5; i++) {
-            try {
-                WebElement element = driver.findElement(org.openqa.selenium.By.xpath("//*[@text='" + text + "']"));
-                if (element.isDisplayed()) {
-                    System.out.println("Element found after " + i + " scrolls: " + text);
-                    return; // Found element
-                }
-            } catch (NoSuchElementException e) {
-                // Continue scrolling
-            }
-            scrollDown();
-            waitFor(1000);
+        } catch (Exception e) {
+            System.err.println("Failed to scroll to element: " + e.getMessage());
         }
-
-        System.err.println("Element not found after scrolling: " + text);
     }
 
     /**
@@ -398,7 +328,10 @@ public class TestUtils {
         try {
             driver.terminateApp(AppiumConfig.APP_PACKAGE);
             waitFor(2000);
+            long launchStart = System.nanoTime();
             driver.activateApp(AppiumConfig.APP_PACKAGE);
+            ReadinessWaiter.waitForAppLaunched();
+            PerfTelemetry.recordStartup(true, launchStart);
             System.out.println("App restarted successfully");
         } catch (Exception e) {
             System.err.println("Failed to restart app: " + e.getMessage());
@@ -0,0 +1,100 @@
+package com.elektronicare.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency recorder with count, mean, max and percentiles
+ * over a bounded window of the most recent samples
+ */
+public class TimingStats {
+
+    private static final int DEFAULT_WINDOW = 4096;
+
+    private final String name;
+    private final long[] window;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public TimingStats(String name) {
+        this(name, DEFAULT_WINDOW);
+    }
+
+    public TimingStats(String name, int windowSize) {
+        this.name = name;
+        this.window = new long[windowSize];
+    }
+
+    /**
+     * Record one sample in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        window[(int) (count % window.length)] = nanos;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Record the time elapsed since the given System.nanoTime() value
+     */
+    public long recordSince(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        record(elapsed);
+        return elapsed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public synchronized double getMeanMillis() {
+        return count == 0 ? 0 : toMillis(totalNanos / count);
+    }
+
+    public synchronized double getMaxMillis() {
+        return toMillis(maxNanos);
+    }
+
+    /**
+     * Percentile (0-100) over the retained window, in milliseconds
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        int size = (int) Math.min(count, window.length);
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(window, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return toMillis(sorted[Math.max(0, Math.min(index, size - 1))]);
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(window, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.1fms p50=%.1fms p95=%.1fms max=%.1fms",
+                name, getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95), getMaxMillis());
+    }
+}
@@ -0,0 +1,224 @@
+package com.elektronicare.utils;
+
+import com.elektronicare.config.FrameworkConfig;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads every item of a virtualized list (RecyclerView, or a ScrollView of
+ * inflated rows), not just the rows that happen to be bound on screen.
+ *
+ * stream() returns a lazy Stream: each time the items of the current page
+ * are used up it scrolls the container one page with GestureEngine, waits
+ * for the hierarchy to settle and reads the next page from one page source
+ * snapshot. Items are extracted with PageSnapshot.readItems() and
+ * de-duplicated by a stable key across overlapping pages. Only the keys of
+ * the last -Dlist.reader.window (default 512) items are remembered, so
+ * memory stays bounded on long lists; a key must therefore not repeat
+ * within that window for two different items.
+ *
+ * The stream ends when a scroll no longer changes the list, or after
+ * -Dlist.reader.max.pages (default 100). Reading starts at the current
+ * scroll position and leaves the list scrolled wherever it stopped.
+ */
+public class VirtualListReader {
+
+    public static final int KEY_WINDOW = FrameworkConfig.get().getInt("list.reader.window", 512);
+    public static final int MAX_PAGES = FrameworkConfig.get().getInt("list.reader.max.pages", 100);
+
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(2);
+    private static final char KEY_SEPARATOR = '\u001f';
+
+    private static final TimingStats pageStats = new TimingStats("list.page");
+    private static final AtomicLong pagesRead = new AtomicLong();
+    private static final AtomicLong itemsRead = new AtomicLong();
+    private static final AtomicLong duplicatesDropped = new AtomicLong();
+
+    private final AndroidDriver driver;
+    private final String containerXPath;
+    private final String itemXPath;
+    private final Function<ElementRecord, String> keyFunction;
+
+    /**
+     * @param containerXPath the scrolling container, used for its bounds
+     * @param itemXPath one element per list item, e.g. the card of a row
+     * @param keyFunction stable key of an item; items with an empty key are skipped
+     */
+    public VirtualListReader(AndroidDriver driver, String containerXPath, String itemXPath,
+            Function<ElementRecord, String> keyFunction) {
+        this.driver = driver;
+        this.containerXPath = containerXPath;
+        this.itemXPath = itemXPath;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Key made of the given fields of an item, empty if all of them are
+     */
+    public static Function<ElementRecord, String> keyOf(String... fields) {
+        return item -> {
+            StringBuilder key = new StringBuilder();
+            boolean any = false;
+            for (String field : fields) {
+                String value = item.get(field);
+                any |= !value.isEmpty();
+                key.append(value).append(KEY_SEPARATOR);
+            }
+            return any ? key.toString() : "";
+        };
+    }
+
+    /**
+     * Every item of the list, read lazily page by page
+     */
+    public Stream<ElementRecord> stream() {
+        return StreamSupport.stream(new PageSpliterator(), false);
+    }
+
+    public static String getStatsSummary() {
+        return "List reader: pages=" + pagesRead.get() + ", items=" + itemsRead.get() + ", duplicates dropped="
+                + duplicatesDropped.get() + "\n  " + pageStats;
+    }
+
+    /**
+     * Hands out the new items of one page at a time and scrolls for the next
+     */
+    private class PageSpliterator extends Spliterators.AbstractSpliterator<ElementRecord> {
+        private final ArrayDeque<ElementRecord> pending = new ArrayDeque<>();
+        private final LinkedHashSet<String> recentKeys = new LinkedHashSet<>();
+        private PageSnapshot lastSnapshot;
+        private long lastStateHash;
+        private int pages;
+        private boolean exhausted;
+
+        PageSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ElementRecord> action) {
+            while (pending.isEmpty() && !exhausted) {
+                readNextPage();
+            }
+            ElementRecord item = pending.poll();
+            if (item == null) {
+                return false;
+            }
+            action.accept(item);
+            return true;
+        }
+
+        private void readNextPage() {
+            long start = System.nanoTime();
+            try {
+                String source;
+                if (lastSnapshot == null) {
+                    source = driver.getPageSource();
+                } else {
+                    if (pages >= MAX_PAGES) {
+                        System.out.println("List reader stopped after " + pages + " pages: " + itemXPath);
+                        exhausted = true;
+                        return;
+                    }
+                    GestureEngine.perform(driver, "gesture.list", List.of(scrollSwipe(lastSnapshot)));
+                    source = settledSource();
+                }
+                long stateHash = HierarchyFingerprint.of(source).getStateHash();
+                if (lastSnapshot != null && stateHash == lastStateHash) {
+                    // Scrolling no longer moves the list
+                    exhausted = true;
+                    return;
+                }
+                lastSnapshot = PageSnapshot.parse(source);
+                lastStateHash = stateHash;
+                pages++;
+                pagesRead.incrementAndGet();
+                collect(lastSnapshot);
+            } finally {
+                pageStats.recordSince(start);
+            }
+        }
+
+        private void collect(PageSnapshot snapshot) {
+            int[] container = snapshot.boundsOf(containerXPath);
+            List<ElementRecord> items = snapshot.readItems(itemXPath);
+            boolean anyComplete = false;
+            for (ElementRecord item : items) {
+                anyComplete |= isInside(item, container);
+            }
+            for (ElementRecord item : items) {
+                // Rows cut off at an edge may lack fields and get another key; a later page shows them whole
+                if (anyComplete && !isInside(item, container)) {
+                    continue;
+                }
+                String key = keyFunction.apply(item);
+                if (key == null || key.isEmpty()) {
+                    continue;
+                }
+                if (recentKeys.contains(key)) {
+                    duplicatesDropped.incrementAndGet();
+                    continue;
+                }
+                remember(key);
+                pending.add(item);
+                itemsRead.incrementAndGet();
+            }
+        }
+
+        private void remember(String key) {
+            recentKeys.add(key);
+            if (recentKeys.size() > KEY_WINDOW) {
+                Iterator<String> oldest = recentKeys.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+
+        private GestureEngine.Swipe scrollSwipe(PageSnapshot snapshot) {
+            int[] bounds = snapshot.boundsOf(containerXPath);
+            if (bounds == null) {
+                return GestureEngine.scroll(driver, GestureEngine.Direction.DOWN);
+            }
+            Rectangle area = new Rectangle(new Point(bounds[0], bounds[1]),
+                    new Dimension(bounds[2] - bounds[0], bounds[3] - bounds[1]));
+            return GestureEngine.scroll(area, GestureEngine.Direction.DOWN);
+        }
+
+        /**
+         * Page source once two consecutive snapshots agree
+         */
+        private String settledSource() {
+            HierarchyFingerprint.SettleTracker tracker = new HierarchyFingerprint.SettleTracker(1);
+            String[] source = new String[1];
+            ReadinessWaiter.waitUntil("list.settle", SETTLE_TIMEOUT, () -> {
+                source[0] = driver.getPageSource();
+                return tracker.observe(HierarchyFingerprint.of(source[0]));
+            });
+            return source[0] != null ? source[0] : driver.getPageSource();
+        }
+    }
+
+    private static boolean isInside(ElementRecord item, int[] container) {
+        int[] bounds = PageSnapshot.parseBounds(item.get("bounds"));
+        if (container == null || bounds == null) {
+            return true;
+        }
+        return bounds[0] >= container[0] && bounds[1] >= container[1] && bounds[2] <= container[2]
+                && bounds[3] <= container[3];
+    }
+}
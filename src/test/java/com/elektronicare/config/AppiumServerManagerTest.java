@@ -0,0 +1,217 @@
+package com.elektronicare.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * AppiumServerManager with a launcher that starts JDK HttpServer stubs
+ * answering /status, so no Appium installation is needed
+ */
+public class AppiumServerManagerTest {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * /status stub standing in for an Appium server; crash() stops it without the manager knowing
+     */
+    private static class StubServer implements AppiumServerManager.ServerHandle {
+        private final int port;
+        private final HttpServer server;
+        private volatile boolean running = true;
+
+        StubServer(int port) throws IOException {
+            this.port = port;
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+            server.createContext("/status", exchange -> {
+                byte[] body = "{\"value\":{\"ready\":true}}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        void crash() {
+            running = false;
+            server.stop(0);
+        }
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void stop() {
+            if (running) {
+                crash();
+            }
+        }
+    }
+
+    private final Map<Integer, StubServer> launched = new ConcurrentHashMap<>();
+    private final AtomicInteger failingLaunches = new AtomicInteger();
+    private final AppiumServerManager.ServerLauncher launcher = port -> {
+        if (failingLaunches.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new IOException("launch failed");
+        }
+        StubServer server = new StubServer(port);
+        launched.put(port, server);
+        return server;
+    };
+
+    private AppiumServerManager manager;
+    private int slotPort;
+    private int rangeStart;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        int[] ports = freePorts(3);
+        slotPort = ports[0];
+        rangeStart = ports[1];
+        launched.clear();
+        failingLaunches.set(0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        if (manager != null) {
+            manager.stopAll();
+        }
+        launched.values().forEach(StubServer::stop);
+    }
+
+    @Test
+    public void startWaitsForStatus() {
+        manager = new AppiumServerManager(launcher, rangeStart, rangeStart + 1, 0, READY_TIMEOUT);
+        manager.start(List.of(slotPort));
+
+        assertTrue(manager.hasSlot(slotPort));
+        assertTrue(manager.isReady(slotPort));
+        assertEquals(manager.getServerUrl(slotPort), "http://127.0.0.1:" + slotPort);
+    }
+
+    @Test
+    public void runningServerIsAdopted() throws IOException {
+        StubServer external = new StubServer(slotPort);
+        try {
+            manager = new AppiumServerManager(launcher, rangeStart, rangeStart + 1, 0, READY_TIMEOUT);
+            manager.start(List.of(slotPort));
+
+            assertTrue(launched.isEmpty());
+            manager.stopAll();
+            assertTrue(external.isRunning());
+        } finally {
+            external.stop();
+        }
+    }
+
+    @Test
+    public void deadServerIsReplacedByStandby() throws InterruptedException {
+        manager = new AppiumServerManager(launcher, rangeStart, rangeStart + 1, 1, READY_TIMEOUT);
+        manager.start(List.of(slotPort));
+        waitForStandby(1);
+
+        launched.get(slotPort).crash();
+        manager.ensureRunning(slotPort);
+
+        assertEquals(manager.getRestartCount(), 1);
+        assertEquals(manager.getServerUrl(slotPort), "http://127.0.0.1:" + rangeStart);
+        assertTrue(manager.isReady(rangeStart));
+    }
+
+    @Test
+    public void repeatedCrashesReuseFreedPorts() {
+        // A single spare port: every replacement must get the previous one's port back
+        manager = new AppiumServerManager(launcher, rangeStart, rangeStart, 0, READY_TIMEOUT);
+        manager.start(List.of(slotPort));
+
+        for (int crash = 1; crash <= 3; crash++) {
+            launched.get(portOf(manager.getServerUrl(slotPort))).crash();
+            manager.ensureRunning(slotPort);
+
+            assertEquals(manager.getServerUrl(slotPort), "http://127.0.0.1:" + rangeStart);
+            assertTrue(manager.isReady(rangeStart));
+        }
+        assertEquals(manager.getRestartCount(), 3);
+    }
+
+    @Test
+    public void failedLaunchReleasesItsPort() {
+        manager = new AppiumServerManager(launcher, rangeStart, rangeStart, 0, READY_TIMEOUT);
+        manager.start(List.of(slotPort));
+        launched.get(slotPort).crash();
+
+        failingLaunches.set(1);
+        assertThrows(RuntimeException.class, () -> manager.ensureRunning(slotPort));
+        assertFalse(manager.isReady(rangeStart));
+
+        manager.ensureRunning(slotPort);
+        assertEquals(manager.getServerUrl(slotPort), "http://127.0.0.1:" + rangeStart);
+    }
+
+    private void waitForStandby(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (manager.getStandbyCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(manager.getStandbyCount(), count);
+    }
+
+    private static int portOf(String url) {
+        return Integer.parseInt(url.substring(url.lastIndexOf(':') + 1));
+    }
+
+    /**
+     * A free port followed by a run of consecutive free ports for the standby range
+     */
+    private static int[] freePorts(int count) throws IOException {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            int base;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                base = socket.getLocalPort();
+            }
+            if (base + count > 65535) {
+                continue;
+            }
+            int[] ports = new int[count];
+            boolean free = true;
+            for (int i = 0; i < count && free; i++) {
+                ports[i] = base + i;
+                try (ServerSocket socket = new ServerSocket(ports[i])) {
+                    socket.setReuseAddress(true);
+                } catch (IOException e) {
+                    free = false;
+                }
+            }
+            if (free) {
+                return ports;
+            }
+        }
+        throw new IOException("No run of " + count + " free ports");
+    }
+}
@@ -0,0 +1,104 @@
+package com.elektronicare.config;
+
+import com.elektronicare.support.FakeWebDriverServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Lease, release and health-discard of SessionPool against FakeWebDriverServer
+ */
+public class SessionPoolTest {
+
+    private FakeWebDriverServer server;
+    private SessionPool pool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        server = new FakeWebDriverServer("<hierarchy/>");
+        URL url = server.start();
+        pool = new SessionPool(() -> new AndroidDriver(url, new UiAutomator2Options()), "com.example.app", 1,
+                SessionPool.ResetStrategy.CLEAR_APP);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        server.setSessionsFailing(false);
+        pool.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void releasedSessionIsReused() {
+        AndroidDriver first = pool.lease();
+        pool.release(first);
+
+        assertSame(pool.lease(), first);
+        assertEquals(server.getSessionCount(), 1);
+    }
+
+    @Test
+    public void leaseCreatesSessionWhenNoneIsIdle() {
+        AndroidDriver first = pool.lease();
+        AndroidDriver second = pool.lease();
+
+        assertNotSame(second, first);
+        assertEquals(pool.getLeasedCount(), 2);
+        assertEquals(server.getSessionCount(), 2);
+    }
+
+    @Test
+    public void releaseKeepsAtMostMaxSizeIdle() {
+        AndroidDriver first = pool.lease();
+        AndroidDriver second = pool.lease();
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(pool.getIdleCount(), 1);
+        assertEquals(pool.getLeasedCount(), 0);
+        assertSame(pool.lease(), first);
+        assertEquals(server.getSessionCount(), 2);
+    }
+
+    @Test
+    public void unhealthyIdleSessionIsDiscardedOnLease() {
+        AndroidDriver first = pool.lease();
+        pool.release(first);
+        server.setSessionsFailing(true);
+
+        AndroidDriver second = pool.lease();
+
+        assertNotSame(second, first);
+        assertEquals(server.getSessionCount(), 2);
+        assertEquals(pool.getIdleCount(), 0);
+        assertEquals(pool.getLeasedCount(), 1);
+    }
+
+    @Test
+    public void sessionThatFailsResetIsNotPooled() {
+        AndroidDriver first = pool.lease();
+        server.setSessionsFailing(true);
+
+        pool.release(first);
+
+        assertEquals(pool.getIdleCount(), 0);
+        assertEquals(pool.getLeasedCount(), 0);
+    }
+
+    @Test
+    public void releaseIgnoresSessionsNotLeased() {
+        AndroidDriver first = pool.lease();
+        pool.release(first);
+        pool.release(first);
+
+        assertEquals(pool.getIdleCount(), 1);
+    }
+}
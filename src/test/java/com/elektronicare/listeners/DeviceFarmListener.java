@@ -0,0 +1,29 @@
+package com.elektronicare.listeners;
+
+import com.elektronicare.config.DevicePool;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Switches the suite to parallel="methods" with one thread per device
+ * when a device farm is configured with -Ddevices=...
+ */
+public class DeviceFarmListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!DevicePool.isFarmMode()) {
+            return;
+        }
+
+        int deviceCount = DevicePool.getDevices().size();
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(deviceCount);
+            System.out.println("Device farm mode: running " + suite.getName() + " with " + deviceCount
+                    + " parallel threads on " + DevicePool.getDevices());
+        }
+    }
+}
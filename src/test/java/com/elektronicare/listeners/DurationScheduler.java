@@ -0,0 +1,217 @@
+package com.elektronicare.listeners;
+
+import com.elektronicare.config.FrameworkConfig;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schedules test methods from their historical durations.
+ *
+ * - A method already scheduled by an earlier &lt;test&gt; block of the suite is
+ *   dropped, so overlapping blocks (Smoke, Full Regression, UI, ...) run
+ *   each method once.
+ * - With -Dshard.total=N -Dshard.index=i, methods are packed onto N shards
+ *   longest-processing-time first (each method goes to the least loaded
+ *   shard) and only shard i's methods are kept. Every shard computes the
+ *   same plan, so all shards must use the same history file.
+ * - Kept methods are ordered longest first, which gives LPT packing across
+ *   devices when the suite runs with one thread per device.
+ *
+ * Durations are wall time per method including its configuration methods,
+ * smoothed over runs and stored in .test-durations.properties (or
+ * -Dscheduler.history=path). -Dscheduler=false leaves the suite untouched.
+ */
+public class DurationScheduler implements IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+
+    private static final boolean ENABLED = FrameworkConfig.get().getBoolean("scheduler", true);
+    private static final boolean DEDUPE = FrameworkConfig.get().getBoolean("scheduler.dedupe", true);
+    private static final int SHARD_TOTAL = Math.max(1, FrameworkConfig.get().getInt("shard.total", 1));
+    private static final int SHARD_INDEX = FrameworkConfig.get().getInt("shard.index", 0);
+    private static final Path HISTORY = Paths.get(FrameworkConfig.get().getString("scheduler.history",
+            System.getProperty("user.dir") + "/.test-durations.properties"));
+
+    private static final long DEFAULT_ESTIMATE_MS = 60_000;
+    private static final double SMOOTHING = 0.5;
+
+    private static final Map<String, Long> history = new ConcurrentHashMap<>();
+    private static final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private static final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private static final long[] shardLoads = new long[SHARD_TOTAL];
+    private static final ThreadLocal<Long> spanStart = new ThreadLocal<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        scheduled.clear();
+        measured.clear();
+        synchronized (shardLoads) {
+            Arrays.fill(shardLoads, 0);
+        }
+        loadHistory();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        saveHistory();
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED) {
+            return methods;
+        }
+
+        List<IMethodInstance> unique = new ArrayList<>();
+        Set<String> seenInBlock = new HashSet<>();
+        int duplicates = 0;
+        for (IMethodInstance method : methods) {
+            String key = keyOf(method);
+            boolean alreadyRun = DEDUPE && scheduled.contains(key) && !seenInBlock.contains(key);
+            if (alreadyRun) {
+                duplicates++;
+                continue;
+            }
+            seenInBlock.add(key);
+            unique.add(method);
+        }
+        scheduled.addAll(seenInBlock);
+
+        // Longest first; ties broken by name so every shard computes the same plan
+        unique.sort(Comparator.comparingLong((IMethodInstance method) -> estimate(keyOf(method))).reversed()
+                .thenComparing(DurationScheduler::keyOf));
+
+        List<IMethodInstance> kept = new ArrayList<>();
+        long keptTotal = 0;
+        long longest = 0;
+        long blockTotal = 0;
+        synchronized (shardLoads) {
+            for (IMethodInstance method : unique) {
+                long estimate = estimate(keyOf(method));
+                blockTotal += estimate;
+                int shard = leastLoadedShard();
+                shardLoads[shard] += estimate;
+                if (shard == SHARD_INDEX) {
+                    kept.add(method);
+                    keptTotal += estimate;
+                    longest = Math.max(longest, estimate);
+                }
+            }
+        }
+
+        System.out.println(String.format("Scheduler [%s]: %d methods, %d duplicates dropped, shard %d/%d keeps %d"
+                + " (est. %ds, block lower bound %ds)", context.getName(), methods.size(), duplicates,
+                SHARD_INDEX, SHARD_TOTAL, kept.size(), keptTotal / 1000,
+                Math.max(longest, blockTotal / SHARD_TOTAL) / 1000));
+        return kept;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (spanStart.get() == null) {
+            spanStart.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * A method's span runs from the first configuration method before it to
+     * the end of the test itself; teardown is counted towards the next test.
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || spanStart.get() == null) {
+            return;
+        }
+        long duration = System.currentTimeMillis() - spanStart.get();
+        spanStart.remove();
+        measured.merge(testResult.getMethod().getQualifiedName(), duration, Math::max);
+    }
+
+    private static int leastLoadedShard() {
+        int best = 0;
+        for (int shard = 1; shard < shardLoads.length; shard++) {
+            if (shardLoads[shard] < shardLoads[best]) {
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    private static String keyOf(IMethodInstance method) {
+        return method.getMethod().getQualifiedName();
+    }
+
+    /**
+     * Historical duration, or the mean of known methods for a new one
+     */
+    private static long estimate(String key) {
+        Long known = history.get(key);
+        if (known != null) {
+            return known;
+        }
+        return history.isEmpty() ? DEFAULT_ESTIMATE_MS
+                : (long) history.values().stream().mapToLong(Long::longValue).average().orElse(DEFAULT_ESTIMATE_MS);
+    }
+
+    private static void loadHistory() {
+        history.clear();
+        if (!Files.exists(HISTORY)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(HISTORY)) {
+            properties.load(in);
+            for (String key : properties.stringPropertyNames()) {
+                history.put(key, Long.parseLong(properties.getProperty(key)));
+            }
+            System.out.println("Scheduler: loaded " + history.size() + " method durations from " + HISTORY);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Scheduler: ignoring unreadable history " + HISTORY + ": " + e.getMessage());
+        }
+    }
+
+    private static void saveHistory() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Map<String, Long> merged = new TreeMap<>(history);
+        for (Map.Entry<String, Long> entry : measured.entrySet()) {
+            Long previous = merged.get(entry.getKey());
+            merged.put(entry.getKey(), previous == null ? entry.getValue()
+                    : Math.round(SMOOTHING * entry.getValue() + (1 - SMOOTHING) * previous));
+        }
+
+        // Written by hand rather than Properties.store so the keys stay sorted and the file diffable
+        List<String> lines = new ArrayList<>();
+        lines.add("# Test method durations in ms, maintained by DurationScheduler");
+        merged.forEach((key, value) -> lines.add(key + "=" + value));
+        try {
+            Files.write(HISTORY, lines, StandardCharsets.ISO_8859_1);
+            System.out.println("Scheduler: saved " + merged.size() + " method durations to " + HISTORY);
+        } catch (IOException e) {
+            System.err.println("Scheduler: could not save history " + HISTORY + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.elektronicare.listeners;
+
+import com.elektronicare.config.DriverRecovery;
+import com.elektronicare.config.FrameworkConfig;
+import com.elektronicare.utils.ExtentReportManager;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries a test only when it failed because of the infrastructure (lost
+ * session, broken connection, crashed UiAutomator2, app gone from the
+ * foreground) and DriverRecovery brought the session back. Assertion
+ * failures and ordinary element errors are reported as they are.
+ *
+ * The recovered session is reset to a clean app state and kept for the
+ * retry instead of being quit. -Dretry.max=1 sets the retries per method.
+ */
+public class SmartRetryAnalyzer implements IRetryAnalyzer {
+
+    private static final int MAX_RETRIES = FrameworkConfig.get().getInt("retry.max", 1);
+
+    private final AtomicInteger retries = new AtomicInteger();
+
+    @Override
+    public boolean retry(ITestResult result) {
+        String test = result.getMethod().getQualifiedName();
+        DriverRecovery.Failure failure = DriverRecovery.diagnose(result.getThrowable());
+        result.setAttribute("failure", failure.name());
+        if (!failure.isInfrastructure()) {
+            return false;
+        }
+        if (retries.get() >= MAX_RETRIES) {
+            System.out.println("Not retrying " + test + ": " + failure + " after " + retries.get() + " retries");
+            return false;
+        }
+
+        DriverRecovery.Outcome outcome = DriverRecovery.recover(failure);
+        result.setAttribute("recovery", outcome.toString());
+        if (!outcome.isRecovered() || !DriverRecovery.resetAppForRetry()) {
+            return false;
+        }
+
+        DriverRecovery.keepForRetry();
+        int attempt = retries.incrementAndGet();
+        String message = "Retrying " + test + " (" + attempt + "/" + MAX_RETRIES + ") after " + outcome;
+        System.out.println(message);
+        try {
+            ExtentReportManager.logWarning(message);
+        } catch (Exception e) {
+            System.err.println("Failed to log retry to ExtentReport: " + e.getMessage());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package com.elektronicare.listeners;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.IRetryAnalyzer;
+import org.testng.annotations.ITestAnnotation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Attaches SmartRetryAnalyzer to every test that does not set its own
+ * retry analyzer. Without one TestNG reports a no-op analyzer of its own,
+ * so any analyzer from an org.testng package counts as unset.
+ */
+public class SmartRetryListener implements IAnnotationTransformer {
+
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor,
+            Method testMethod) {
+        Class<? extends IRetryAnalyzer> current = annotation.getRetryAnalyzerClass();
+        if (current == null || current.getName().startsWith("org.testng.")) {
+            annotation.setRetryAnalyzer(SmartRetryAnalyzer.class);
+        }
+    }
+}
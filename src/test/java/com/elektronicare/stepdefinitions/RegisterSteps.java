@@ -1,5 +1,6 @@
 package com.elektronicare.stepdefinitions;
 
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.RegisterPage;
 import com.elektronicare.pages.LoginPage;
 import com.elektronicare.utils.TestUtils;
@@ -10,110 +11,111 @@ import org.testng.Assert;
 
 public class RegisterSteps {
     
-    private RegisterPage registerPage;
-    private LoginPage loginPage;
-    
-    public RegisterSteps() {
-        this.registerPage = new RegisterPage();
-        this.loginPage = new LoginPage();
+    // Pages are resolved per session on first use
+    private RegisterPage registerPage() {
+        return PageRegistry.get(RegisterPage.class);
+    }
+
+    private LoginPage loginPage() {
+        return PageRegistry.get(LoginPage.class);
     }
     
     @Given("I am on the register screen")
     public void i_am_on_the_register_screen() {
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Should be on register screen");
     }
     
     @Then("I should see the register page")
     public void i_should_see_the_register_page() {
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Register page should be displayed");
     }
     
     @Then("I should see the full name field")
     public void i_should_see_the_full_name_field() {
         // Field visibility is verified in page display check
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Full name field should be visible");
     }
     
     @Then("I should see the mobile field")
     public void i_should_see_the_mobile_field() {
         // Field visibility is verified in page display check
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Mobile field should be visible");
     }
     
     @Then("I should see the email field")
     public void i_should_see_the_email_field() {
         // Field visibility is verified in page display check
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Email field should be visible");
     }
     
     @Then("I should see the password field")
     public void i_should_see_the_password_field() {
         // Field visibility is verified in page display check
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Password field should be visible");
     }
     
     @Then("I should see the create account button")
     public void i_should_see_the_create_account_button() {
         // Button visibility is verified in page display check
-        Assert.assertTrue(registerPage.isRegisterPageDisplayed(), 
+        Assert.assertTrue(registerPage().isRegisterPageDisplayed(), 
             "Create account button should be visible");
     }
     
     @When("I click the create account button")
     public void i_click_the_create_account_button() {
-        registerPage.clickCreateAccount();
+        registerPage().clickCreateAccount();
     }
     
     @Then("I should see full name error")
     public void i_should_see_full_name_error() {
-        Assert.assertTrue(registerPage.isFullNameErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isFullNameErrorDisplayed(), 
             "Full name error should be displayed");
     }
     
     @Then("I should see email error")
     public void i_should_see_email_error() {
-        Assert.assertTrue(registerPage.isEmailErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isEmailErrorDisplayed(), 
             "Email error should be displayed");
     }
     
     @Then("I should see password error")
     public void i_should_see_password_error() {
-        Assert.assertTrue(registerPage.isPasswordErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isPasswordErrorDisplayed(), 
             "Password error should be displayed");
     }
     
     @When("I enter full name {string}")
     public void i_enter_full_name(String fullName) {
-        registerPage.enterFullName(fullName);
+        registerPage().enterFullName(fullName);
     }
     
     @When("I enter email {string}")
     public void i_enter_email(String email) {
-        registerPage.enterEmail(email);
+        registerPage().enterEmail(email);
     }
     
     @When("I enter password {string}")
     public void i_enter_password(String password) {
-        registerPage.enterPassword(password);
+        registerPage().enterPassword(password);
     }
     
     @When("I enter mobile {string}")
     public void i_enter_mobile(String mobile) {
-        registerPage.enterMobile(mobile);
+        registerPage().enterMobile(mobile);
     }
     
     @Then("I should see email validation error")
     public void i_should_see_email_validation_error() {
-        Assert.assertTrue(registerPage.isEmailErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isEmailErrorDisplayed(), 
             "Email validation error should be displayed");
         
-        String errorText = registerPage.getEmailErrorText();
+        String errorText = registerPage().getEmailErrorText();
         Assert.assertTrue(errorText.toLowerCase().contains("valid") || 
                          errorText.toLowerCase().contains("email"), 
             "Email error should mention valid email format");
@@ -121,26 +123,26 @@ public class RegisterSteps {
     
     @Then("I should see mobile validation error")
     public void i_should_see_mobile_validation_error() {
-        Assert.assertTrue(registerPage.isMobileErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isMobileErrorDisplayed(), 
             "Mobile validation error should be displayed");
     }
     
     @Then("I should see password validation error")
     public void i_should_see_password_validation_error() {
-        Assert.assertTrue(registerPage.isPasswordErrorDisplayed(), 
+        Assert.assertTrue(registerPage().isPasswordErrorDisplayed(), 
             "Password validation error should be displayed");
     }
     
     @Then("the error should mention {string}")
     public void the_error_should_mention(String expectedText) {
-        String passwordError = registerPage.getPasswordErrorText();
+        String passwordError = registerPage().getPasswordErrorText();
         Assert.assertTrue(passwordError.contains(expectedText), 
             "Password error should mention: " + expectedText);
     }
     
     @When("I click the password visibility toggle")
     public void i_click_the_password_visibility_toggle() {
-        registerPage.clickTogglePasswordVisibility();
+        registerPage().clickTogglePasswordVisibility();
     }
     
     @Then("the password should be visible")
@@ -161,18 +163,18 @@ public class RegisterSteps {
     
     @When("I click the sign in link")
     public void i_click_the_sign_in_link() {
-        registerPage.clickSignInLink();
+        registerPage().clickSignInLink();
     }
     
     @Then("I should be navigated to the login page")
     public void i_should_be_navigated_to_the_login_page() {
-        Assert.assertTrue(loginPage.isLoginPageDisplayed(), 
+        Assert.assertTrue(loginPage().isLoginPageDisplayed(), 
             "Should be navigated to login page");
     }
     
     @When("I click the back button")
     public void i_click_the_back_button() {
-        registerPage.clickBack();
+        registerPage().clickBack();
     }
     
     @Then("I should navigate back")
@@ -183,7 +185,7 @@ public class RegisterSteps {
     
     @When("I click the Google sign in button")
     public void i_click_the_google_sign_in_button() {
-        registerPage.clickGoogleSignIn();
+        registerPage().clickGoogleSignIn();
     }
     
     @Then("the Google sign in should be initiated")
@@ -194,7 +196,7 @@ public class RegisterSteps {
     
     @Then("the phone number should be formatted correctly")
     public void the_phone_number_should_be_formatted_correctly() {
-        String formattedNumber = registerPage.getMobileValue();
+        String formattedNumber = registerPage().getMobileValue();
         Assert.assertTrue(formattedNumber.startsWith("0") || formattedNumber.startsWith("8"), 
             "Phone number should be formatted correctly");
     }
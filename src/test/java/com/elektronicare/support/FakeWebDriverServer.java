@@ -0,0 +1,175 @@
+package com.elektronicare.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal W3C WebDriver endpoint on localhost. It answers just enough of
+ * the protocol for an AndroidDriver session: a single element lookup finds
+ * one displayed element, a multiple lookup finds setElementCount() of them
+ * (default 1), the page source is a fixture and the current activity is
+ * fixed. Benchmarks then measure the framework's own overhead
+ * plus a loopback round trip, without a device, and unit tests drive the
+ * framework through real HTTP without one.
+ *
+ * Every new session gets its own id. setSessionsFailing(true) makes every
+ * command on an existing session fail with "invalid session id", the way a
+ * crashed UiAutomator2 server answers.
+ */
+public class FakeWebDriverServer {
+
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+
+    private final String pageSource;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+    private volatile boolean sessionsFailing;
+    private volatile int elementCount = 1;
+    private HttpServer server;
+
+    public FakeWebDriverServer(String pageSource) {
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Start on a free port and return the server URL
+     */
+    public URL start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "fake-webdriver");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Number of sessions created so far
+     */
+    public long getSessionCount() {
+        return sessions.get();
+    }
+
+    /**
+     * Number of elements every findElements call returns
+     */
+    public void setElementCount(int elementCount) {
+        this.elementCount = elementCount;
+    }
+
+    public void setSessionsFailing(boolean failing) {
+        this.sessionsFailing = failing;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (sessionsFailing && !("POST".equals(method) && path.endsWith("/session"))) {
+            respond(exchange, 404, "{\"value\":{\"error\":\"invalid session id\",\"message\":\"Session does not"
+                    + " exist\",\"stacktrace\":\"\"}}");
+            return;
+        }
+        respond(exchange, 200, "{\"value\":" + valueFor(method, path, body) + "}");
+    }
+
+    private String valueFor(String method, String path, String body) {
+        if ("POST".equals(method) && path.endsWith("/session")) {
+            return "{\"sessionId\":\"fake-session-" + sessions.incrementAndGet() + "\",\"capabilities\":{"
+                    + "\"platformName\":\"Android\",\"automationName\":\"UiAutomator2\",\"deviceName\":\"fake\"}}";
+        }
+        if (path.endsWith("/elements")) {
+            StringBuilder elements = new StringBuilder("[");
+            for (int i = 1; i <= elementCount; i++) {
+                elements.append(i > 1 ? "," : "").append(element(i));
+            }
+            return elements.append(']').toString();
+        }
+        if (path.endsWith("/element")) {
+            return element(1);
+        }
+        if (path.endsWith("/displayed") || path.endsWith("/enabled")) {
+            return "true";
+        }
+        if (path.endsWith("/selected")) {
+            return "false";
+        }
+        // java-client 9 asks for the activity through an execute script
+        if (path.endsWith("/current_activity")
+                || path.endsWith("/execute/sync") && body.contains("mobile: getCurrentActivity")) {
+            return "\".MainActivity\"";
+        }
+        if (path.endsWith("/source")) {
+            return quote(pageSource);
+        }
+        if (path.endsWith("/text") || path.contains("/attribute/")) {
+            return "\"fake\"";
+        }
+        if (path.endsWith("/rect")) {
+            return "{\"x\":0,\"y\":0,\"width\":100,\"height\":50}";
+        }
+        return "null";
+    }
+
+    private static String element(int index) {
+        return "{\"" + ELEMENT_KEY + "\":\"element-" + index + "\"}";
+    }
+
+    private static String quote(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 64).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
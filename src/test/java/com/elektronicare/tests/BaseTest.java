@@ -1,21 +1,46 @@
 package com.elektronicare.tests;
 
 import com.elektronicare.config.AppiumConfig;
+import com.elektronicare.config.DriverHealthMonitor;
+import com.elektronicare.config.DriverRecovery;
+import com.elektronicare.utils.DriverManager;
 import com.elektronicare.utils.ExtentReportManager;
+import com.elektronicare.utils.GestureEngine;
+import com.elektronicare.utils.LocatorCompiler;
+import com.elektronicare.utils.LocatorMetrics;
+import com.elektronicare.utils.LogcatCollector;
+import com.elektronicare.utils.LoginStateCache;
+import com.elektronicare.utils.PageSnapshotCache;
+import com.elektronicare.utils.PerfTelemetry;
+import com.elektronicare.utils.ReadinessWaiter;
+import com.elektronicare.utils.ScreenshotWriter;
+import com.elektronicare.utils.ScrollSearch;
 import com.elektronicare.utils.TestUtils;
+import com.elektronicare.utils.VirtualListReader;
+import com.elektronicare.pages.BasePage;
+import com.elektronicare.pages.DashboardPage;
+import com.elektronicare.pages.HistoryPage;
+import com.elektronicare.pages.LoginPage;
+import com.elektronicare.pages.Navigator;
 import com.elektronicare.pages.OnboardingPage;
+import com.elektronicare.pages.PageRegistry;
+import com.elektronicare.pages.ProfilePage;
+import com.elektronicare.pages.RegisterPage;
+import com.elektronicare.pages.ServicesPage;
 import com.elektronicare.pages.WelcomePage;
 import io.appium.java_client.android.AndroidDriver;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
+import java.lang.reflect.Method;
+
 /**
- * Base test class with common setup and teardown methods
+ * Base test class with common setup and teardown methods.
+ * The driver is resolved per thread through DriverManager so test methods
+ * can run in parallel across devices.
  */
 public class BaseTest {
 
-    protected AndroidDriver driver;
-
     @BeforeSuite
     public void beforeSuite() {
         System.out.println("=== Starting ElektroniCare Test Suite ===");
@@ -23,28 +48,45 @@ public class BaseTest {
         // Initialize ExtentReports
         ExtentReportManager.initReports();
 
+        // Compile page object XPath locators and report the ones that stay XPath
+        System.out.println(LocatorCompiler.compileAll(OnboardingPage.class, WelcomePage.class, LoginPage.class,
+                RegisterPage.class, DashboardPage.class, ServicesPage.class, HistoryPage.class, ProfilePage.class));
+
         // Start Appium server
         AppiumConfig.startAppiumServer();
 
+        // Create pooled sessions up front so the first tests do not pay for them
+        if (AppiumConfig.SESSION_POOL_ENABLED) {
+            AppiumConfig.warmUpSessionPools();
+        }
+
         System.out.println("Test suite setup completed");
     }
 
     @BeforeMethod
-    public void beforeMethod() {
+    public void beforeMethod(Method method) {
         System.out.println("Setting up test method...");
+        PerfTelemetry.beginTest(method.getDeclaringClass().getSimpleName() + "." + method.getName());
 
         try {
             // Initialize driver
-            driver = AppiumConfig.initializeDriver();
+            long launchStart = System.nanoTime();
+            AndroidDriver driver = AppiumConfig.initializeDriver();
 
             if (driver == null) {
                 throw new RuntimeException("Failed to initialize driver - driver is null");
             }
 
             System.out.println("Driver initialized successfully: " + driver.getSessionId());
+            LogcatCollector.markTestStart();
 
             // Wait for app to launch and splash to complete
-            TestUtils.waitFor(4000);
+            if (!ReadinessWaiter.waitForAppLaunched()) {
+                System.out.println("App launch not confirmed within timeout, continuing");
+            }
+            // A session seen for the first time launched the app; a reused one only brought it back
+            PerfTelemetry.recordStartup(PerfTelemetry.isNewSession(driver), launchStart);
+            PerfTelemetry.recordMemory("start");
 
             System.out.println("Test method setup completed");
 
@@ -60,6 +102,7 @@ public class BaseTest {
      */
     protected void initializeDriver() {
         try {
+            AndroidDriver driver = driver();
             if (driver == null) {
                 System.out.println("Driver is null, initializing...");
                 driver = AppiumConfig.initializeDriver();
@@ -69,7 +112,7 @@ public class BaseTest {
                 }
 
                 System.out.println("Driver initialized with session: " + driver.getSessionId());
-                TestUtils.waitFor(2000); // Wait for app to stabilize
+                ReadinessWaiter.waitForAppLaunched(); // Wait for app to stabilize
             } else {
                 // Check if existing driver is still active
                 try {
@@ -81,7 +124,7 @@ public class BaseTest {
                     if (driver == null) {
                         throw new RuntimeException("Failed to reinitialize driver");
                     }
-                    TestUtils.waitFor(2000);
+                    ReadinessWaiter.waitForAppLaunched();
                 }
             }
         } catch (Exception e) {
@@ -95,12 +138,8 @@ public class BaseTest {
      */
     protected boolean isDriverActive() {
         try {
-            if (driver == null) {
-                return false;
-            }
-            // Try to get current activity to check if driver is responsive
-            driver.currentActivity();
-            return true;
+            // Cached health state; only probes the device when the state is stale
+            return AppiumConfig.isDriverInitialized();
         } catch (Exception e) {
             System.out.println("Driver check failed: " + e.getMessage());
             return false;
@@ -112,71 +151,59 @@ public class BaseTest {
      * This should be called by tests that need to reach login/register pages
      */
     protected void navigateToWelcome() {
-        try {
-            // Ensure driver is active before navigation
-            if (!isDriverActive()) {
-                initializeDriver();
-            }
-
-            OnboardingPage onboardingPage = new OnboardingPage();
-
-            // Check if we're on onboarding page
-            if (onboardingPage.isOnboardingPageDisplayed()) {
-                logInfo("Navigating through onboarding to welcome page");
-                onboardingPage.skipOnboarding();
-                TestUtils.waitFor(3000);
-            }
-        } catch (Exception e) {
-            System.err.println("Navigation to welcome failed: " + e.getMessage());
-            throw new RuntimeException("Failed to navigate to welcome page", e);
-        }
+        navigate(Navigator.Screen.WELCOME);
     }
 
     /**
      * Navigate to login page from welcome
      */
     protected void navigateToLogin() {
-        try {
-            navigateToWelcome();
+        navigate(Navigator.Screen.LOGIN);
+    }
 
-            if (!isDriverActive()) {
-                throw new RuntimeException("Driver not active before navigating to login");
-            }
+    /**
+     * Navigate to register page from welcome
+     */
+    protected void navigateToRegister() {
+        navigate(Navigator.Screen.REGISTER);
+    }
 
-            WelcomePage welcomePage = new WelcomePage();
+    /**
+     * Log in to the dashboard, restoring a cached login state when one is available
+     */
+    protected void loginAs(String email, String password) {
+        if (!isDriverActive()) {
+            initializeDriver();
+        }
+        if (LoginStateCache.restore(email)) {
+            logInfo("Restored cached login state for " + email);
+            return;
+        }
 
-            if (welcomePage.isWelcomePageDisplayed()) {
-                logInfo("Navigating from welcome to login page");
-                welcomePage.clickSignIn();
-                TestUtils.waitFor(2000);
-            }
-        } catch (Exception e) {
-            System.err.println("Navigation to login failed: " + e.getMessage());
-            throw new RuntimeException("Failed to navigate to login page", e);
+        navigateToLogin();
+        PageRegistry.get(LoginPage.class).login(email, password);
+        if (LoginStateCache.waitForDashboard(ReadinessWaiter.DEFAULT_TIMEOUT)) {
+            LoginStateCache.capture(email);
+        } else {
+            logInfo("Dashboard not shown after logging in as " + email + "; login state not cached");
         }
     }
 
     /**
-     * Navigate to register page from welcome
+     * Reach a screen by shortcut or UI walk and log which route was taken
      */
-    protected void navigateToRegister() {
+    private void navigate(Navigator.Screen screen) {
         try {
-            navigateToWelcome();
-
+            // Ensure driver is active before navigation
             if (!isDriverActive()) {
-                throw new RuntimeException("Driver not active before navigating to register");
+                initializeDriver();
             }
 
-            WelcomePage welcomePage = new WelcomePage();
-
-            if (welcomePage.isWelcomePageDisplayed()) {
-                logInfo("Navigating from welcome to register page");
-                welcomePage.clickCreateAccount();
-                TestUtils.waitFor(2000);
-            }
+            Navigator.Result result = Navigator.navigateTo(screen);
+            logInfo("Navigated to " + result);
         } catch (Exception e) {
-            System.err.println("Navigation to register failed: " + e.getMessage());
-            throw new RuntimeException("Failed to navigate to register page", e);
+            System.err.println("Navigation to " + screen + " failed: " + e.getMessage());
+            throw new RuntimeException("Failed to navigate to " + screen.name().toLowerCase() + " page", e);
         }
     }
 
@@ -243,6 +270,34 @@ public class BaseTest {
     public void afterMethod(ITestResult result) {
         System.out.println("Cleaning up test method...");
 
+        try {
+            // Device log of this test; attached when it failed or the app crashed
+            LogcatCollector.Slice logcat = LogcatCollector.markTestEnd();
+            if (logcat != null) {
+                boolean crashed = logcat.contains(LogcatCollector.FATAL_EXCEPTION);
+                if (crashed) {
+                    ExtentReportManager.logWarning("App crashed during the test: "
+                            + logcat.lines(LogcatCollector.FATAL_EXCEPTION));
+                }
+                if (crashed || result.getStatus() == ITestResult.FAILURE) {
+                    LogcatCollector.attach(logcat, result.getName());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error attaching logcat: " + e.getMessage());
+        }
+
+        try {
+            PerfTelemetry.recordMemory("end");
+            for (String violation : PerfTelemetry.getViolations()) {
+                ExtentReportManager.logWarning("Performance threshold exceeded: " + violation);
+            }
+        } catch (Exception e) {
+            System.err.println("Error recording perf telemetry: " + e.getMessage());
+        } finally {
+            PerfTelemetry.endTest();
+        }
+
         try {
             // Handle test result for reporting
             if (result.getStatus() == ITestResult.FAILURE) {
@@ -264,6 +319,10 @@ public class BaseTest {
                 System.out.println("Test passed: " + result.getName());
                 ExtentReportManager.logPass("Test completed successfully");
 
+            } else if (result.getStatus() == ITestResult.SKIP && result.wasRetried()) {
+                System.out.println("Test will be retried: " + result.getName());
+                ExtentReportManager.logSkip("Retried after infrastructure failure: " + result.getAttribute("recovery"));
+
             } else if (result.getStatus() == ITestResult.SKIP) {
                 System.out.println("Test skipped: " + result.getName());
                 ExtentReportManager.logSkip("Test was skipped: " + result.getThrowable().getMessage());
@@ -282,15 +341,20 @@ public class BaseTest {
 
         try {
             // Quit driver - but only if it exists and is active
-            if (driver != null) {
+            AndroidDriver driver = driver();
+            if (driver != null && DriverRecovery.isKeptForRetry()) {
+                System.out.println("Keeping recovered session for retry: " + driver.getSessionId());
+            } else if (driver != null) {
                 System.out.println("Quitting driver with session: " + driver.getSessionId());
                 AppiumConfig.quitDriver();
-                driver = null; // Explicitly set to null
+                // Cached pages hold the driver; the thread must not keep them past its session
+                PageRegistry.clear();
             }
         } catch (Exception e) {
             System.err.println("Error quitting driver: " + e.getMessage());
-            // Force set driver to null even if quit failed
-            driver = null;
+            // Force removal from the registry even if quit failed
+            DriverManager.removeDriver();
+            PageRegistry.clear();
         }
 
         System.out.println("Test method cleanup completed");
@@ -300,6 +364,29 @@ public class BaseTest {
     public void afterSuite() {
         System.out.println("=== Cleaning up Test Suite ===");
 
+        System.out.println(ReadinessWaiter.getStatsSummary());
+        System.out.println(PageSnapshotCache.getStatsSummary());
+        System.out.println(BasePage.getBulkReadSummary());
+        System.out.println(PageRegistry.getStatsSummary());
+        System.out.println(Navigator.getStatsSummary());
+        System.out.println(LoginStateCache.getStatsSummary());
+        System.out.println(DriverRecovery.getStatsSummary());
+        System.out.println(DriverHealthMonitor.getStatsSummary());
+        System.out.println(GestureEngine.getStatsSummary());
+        System.out.println(ScrollSearch.getStatsSummary());
+        System.out.println(VirtualListReader.getStatsSummary());
+        System.out.println(LogcatCollector.getStatsSummary());
+        System.out.println(PerfTelemetry.getStatsSummary());
+        PerfTelemetry.flush();
+        System.out.println(LocatorMetrics.getSummary());
+        LocatorMetrics.exportAll();
+
+        // Screenshots referenced by the report must be on disk before it is written
+        if (!ScreenshotWriter.flush(30000)) {
+            System.err.println("Timed out waiting for queued screenshots");
+        }
+        System.out.println(ScreenshotWriter.getStatsSummary());
+
         try {
             // Flush ExtentReports
             ExtentReportManager.flushReports();
@@ -348,14 +435,20 @@ public class BaseTest {
         TestUtils.waitFor(milliseconds);
     }
 
+    /**
+     * Driver bound to the current test thread, or null if none
+     */
+    protected AndroidDriver driver() {
+        return DriverManager.peekDriver();
+    }
+
     /**
      * Get current driver instance with validation
      */
     protected AndroidDriver getDriver() {
-        if (driver == null) {
+        if (driver() == null) {
             System.out.println("Driver is null, attempting to get from AppiumConfig...");
-            driver = AppiumConfig.getDriver();
         }
-        return driver;
+        return AppiumConfig.getDriver();
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.elektronicare.tests;
 
-import com.elektronicare.pages.LoginPage;
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.DashboardPage;
 import com.elektronicare.pages.HistoryPage;
 import com.elektronicare.utils.TestUtils;
@@ -13,23 +13,18 @@ import org.testng.annotations.Test;
  */
 public class DashboardTest extends BaseTest {
 
-    private DashboardPage dashboardPage;
+    private final ThreadLocal<DashboardPage> dashboardPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void navigateToDashboard() {
         logInfo("Running @BeforeMethod: navigateToDashboard");
-        // Navigate to login page first
-        super.navigateToLogin();
+        // Log in with test credentials, or restore the cached login state
+        loginAs("test@elektronicare.com", "testpassword123");
 
-        // Try to login with test credentials
-        LoginPage loginPage = new LoginPage();
-        loginPage.login("test@elektronicare.com", "testpassword123");
-        TestUtils.waitFor(3000);
-
-        dashboardPage = new DashboardPage();
+        dashboardPage.set(PageRegistry.get(DashboardPage.class));
 
         // If not on dashboard, wait a bit more
-        if (!dashboardPage.isPageLoaded()) {
+        if (!dashboardPage.get().isPageLoaded()) {
             TestUtils.waitFor(3000);
         }
     }
@@ -39,12 +34,12 @@ public class DashboardTest extends BaseTest {
         createTest("Navigation Buttons Test",
                 "Test navigation button functionality");
 
-        if (dashboardPage == null) {
+        if (dashboardPage.get() == null) {
             logInfo("dashboardPage is null, re-initializing");
-            dashboardPage = new DashboardPage();
+            dashboardPage.set(PageRegistry.get(DashboardPage.class));
         }
 
-        if (!dashboardPage.isPageLoaded()) {
+        if (!dashboardPage.get().isPageLoaded()) {
             logInfo("Dashboard not loaded - skipping test");
             return;
         }
@@ -52,28 +47,28 @@ public class DashboardTest extends BaseTest {
         logInfo("Testing view history navigation");
         takeScreenshot("before_view_history_click");
 
-        dashboardPage.clickViewHistory();
+        dashboardPage.get().clickViewHistory();
         waitFor(2000);
 
         takeScreenshot("after_view_history_click");
 
-        HistoryPage historyPage = new HistoryPage();
+        HistoryPage historyPage = PageRegistry.get(HistoryPage.class);
         if (historyPage.isPageLoaded()) {
             logPass("View history button navigated to history page");
-            dashboardPage.goBack();
+            dashboardPage.get().goBack();
             waitFor(1000);
         } else {
             logInfo("View history button - checking navigation result");
         }
 
         logInfo("Testing services navigation");
-        dashboardPage.clickServicesNavigation();
+        dashboardPage.get().clickServicesNavigation();
         waitFor(2000);
 
         takeScreenshot("after_services_click");
 
         // Navigate back to dashboard
-        dashboardPage.clickHomeNavigation();
+        dashboardPage.get().clickHomeNavigation();
         waitFor(1000);
 
         logInfo("Navigation buttons tested successfully");
@@ -84,12 +79,12 @@ public class DashboardTest extends BaseTest {
         createTest("Bottom Navigation Test",
                 "Test bottom navigation functionality");
 
-        if (dashboardPage == null) {
+        if (dashboardPage.get() == null) {
             logInfo("dashboardPage is null, re-initializing");
-            dashboardPage = new DashboardPage();
+            dashboardPage.set(PageRegistry.get(DashboardPage.class));
         }
 
-        if (!dashboardPage.isPageLoaded()) {
+        if (!dashboardPage.get().isPageLoaded()) {
             logInfo("Dashboard not loaded - skipping test");
             return;
         }
@@ -97,29 +92,29 @@ public class DashboardTest extends BaseTest {
         logInfo("Testing history navigation");
         takeScreenshot("before_history_nav_click");
 
-        dashboardPage.clickHistoryNavigation();
+        dashboardPage.get().clickHistoryNavigation();
         waitFor(2000);
 
         takeScreenshot("after_history_nav_click");
 
-        HistoryPage historyPage = new HistoryPage();
+        HistoryPage historyPage = PageRegistry.get(HistoryPage.class);
         if (historyPage.isPageLoaded()) {
             logPass("History navigation working");
 
             // Navigate back to dashboard
-            dashboardPage.clickHomeNavigation();
+            dashboardPage.get().clickHomeNavigation();
             waitFor(1000);
         }
 
         // Navigate back to dashboard
-        dashboardPage.clickHomeNavigation();
+        dashboardPage.get().clickHomeNavigation();
         waitFor(1000);
 
         logInfo("Testing home navigation (should stay on dashboard)");
-        dashboardPage.clickHomeNavigation();
+        dashboardPage.get().clickHomeNavigation();
         waitFor(1000);
 
-        if (dashboardPage.isPageLoaded()) {
+        if (dashboardPage.get().isPageLoaded()) {
             logPass("Home navigation keeps user on dashboard");
         }
     }
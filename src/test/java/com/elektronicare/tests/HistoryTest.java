@@ -1,6 +1,6 @@
 package com.elektronicare.tests;
 
-import com.elektronicare.pages.LoginPage;
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.DashboardPage;
 import com.elektronicare.pages.HistoryPage;
 import org.testng.annotations.BeforeMethod;
@@ -11,27 +11,22 @@ import org.testng.annotations.Test;
  */
 public class HistoryTest extends BaseTest {
 
-    private HistoryPage historyPage;
+    private final ThreadLocal<HistoryPage> historyPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void navigateToHistory() {
         logInfo("Running @BeforeMethod: navigateToHistory");
-        // Navigate to login first
-        navigateToLogin();
-
-        // Login with test credentials
-        LoginPage loginPage = new LoginPage();
-        loginPage.login("test@elektronicare.com", "testpassword123");
-        waitFor(3000);
+        // Log in with test credentials, or restore the cached login state
+        loginAs("test@elektronicare.com", "testpassword123");
 
         // Navigate to history from dashboard
-        DashboardPage dashboardPage = new DashboardPage();
+        DashboardPage dashboardPage = PageRegistry.get(DashboardPage.class);
         if (dashboardPage.isPageLoaded()) {
             dashboardPage.clickHistoryNavigation();
             waitFor(2000);
         }
 
-        historyPage = new HistoryPage();
+        historyPage.set(PageRegistry.get(HistoryPage.class));
     }
 
     @Test(priority = 1, description = "Verify history page elements")
@@ -39,13 +34,13 @@ public class HistoryTest extends BaseTest {
         createTest("History Page Elements Test",
                 "Verify all history page elements are displayed correctly");
 
-        if (historyPage == null) {
+        if (historyPage.get() == null) {
             logInfo("historyPage is null, re-initializing");
-            historyPage = new HistoryPage();
+            historyPage.set(PageRegistry.get(HistoryPage.class));
         }
 
         logInfo("Checking if history page is loaded");
-        if (historyPage.isPageLoaded()) {
+        if (historyPage.get().isPageLoaded()) {
             logPass("History page is loaded successfully");
         } else {
             logInfo("History page not detected - taking screenshot for analysis");
@@ -56,30 +51,30 @@ public class HistoryTest extends BaseTest {
         takeScreenshot("history_page_loaded");
 
         logInfo("Verifying history page title");
-        String pageTitle = historyPage.getPageTitle();
+        String pageTitle = historyPage.get().getPageTitle();
         logInfo("Page title: " + pageTitle);
 
         logInfo("Checking if bottom navigation is displayed");
-        if (historyPage.isBottomNavigationDisplayed()) {
+        if (historyPage.get().isBottomNavigationDisplayed()) {
             logPass("Bottom navigation is displayed");
         } else {
             logInfo("Bottom navigation not found");
         }
 
         logInfo("Checking history list or empty state");
-        if (historyPage.isHistoryEmpty()) {
+        if (historyPage.get().isHistoryEmpty()) {
             logPass("Empty state is displayed (no service history)");
 
-            String emptyMessage = historyPage.getEmptyStateMessage();
+            String emptyMessage = historyPage.get().getEmptyStateMessage();
             if (!emptyMessage.isEmpty()) {
                 logInfo("Empty state message: " + emptyMessage);
             }
 
             takeScreenshot("history_empty_state");
-        } else if (historyPage.isHistoryListDisplayed()) {
+        } else if (historyPage.get().isHistoryListDisplayed()) {
             logPass("History list is displayed");
 
-            int historyCount = historyPage.getHistoryItemsCount();
+            int historyCount = historyPage.get().getHistoryItemsCount();
             logInfo("Number of history items: " + historyCount);
 
             if (historyCount > 0) {
@@ -87,10 +82,10 @@ public class HistoryTest extends BaseTest {
                 takeScreenshot("history_with_items");
 
                 // Check first item details
-                String firstItemService = historyPage.getFirstItemServiceName();
-                String firstItemStatus = historyPage.getFirstItemStatus();
-                String firstItemDate = historyPage.getFirstItemDate();
-                String firstItemPrice = historyPage.getFirstItemPrice();
+                String firstItemService = historyPage.get().getFirstItemServiceName();
+                String firstItemStatus = historyPage.get().getFirstItemStatus();
+                String firstItemDate = historyPage.get().getFirstItemDate();
+                String firstItemPrice = historyPage.get().getFirstItemPrice();
 
                 if (!firstItemService.isEmpty()) {
                     logInfo("First item service: " + firstItemService);
@@ -116,7 +111,7 @@ public class HistoryTest extends BaseTest {
         createTest("History Page Loading Test",
                 "Test history page loading and data fetching");
 
-        if (!historyPage.isPageLoaded()) {
+        if (!historyPage.get().isPageLoaded()) {
             logInfo("History page not loaded - skipping test");
             return;
         }
@@ -125,16 +120,16 @@ public class HistoryTest extends BaseTest {
         takeScreenshot("history_loading_test");
 
         // Wait for history to load
-        historyPage.waitForHistoryToLoad();
+        historyPage.get().waitForHistoryToLoad();
 
         takeScreenshot("after_history_load_wait");
 
-        if (historyPage.isHistoryEmpty()) {
+        if (historyPage.get().isHistoryEmpty()) {
             logPass("History loaded - empty state displayed");
-        } else if (historyPage.isHistoryListDisplayed()) {
+        } else if (historyPage.get().isHistoryListDisplayed()) {
             logPass("History loaded - items displayed");
 
-            int itemCount = historyPage.getHistoryItemsCount();
+            int itemCount = historyPage.get().getHistoryItemsCount();
             logInfo("Loaded " + itemCount + " history items");
         } else {
             logInfo("History loading state unclear");
@@ -146,17 +141,17 @@ public class HistoryTest extends BaseTest {
         createTest("History Data Validation Test",
                 "Validate history item data format and content");
 
-        if (!historyPage.isPageLoaded()) {
+        if (!historyPage.get().isPageLoaded()) {
             logInfo("History page not loaded - skipping test");
             return;
         }
 
-        if (historyPage.isHistoryEmpty()) {
+        if (historyPage.get().isHistoryEmpty()) {
             logInfo("No history data to validate - skipping test");
             return;
         }
 
-        int historyCount = historyPage.getHistoryItemsCount();
+        int historyCount = historyPage.get().getHistoryItemsCount();
         if (historyCount == 0) {
             logInfo("No history items found for validation - skipping test");
             return;
@@ -166,10 +161,10 @@ public class HistoryTest extends BaseTest {
         takeScreenshot("history_data_validation");
 
         // Validate first item data
-        String serviceName = historyPage.getFirstItemServiceName();
-        String status = historyPage.getFirstItemStatus();
-        String date = historyPage.getFirstItemDate();
-        String price = historyPage.getFirstItemPrice();
+        String serviceName = historyPage.get().getFirstItemServiceName();
+        String status = historyPage.get().getFirstItemStatus();
+        String date = historyPage.get().getFirstItemDate();
+        String price = historyPage.get().getFirstItemPrice();
 
         logInfo("Validating first history item data:");
 
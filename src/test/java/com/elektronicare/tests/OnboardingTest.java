@@ -1,5 +1,6 @@
 package com.elektronicare.tests;
 
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.OnboardingPage;
 import com.elektronicare.pages.WelcomePage;
 import com.elektronicare.utils.ExtentReportManager;
@@ -9,14 +10,14 @@ import org.testng.annotations.Test;
 
 public class OnboardingTest extends BaseTest {
 
-        private OnboardingPage onboardingPage;
-        private WelcomePage welcomePage;
+        private final ThreadLocal<OnboardingPage> onboardingPage = new ThreadLocal<>();
+        private final ThreadLocal<WelcomePage> welcomePage = new ThreadLocal<>();
 
         @BeforeMethod
         public void setupPages() {
                 logInfo("Running @BeforeMethod: setupPages");
-                onboardingPage = new OnboardingPage();
-                welcomePage = new WelcomePage();
+                onboardingPage.set(PageRegistry.get(OnboardingPage.class));
+                welcomePage.set(PageRegistry.get(WelcomePage.class));
         }
 
         @Test(groups = { "functional" }, priority = 2)
@@ -24,22 +25,22 @@ public class OnboardingTest extends BaseTest {
                 createTest("Onboarding Navigation Test", "Test navigation through onboarding pages");
                 logInfo("Testing onboarding navigation");
 
-                if (onboardingPage == null) {
+                if (onboardingPage.get() == null) {
                         logInfo("onboardingPage is null, re-initializing");
-                        onboardingPage = new OnboardingPage();
+                        onboardingPage.set(PageRegistry.get(OnboardingPage.class));
                 }
 
                 // Navigate through onboarding pages using Next button
-                onboardingPage.clickNextAndWaitForLaptopServices();
-                Assert.assertTrue(onboardingPage.isLaptopServicesPageDisplayed(),
+                onboardingPage.get().clickNextAndWaitForLaptopServices();
+                Assert.assertTrue(onboardingPage.get().isLaptopServicesPageDisplayed(),
                                 "Should navigate to Laptop Services page");
 
-                onboardingPage.clickNextAndWaitForTvRepairs();
-                Assert.assertTrue(onboardingPage.isTvRepairsPageDisplayed(),
+                onboardingPage.get().clickNextAndWaitForTvRepairs();
+                Assert.assertTrue(onboardingPage.get().isTvRepairsPageDisplayed(),
                                 "Should navigate to TV Repairs page");
 
                 // Verify Get Started button appears on last page
-                Assert.assertTrue(onboardingPage.isGetStartedButtonDisplayed(),
+                Assert.assertTrue(onboardingPage.get().isGetStartedButtonDisplayed(),
                                 "Get Started button should appear on last page");
 
                 logPass("Onboarding navigation works correctly");
@@ -50,20 +51,20 @@ public class OnboardingTest extends BaseTest {
                 createTest("Onboarding Skip Test", "Test skip functionality in onboarding");
                 logInfo("Testing onboarding skip functionality");
 
-                if (onboardingPage == null) {
+                if (onboardingPage.get() == null) {
                         logInfo("onboardingPage is null, re-initializing");
-                        onboardingPage = new OnboardingPage();
+                        onboardingPage.set(PageRegistry.get(OnboardingPage.class));
                 }
-                if (welcomePage == null) {
+                if (welcomePage.get() == null) {
                         logInfo("welcomePage is null, re-initializing");
-                        welcomePage = new WelcomePage();
+                        welcomePage.set(PageRegistry.get(WelcomePage.class));
                 }
 
                 // Skip onboarding
-                onboardingPage.clickSkip();
+                onboardingPage.get().clickSkip();
 
                 // Verify navigation to welcome page
-                Assert.assertTrue(welcomePage.isWelcomePageDisplayed(),
+                Assert.assertTrue(welcomePage.get().isWelcomePageDisplayed(),
                                 "Should navigate to welcome page after skipping onboarding");
 
                 logPass("Onboarding skip functionality works correctly");
@@ -74,24 +75,24 @@ public class OnboardingTest extends BaseTest {
                 createTest("Onboarding Complete Test", "Test completing onboarding flow");
                 logInfo("Testing onboarding completion");
 
-                if (onboardingPage == null) {
+                if (onboardingPage.get() == null) {
                         logInfo("onboardingPage is null, re-initializing");
-                        onboardingPage = new OnboardingPage();
+                        onboardingPage.set(PageRegistry.get(OnboardingPage.class));
                 }
-                if (welcomePage == null) {
+                if (welcomePage.get() == null) {
                         logInfo("welcomePage is null, re-initializing");
-                        welcomePage = new WelcomePage();
+                        welcomePage.set(PageRegistry.get(WelcomePage.class));
                 }
 
                 // Navigate to last page
-                onboardingPage.clickNext();
-                onboardingPage.clickNext();
+                onboardingPage.get().clickNext();
+                onboardingPage.get().clickNext();
 
                 // Complete onboarding
-                onboardingPage.clickNext(); // This should be "Get Started" button
+                onboardingPage.get().clickNext(); // This should be "Get Started" button
 
                 // Verify navigation to welcome page
-                Assert.assertTrue(welcomePage.isWelcomePageDisplayed(),
+                Assert.assertTrue(welcomePage.get().isWelcomePageDisplayed(),
                                 "Should navigate to welcome page after completing onboarding");
 
                 logPass("Onboarding completion works correctly");
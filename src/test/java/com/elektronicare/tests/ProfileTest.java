@@ -1,6 +1,7 @@
 package com.elektronicare.tests;
 
 import com.elektronicare.tests.BaseTest;
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.DashboardPage;
 import com.elektronicare.pages.ProfilePage;
 import com.elektronicare.pages.WelcomePage;
@@ -12,16 +13,12 @@ import org.testng.annotations.Test;
  */
 public class ProfileTest extends BaseTest {
     
-    private ProfilePage profilePage;
-    private DashboardPage dashboardPage;
-    private WelcomePage welcomePage;
-    
     @Test(priority = 1, description = "Test profile page navigation")
     public void testProfilePageNavigation() {
         createTest("Profile Page Navigation Test", "Verify user can navigate to profile page");
         
-        profilePage = new ProfilePage();
-        dashboardPage = new DashboardPage();
+        ProfilePage profilePage = PageRegistry.get(ProfilePage.class);
+        DashboardPage dashboardPage = PageRegistry.get(DashboardPage.class);
         
         // Navigate to profile page
         dashboardPage.clickProfileNavigation();
@@ -37,7 +34,7 @@ public class ProfileTest extends BaseTest {
     public void testProfileElementsVisibility() {
         createTest("Profile Elements Visibility Test", "Verify all profile elements are visible");
         
-        profilePage = new ProfilePage();
+        ProfilePage profilePage = PageRegistry.get(ProfilePage.class);
         
         // Verify profile elements are displayed
         Assert.assertTrue(profilePage.isLogoutButtonDisplayed(), 
@@ -53,8 +50,8 @@ public class ProfileTest extends BaseTest {
     public void testLogoutFunctionality() {
         createTest("Logout Functionality Test", "Verify user can logout successfully");
         
-        profilePage = new ProfilePage();
-        welcomePage = new WelcomePage();
+        ProfilePage profilePage = PageRegistry.get(ProfilePage.class);
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
         
         // Click logout button
         profilePage.clickLogout();
@@ -1,5 +1,6 @@
 package com.elektronicare.tests;
 
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.RegisterPage;
 import com.elektronicare.pages.LoginPage;
 import com.elektronicare.pages.DashboardPage;
@@ -20,7 +21,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Verify register page is displayed
         Assert.assertTrue(registerPage.isRegisterPageDisplayed(),
@@ -40,7 +41,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Try to register with empty fields
         registerPage.clickCreateAccount();
@@ -67,7 +68,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Enter invalid email
         registerPage.enterFullName("Test User");
@@ -93,7 +94,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Enter invalid phone number
         registerPage.enterFullName("Test User");
@@ -116,7 +117,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Enter short password
         registerPage.enterFullName("Test User");
@@ -143,7 +144,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Enter password
         registerPage.enterPassword("testpassword");
@@ -163,8 +164,8 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
-        DashboardPage dashboardPage = new DashboardPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
+        DashboardPage dashboardPage = PageRegistry.get(DashboardPage.class);
 
         // Generate unique email for testing
         String timestamp = String.valueOf(System.currentTimeMillis());
@@ -193,8 +194,8 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
-        LoginPage loginPage = new LoginPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
+        LoginPage loginPage = PageRegistry.get(LoginPage.class);
 
         // Click sign in link
         registerPage.clickSignInLink();
@@ -213,7 +214,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Click back button
         registerPage.clickBack();
@@ -229,7 +230,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Click Google Sign-In button
         registerPage.clickGoogleSignIn();
@@ -246,7 +247,7 @@ public class RegisterTest extends BaseTest {
         // Navigate to register page
         navigateToRegister();
 
-        RegisterPage registerPage = new RegisterPage();
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
 
         // Enter phone number in different formats
         registerPage.enterMobile("8123456789"); // Without leading 0
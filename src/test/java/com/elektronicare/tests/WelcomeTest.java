@@ -1,5 +1,6 @@
 package com.elektronicare.tests;
 
+import com.elektronicare.pages.PageRegistry;
 import com.elektronicare.pages.WelcomePage;
 import com.elektronicare.pages.RegisterPage;
 import com.elektronicare.pages.LoginPage;
@@ -20,7 +21,7 @@ public class WelcomeTest extends BaseTest {
         // Navigate to welcome page
         navigateToWelcome();
         
-        WelcomePage welcomePage = new WelcomePage();
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
         
         // Verify welcome page is displayed
         Assert.assertTrue(welcomePage.isWelcomePageDisplayed(), 
@@ -44,7 +45,7 @@ public class WelcomeTest extends BaseTest {
         // Navigate to welcome page
         navigateToWelcome();
         
-        WelcomePage welcomePage = new WelcomePage();
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
         
         // Verify button texts
         String createAccountText = welcomePage.getCreateAccountButtonText();
@@ -70,8 +71,8 @@ public class WelcomeTest extends BaseTest {
         // Navigate to welcome page
         navigateToWelcome();
         
-        WelcomePage welcomePage = new WelcomePage();
-        RegisterPage registerPage = new RegisterPage();
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
+        RegisterPage registerPage = PageRegistry.get(RegisterPage.class);
         
         // Click Create Account button
         welcomePage.clickCreateAccount();
@@ -91,8 +92,8 @@ public class WelcomeTest extends BaseTest {
         // Navigate to welcome page
         navigateToWelcome();
         
-        WelcomePage welcomePage = new WelcomePage();
-        LoginPage loginPage = new LoginPage();
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
+        LoginPage loginPage = PageRegistry.get(LoginPage.class);
         
         // Click Sign In button
         welcomePage.clickSignIn();
@@ -112,7 +113,7 @@ public class WelcomeTest extends BaseTest {
         // Navigate to welcome page
         navigateToWelcome();
         
-        WelcomePage welcomePage = new WelcomePage();
+        WelcomePage welcomePage = PageRegistry.get(WelcomePage.class);
         
         // Verify branding elements are displayed
         Assert.assertTrue(welcomePage.isSubtitleDisplayed(), 
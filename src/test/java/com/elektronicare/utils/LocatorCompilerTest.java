@@ -0,0 +1,114 @@
+package com.elektronicare.utils;
+
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * XPath to id/UiSelector translation of LocatorCompiler
+ */
+public class LocatorCompilerTest {
+
+    private static CompiledLocator compile(String xpath) {
+        return LocatorCompiler.compile("TestPage", "field", xpath);
+    }
+
+    private static void assertUiSelector(CompiledLocator locator, String selector) {
+        assertEquals(locator.getStrategy(), "uiautomator");
+        assertEquals(locator.getOptimizedBy(), AppiumBy.androidUIAutomator(selector));
+    }
+
+    @Test
+    public void exactResourceIdBecomesId() {
+        CompiledLocator locator = compile("//*[@resource-id='com.example:id/btn_login']");
+
+        assertEquals(locator.getStrategy(), "id");
+        assertEquals(locator.getOptimizedBy(), By.id("com.example:id/btn_login"));
+        assertNull(locator.getNote());
+    }
+
+    @Test
+    public void classAndTextBecomeUiSelector() {
+        assertUiSelector(compile("//android.widget.Button[@text='Sign In']"),
+                "new UiSelector().className(\"android.widget.Button\").text(\"Sign In\")");
+    }
+
+    @Test
+    public void containsBecomesContainsSelectors() {
+        assertUiSelector(compile("//*[contains(@text,'Welcome') and contains(@content-desc, 'title')]"),
+                "new UiSelector().textContains(\"Welcome\").descriptionContains(\"title\")");
+        assertUiSelector(compile("//*[contains(@resource-id,'error_label')]"),
+                "new UiSelector().resourceIdMatches(\".*error_label.*\")");
+    }
+
+    @Test
+    public void classOfWildcardStepIsKept() {
+        assertUiSelector(compile("//*[@class='android.widget.EditText' and @text='Email']"),
+                "new UiSelector().className(\"android.widget.EditText\").text(\"Email\")");
+    }
+
+    @Test
+    public void firstMatchBecomesInstanceZero() {
+        assertUiSelector(compile("(//android.widget.TextView[@text='Next'])[1]"),
+                "new UiSelector().className(\"android.widget.TextView\").text(\"Next\").instance(0)");
+    }
+
+    @Test
+    public void orPredicateBecomesSelectorUnion() {
+        assertUiSelector(compile("//android.widget.TextView[@text='Login' or @text='Sign In']"),
+                "new UiSelector().className(\"android.widget.TextView\").text(\"Login\");"
+                        + "new UiSelector().className(\"android.widget.TextView\").text(\"Sign In\")");
+    }
+
+    @Test
+    public void ancestorStepsAreDroppedForExactResourceId() {
+        CompiledLocator locator = compile("//androidx.recyclerview.widget.RecyclerView"
+                + "[@resource-id='com.example:id/list']//android.widget.TextView[@resource-id='com.example:id/name']");
+
+        assertUiSelector(locator,
+                "new UiSelector().className(\"android.widget.TextView\").resourceId(\"com.example:id/name\")");
+        assertEquals(locator.getNote(), "ancestor steps dropped");
+    }
+
+    @DataProvider
+    public Object[][] untranslatable() {
+        return new Object[][] {
+                { "/hierarchy/android.widget.FrameLayout", "only descendant (//) paths are supported" },
+                { "//android.widget.LinearLayout/android.widget.TextView", "child (/) steps are not supported" },
+                { "//android.widget.Toast", "toasts are only exposed to XPath" },
+                { "//*[@text='a' and @text='b' or @text='c']", "mixed and/or predicates" },
+                { "//android.widget.ScrollView//android.widget.TextView[@text='Name']",
+                        "nested path without an exact resource-id" },
+                { "//android.widget.ScrollView//*[@resource-id='com.example:id/a' or @text='b']",
+                        "nested path without an exact resource-id" },
+                { "(//*[@text='a' or @text='b'])[1]", "(a or b)[1] has no UiSelector equivalent" },
+                { "//*", "matches every element" },
+                { "//android.widget.EditText[contains(@hint,'Email')]", "@hint has no UiSelector equivalent" },
+                { "//*[contains(@class,'Edit')]", "contains(@class) is not supported" },
+                { "//*[contains(@resource-id,'a.b')]", "resource-id fragment is not regex safe: a.b" },
+                { "//*[starts-with(@text,'a')]", "unsupported predicate 'starts-with(@text,'a')'" },
+                { "//android.widget.TextView[2]", "unsupported predicate '2'" },
+        };
+    }
+
+    @Test(dataProvider = "untranslatable")
+    public void untranslatableXPathIsKept(String xpath, String reason) {
+        CompiledLocator locator = compile(xpath);
+
+        assertFalse(locator.isOptimized());
+        assertEquals(locator.getStrategy(), "xpath");
+        assertEquals(locator.getXPath(), xpath);
+        assertEquals(locator.getNote(), reason);
+    }
+
+    @Test
+    public void compileNeverThrows() {
+        assertTrue(compile("not an xpath").getNote().startsWith("only descendant"));
+    }
+}